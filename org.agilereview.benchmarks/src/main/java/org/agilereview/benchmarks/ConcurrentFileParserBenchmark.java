@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.agilereview.fileparser.FileParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of concurrent {@link FileParser} modifications, either all on the same file or each thread on its own file. Each operation adds a tag
+ * and removes it again, such that the file keeps its size. The number of threads is given by the JMH option -t, e.g. by running the benchmark with
+ * -t 1, 2, 4, 8, 16 and 32.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentFileParserBenchmark {
+    
+    /**
+     * Counter of the threads, used to create distinct tag ids
+     */
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    
+    /**
+     * Generated file shared by all threads
+     */
+    @State(Scope.Benchmark)
+    public static class SharedFile {
+        
+        /**
+         * Number of lines of the parsed file
+         */
+        @Param({ "1000", "10000" })
+        public int lineCount;
+        
+        /**
+         * File to be modified
+         */
+        File file;
+        
+        /**
+         * Generates the file
+         * @throws IOException if the file could not be written
+         */
+        @Setup(Level.Trial)
+        public void generateFile() throws IOException {
+            file = File.createTempFile("Synthetic", ".java");
+            new SyntheticJavaFile(lineCount, 0.01).write(file);
+        }
+        
+        /**
+         * Deletes the file
+         * @throws IOException if the file could not be deleted
+         */
+        @TearDown(Level.Trial)
+        public void deleteFile() throws IOException {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+    
+    /**
+     * Generated file of one thread
+     */
+    @State(Scope.Thread)
+    public static class OwnFile extends SharedFile {
+    }
+    
+    /**
+     * Tag id and line of one thread
+     */
+    @State(Scope.Thread)
+    public static class Selection {
+        
+        /**
+         * Tag id to be added and removed
+         */
+        String tagId;
+        /**
+         * Line to be tagged
+         */
+        int line;
+        
+        /**
+         * Assigns a distinct tag id and line to the thread
+         */
+        @Setup(Level.Trial)
+        public void assign() {
+            int thread = THREADS.incrementAndGet();
+            tagId = "thread" + thread;
+            line = 10 + thread * 3;
+        }
+    }
+    
+    /**
+     * All threads modify the same file, such that the modifications are serialized
+     * @param file {@link SharedFile} to be modified
+     * @param selection {@link Selection} of the thread
+     * @throws IOException if the file could not be read or written
+     */
+    @Benchmark
+    public void sameFile(SharedFile file, Selection selection) throws IOException {
+        addAndRemoveTag(file.file, selection);
+    }
+    
+    /**
+     * Each thread modifies its own file, such that the modifications run in parallel
+     * @param file {@link OwnFile} to be modified
+     * @param selection {@link Selection} of the thread
+     * @throws IOException if the file could not be read or written
+     */
+    @Benchmark
+    public void distinctFiles(OwnFile file, Selection selection) throws IOException {
+        addAndRemoveTag(file.file, selection);
+    }
+    
+    /**
+     * Adds the tag of the given selection to the file and removes it again
+     * @param file to be modified
+     * @param selection {@link Selection} of the thread
+     * @throws IOException if the file could not be read or written
+     */
+    private static void addAndRemoveTag(File file, Selection selection) throws IOException {
+        FileParser parser = new FileParser(file, SyntheticJavaFile.COMMENT_SIGNS);
+        parser.addTags(selection.tagId, selection.line, selection.line);
+        parser.removeTags(selection.tagId);
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.agilereview.fileparser.FileParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the file modifying operations of the {@link FileParser} on {@link SyntheticJavaFile}s of different sizes and tag densities. Each
+ * invocation works on a fresh copy of the generated file, the copying is not measured.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileParserBenchmark {
+    
+    /**
+     * Number of lines of the parsed file
+     */
+    @Param({ "1000", "100000", "1000000" })
+    public int lineCount;
+    /**
+     * Fraction of tagged methods of the parsed file
+     */
+    @Param({ "0.0", "0.01", "0.1" })
+    public double tagDensity;
+    
+    /**
+     * Generated file, which is never modified
+     */
+    private File template;
+    /**
+     * Copy of the generated file, which is modified by the benchmarks
+     */
+    private File file;
+    /**
+     * Id of a tag in the middle of the file or an unknown id if the file has no tags
+     */
+    private String tagId;
+    
+    /**
+     * Generates the file to be parsed
+     * @throws IOException if the file could not be written
+     */
+    @Setup(Level.Trial)
+    public void generateFile() throws IOException {
+        SyntheticJavaFile source = new SyntheticJavaFile(lineCount, tagDensity);
+        template = File.createTempFile("Synthetic", ".java");
+        file = File.createTempFile("Synthetic", ".java");
+        source.write(template);
+        List<String> tagIds = source.getTagIds();
+        tagId = tagIds.isEmpty() ? "unknown" : tagIds.get(tagIds.size() / 2);
+    }
+    
+    /**
+     * Restores the file to be parsed from the generated file
+     * @throws IOException if the file could not be copied
+     */
+    @Setup(Level.Invocation)
+    public void restoreFile() throws IOException {
+        Files.copy(template.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Deletes all files
+     * @throws IOException if a file could not be deleted
+     */
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(template.toPath());
+        Files.deleteIfExists(file.toPath());
+    }
+    
+    /**
+     * Tags five lines in the middle of the file
+     * @throws IOException if the file could not be read or written
+     */
+    @Benchmark
+    public void addTags() throws IOException {
+        int startLine = lineCount / 2;
+        new FileParser(file, SyntheticJavaFile.COMMENT_SIGNS).addTags("benchmark", startLine, startLine + 4);
+    }
+    
+    /**
+     * Removes the tags of one comment in the middle of the file
+     * @throws IOException if the file could not be read or written
+     */
+    @Benchmark
+    public void removeTags() throws IOException {
+        new FileParser(file, SyntheticJavaFile.COMMENT_SIGNS).removeTags(tagId);
+    }
+    
+    /**
+     * Removes all tags of the file
+     * @throws IOException if the file could not be read or written
+     */
+    @Benchmark
+    public void clearAllTags() throws IOException {
+        new FileParser(file, SyntheticJavaFile.COMMENT_SIGNS).clearAllTags();
+    }
+}
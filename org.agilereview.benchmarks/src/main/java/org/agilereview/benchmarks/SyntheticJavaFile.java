@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.agilereview.common.parser.CommentTagBuilder;
+
+/**
+ * Generator of synthetic Java sources with an exact number of lines. The source consists of documented methods, whereby a given fraction of the
+ * methods is surrounded by a multi-line AgileReview comment tag pair. Each method contains a string literal with comment signs, such that the
+ * comment detection is exercised as well.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class SyntheticJavaFile {
+    
+    /**
+     * Multi-line comment signs of Java
+     */
+    public static final String[] COMMENT_SIGNS = { "/*", "*/" };
+    /**
+     * Number of lines of each generated method including its javadoc and the following empty line
+     */
+    private static final int METHOD_LINES = 10;
+    
+    /**
+     * Lines of the source
+     */
+    private final List<String> lines;
+    /**
+     * Ids of all tags in order of their occurrence
+     */
+    private final List<String> tagIds = new ArrayList<String>();
+    
+    /**
+     * Generates a new synthetic Java source
+     * @param lineCount exact number of lines of the source, at least 4
+     * @param tagDensity fraction of methods to be tagged between 0 and 1
+     */
+    public SyntheticJavaFile(int lineCount, double tagDensity) {
+        if (lineCount < 4) throw new IllegalArgumentException("At least 4 lines are needed: " + lineCount);
+        CommentTagBuilder tagBuilder = new CommentTagBuilder(COMMENT_SIGNS[0], COMMENT_SIGNS[1]);
+        lines = new ArrayList<String>(lineCount);
+        lines.add("package synthetic;");
+        lines.add("");
+        lines.add("public class Synthetic {");
+        for (int method = 0; lines.size() + METHOD_LINES < lineCount; method++) {
+            String startTag = "";
+            String endTag = "";
+            if ((int) ((method + 1) * tagDensity) > (int) (method * tagDensity)) {
+                String tagId = "t" + method;
+                tagIds.add(tagId);
+                startTag = tagBuilder.isMultilineStartTag().buildTag(tagId);
+                endTag = tagBuilder.isMultilineEndTag().buildTag(tagId);
+            }
+            lines.add("    /**");
+            lines.add("     * Returns the value number " + method);
+            lines.add("     * @return the value");
+            lines.add("     */");
+            lines.add("    public int getValue" + method + "() {" + startTag);
+            lines.add("        int value = " + method + ";");
+            lines.add("        String text = \"value /* " + method + "\";");
+            lines.add("        return value + text.length(); // */");
+            lines.add("    }" + endTag);
+            lines.add("");
+        }
+        while (lines.size() < lineCount - 1) {
+            lines.add("    // filler");
+        }
+        lines.add("}");
+    }
+    
+    /**
+     * Returns the lines of the source
+     * @return an unmodifiable list of all lines
+     */
+    public List<String> getLines() {
+        return Collections.unmodifiableList(lines);
+    }
+    
+    /**
+     * Returns the ids of all tags
+     * @return an unmodifiable list of the tag ids in order of their occurrence
+     */
+    public List<String> getTagIds() {
+        return Collections.unmodifiableList(tagIds);
+    }
+    
+    /**
+     * Writes the source to the given file using UTF-8 and line feeds
+     * @param file to be written
+     * @throws IOException if the file could not be written
+     */
+    public void write(File file) throws IOException {
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+}
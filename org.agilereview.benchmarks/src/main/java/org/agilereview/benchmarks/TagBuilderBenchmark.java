@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.agilereview.common.parser.CommentTagBuilder;
+import org.agilereview.common.parser.CommentTagRegexBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the {@link CommentTagBuilder} and the {@link CommentTagRegexBuilder}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TagBuilderBenchmark {
+    
+    /**
+     * Id of the built tags
+     */
+    @Param({ "1", "a-rather-long-tag-id-0123456789" })
+    public String tagId;
+    
+    /**
+     * Builder of the tags
+     */
+    private CommentTagBuilder tagBuilder;
+    /**
+     * Builder of the tag regexes
+     */
+    private CommentTagRegexBuilder regexBuilder;
+    
+    /**
+     * Creates the builders
+     */
+    @Setup
+    public void createBuilders() {
+        tagBuilder = new CommentTagBuilder(SyntheticJavaFile.COMMENT_SIGNS[0], SyntheticJavaFile.COMMENT_SIGNS[1]);
+        regexBuilder = new CommentTagRegexBuilder(SyntheticJavaFile.COMMENT_SIGNS[0], SyntheticJavaFile.COMMENT_SIGNS[1]);
+    }
+    
+    /**
+     * Builds a single-line tag
+     * @return the tag
+     */
+    @Benchmark
+    public String buildTag_singleLine() {
+        return tagBuilder.isSingleLine().buildTag(tagId);
+    }
+    
+    /**
+     * Builds a multi-line start tag with line cleanup
+     * @return the tag
+     */
+    @Benchmark
+    public String buildTag_multilineStart() {
+        return tagBuilder.isMultilineStartTag().cleanupLineWithCommentRemoval(true).buildTag(tagId);
+    }
+    
+    /**
+     * Builds the regex matching all tags
+     * @return the regex
+     */
+    @Benchmark
+    public String buildTagRegex() {
+        return regexBuilder.buildTagRegex();
+    }
+    
+    /**
+     * Builds the regex matching the tags of one id
+     * @return the regex
+     */
+    @Benchmark
+    public String buildTagRegex_tagId() {
+        return regexBuilder.buildTagRegex(tagId, false);
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.agilereview.fileparser.FileParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link SyntheticJavaFile}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class SyntheticJavaFileTest {
+    
+    /**
+     * Tests that the source has the requested number of lines and that all tags are found by the {@link FileParser}
+     * @throws IOException
+     */
+    @Test
+    public void testGenerate() throws IOException {
+        SyntheticJavaFile source = new SyntheticJavaFile(1005, 0.25);
+        File file = File.createTempFile("Synthetic", ".java");
+        try {
+            source.write(file);
+            
+            Assert.assertEquals(1005, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+            Assert.assertEquals(25, source.getTagIds().size());
+            Assert.assertEquals(50, new FileParser(file, SyntheticJavaFile.COMMENT_SIGNS).listTags().size());
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+    
+    /**
+     * Tests that no tags are generated for a tag density of zero
+     */
+    @Test
+    public void testGenerate_untagged() {
+        SyntheticJavaFile source = new SyntheticJavaFile(1000, 0);
+        Assert.assertEquals(1000, source.getLines().size());
+        Assert.assertTrue(source.getTagIds().isEmpty());
+    }
+}
@@ -9,7 +9,14 @@ package org.agilereview.common.message;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.agilereview.common.configuration.ConfigurationKeys;
 import org.agilereview.common.exception.CommonPropertiesTechnicalRuntimeException;
@@ -17,7 +24,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The {@link MessageSourceHolder} gives access to error messages configured in property files.
+ * The {@link MessageSourceHolder} gives access to error messages configured in property files. Each property file is loaded at most once per
+ * process on first use and shared by all {@link MessageSourceHolder}s. Lookups do not acquire any lock, such that instances can be used by multiple
+ * threads concurrently.
  * @author Malte Brunnlieb (19.05.2014)
  */
 public class MessageSourceHolder {
@@ -28,44 +37,140 @@ public class MessageSourceHolder {
     private static Logger LOG = LoggerFactory.getLogger(MessageSourceHolder.class);
     
     /**
-     * All loaded Messages
+     * All loaded message bundles by the full path of their property file
      */
-    private Properties messages = new Properties();
+    private static final ConcurrentMap<String, Map<String, String>> BUNDLES = new ConcurrentHashMap<String, Map<String, String>>();
     
     /**
-     * Creates a new MessageSourceHolder for resolving messages from property files
+     * Compiled message formats of each thread by message pattern, as {@link MessageFormat} instances must not be shared between threads
+     */
+    private static final ThreadLocal<Map<String, MessageFormat>> FORMATS = new ThreadLocal<Map<String, MessageFormat>>() {
+        @Override
+        protected Map<String, MessageFormat> initialValue() {
+            return new HashMap<String, MessageFormat>();
+        }
+    };
+    
+    /**
+     * Configured locale or <code>null</code> if it has not been loaded yet
+     */
+    private static volatile String locale;
+    
+    /**
+     * Class path resource paths of the property files without locale suffix
+     */
+    private final String[] classPathResourcePaths;
+    
+    /**
+     * All messages of the property files or <code>null</code> if they have not been loaded yet
+     */
+    private volatile Map<String, String> messages;
+    
+    /**
+     * Creates a new MessageSourceHolder for resolving messages from property files. The property files are loaded on first lookup.
      * @param classPathResourcePaths
      * @author Malte Brunnlieb (19.05.2014)
      */
     public MessageSourceHolder(String... classPathResourcePaths) {
-        Properties globalProperties = new Properties();
-        try {
-            globalProperties.load(MessageSourceHolder.class.getResourceAsStream("/resources/global.properties"));
-        } catch (IOException e1) {
-            throw new CommonPropertiesTechnicalRuntimeException();
+        this.classPathResourcePaths = classPathResourcePaths.clone();
+    }
+    
+    /**
+     * Returns the message to the given key or <code>null</code> if there is no message configured for the given key
+     * @param key lookup key
+     * @return the message configured or <code>null</code> if there is no message configured
+     * @author Malte Brunnlieb (19.05.2014)
+     */
+    public String getMessage(String key) {
+        return getMessages().get(key);
+    }
+    
+    /**
+     * Returns the message to the given key formatted with the given arguments as described in {@link MessageFormat}
+     * @param key lookup key
+     * @param arguments to be inserted into the message
+     * @return the formatted message or <code>null</code> if there is no message configured
+     */
+    public String getMessage(String key, Object... arguments) {
+        String pattern = getMessage(key);
+        if (pattern == null) return null;
+        Map<String, MessageFormat> formats = FORMATS.get();
+        MessageFormat format = formats.get(pattern);
+        if (format == null) {
+            format = new MessageFormat(pattern, Locale.forLanguageTag(getLocale()));
+            formats.put(pattern, format);
         }
-        String locale = globalProperties.getProperty(ConfigurationKeys.LOCALE);
-        
-        for (String path : classPathResourcePaths) {
-            Properties resMessages = new Properties();
-            String fullPath = path + "_" + locale.toLowerCase() + ".properties";
+        return format.format(arguments);
+    }
+    
+    /**
+     * Returns all messages of the property files, which are merged on first access
+     * @return an unmodifiable map of all messages
+     */
+    private Map<String, String> getMessages() {
+        Map<String, String> result = messages;
+        if (result == null) {
+            Map<String, String> merged = new HashMap<String, String>();
+            for (String path : classPathResourcePaths) {
+                merged.putAll(getBundle(path + "_" + getLocale().toLowerCase() + ".properties"));
+            }
+            messages = result = Collections.unmodifiableMap(merged);
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the messages of the given property file, which is loaded if it has not been loaded yet
+     * @param fullPath class path resource path of the property file
+     * @return an unmodifiable map of all messages of the property file
+     */
+    private static Map<String, String> getBundle(String fullPath) {
+        Map<String, String> bundle = BUNDLES.get(fullPath);
+        if (bundle == null) {
             LOG.debug("Load Property file {}", fullPath);
+            Properties resMessages = new Properties();
             try (InputStream is = MessageSourceHolder.class.getResourceAsStream(fullPath)) {
                 resMessages.load(is);
             } catch (IOException e) {
                 throw new CommonPropertiesTechnicalRuntimeException();
             }
-            messages.putAll(resMessages);
+            bundle = toMap(resMessages);
+            Map<String, String> existing = BUNDLES.putIfAbsent(fullPath, bundle);
+            if (existing != null) {
+                bundle = existing;
+            }
         }
+        return bundle;
     }
     
     /**
-     * Returns the message to the given key or <code>null</code> if there is no message configured for the given key
-     * @param key lookup key
-     * @return the message configured or <code>null</code> if there is no message configured
-     * @author Malte Brunnlieb (19.05.2014)
+     * Copies the given properties into an unmodifiable map
+     * @param properties to be copied
+     * @return the unmodifiable map
      */
-    public String getMessage(String key) {
-        return messages.getProperty(key);
+    private static Map<String, String> toMap(Properties properties) {
+        Map<String, String> map = new HashMap<String, String>();
+        for (String key : properties.stringPropertyNames()) {
+            map.put(key, properties.getProperty(key));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+    
+    /**
+     * Returns the configured locale, which is loaded from the global properties on first access
+     * @return the configured locale
+     */
+    private static String getLocale() {
+        String result = locale;
+        if (result == null) {
+            Properties globalProperties = new Properties();
+            try (InputStream is = MessageSourceHolder.class.getResourceAsStream("/resources/global.properties")) {
+                globalProperties.load(is);
+            } catch (IOException e1) {
+                throw new CommonPropertiesTechnicalRuntimeException();
+            }
+            locale = result = globalProperties.getProperty(ConfigurationKeys.LOCALE);
+        }
+        return result;
     }
 }
@@ -37,6 +37,16 @@ public class CommentTagBuilder extends TagBuilder {
         super(multilineCommentStartSign, multilineCommentEndSign);
     }
     
+    /**
+     * Creates a new {@link CommentTagBuilder} instance using the properties of the given configuration
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     * @param configuration {@link ParserConfiguration} providing the parser properties
+     */
+    public CommentTagBuilder(String multilineCommentStartSign, String multilineCommentEndSign, ParserConfiguration configuration) {
+        super(multilineCommentStartSign, multilineCommentEndSign, configuration);
+    }
+    
     /**
      * Configures the builder to produce multi-line start tags
      * @return the Builder instance
@@ -25,6 +25,16 @@ public class CommentTagRegexBuilder extends TagBuilder {
         super(multilineCommentStartSign, multilineCommentEndSign);
     }
     
+    /**
+     * Creates a new builder for tag regex using the properties of the given configuration
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     * @param configuration {@link ParserConfiguration} providing the parser properties
+     */
+    public CommentTagRegexBuilder(String multilineCommentStartSign, String multilineCommentEndSign, ParserConfiguration configuration) {
+        super(multilineCommentStartSign, multilineCommentEndSign, configuration);
+    }
+    
     /**
      * Builds a new tag regex for the given configuration. The following regex groups can be accessed if no new group is inserted via the tagId:<br>
      * (1) start tag marker character<br> (2) end tag marker character<br>tagId<br>(3) line removal marker character<br>
@@ -51,4 +61,13 @@ public class CommentTagRegexBuilder extends TagBuilder {
         return buildTagRegex("(.+?)", true);
     }
     
+    /**
+     * Builds all literal prefixes a tag matching the regex of {@link #buildTagRegex(String, boolean)} can start with. A line not containing any of
+     * these prefixes cannot contain a tag.
+     * @return the literal tag prefixes
+     */
+    public String[] buildTagPrefixes() {
+        return new String[] { startTag + "-", startTag + startEndTagMarker, startTag + keySeparator };
+    }
+    
 }
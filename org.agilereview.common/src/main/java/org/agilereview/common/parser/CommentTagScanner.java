@@ -0,0 +1,376 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.common.parser;
+
+import java.util.Collection;
+
+/**
+ * Hand-written scanner for comment tags as built by the {@link CommentTagBuilder}. The scanner accepts exactly the tags matched by the regex of
+ * {@link CommentTagRegexBuilder#buildTagRegex(String, boolean)}, but it works directly on a {@link CharSequence} or a char array without creating
+ * any matchers or substrings. Like a {@link java.util.regex.Matcher} the scanner is reset to an input and reports the span and flags of each tag
+ * found. An instance must not be used by multiple threads concurrently.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class CommentTagScanner {
+    
+    /**
+     * Multi-line comment start sign
+     */
+    private final String startTag;
+    /**
+     * Multi-line comment end sign
+     */
+    private final String endTag;
+    /**
+     * Start / End - tag marker
+     */
+    private final String startEndTagMarker;
+    /**
+     * Key separator for separating tags from the tag id
+     */
+    private final String keySeparator;
+    /**
+     * Cleanup marker sign, which marks a line to be removed after comment removal
+     */
+    private final String cleanupMarker;
+    
+    /**
+     * Input as {@link CharSequence} or <code>null</code> if a char array is scanned
+     */
+    private CharSequence sequence;
+    /**
+     * Input as char array or <code>null</code> if a {@link CharSequence} is scanned
+     */
+    private char[] chars;
+    /**
+     * Start index of the region to be scanned
+     */
+    private int regionStart;
+    /**
+     * End index (exclusive) of the region to be scanned
+     */
+    private int regionEnd;
+    /**
+     * Hash table of all tag ids to be accepted or <code>null</code> if all tag ids should be accepted
+     */
+    private String[] tagIdTable;
+    
+    /**
+     * Start index of the last tag found or -1 if no tag has been found
+     */
+    private int start = -1;
+    /**
+     * End index (exclusive) of the last tag found
+     */
+    private int end = -1;
+    /**
+     * Start index of the tag id of the last tag found
+     */
+    private int tagIdStart;
+    /**
+     * End index (exclusive) of the tag id of the last tag found
+     */
+    private int tagIdEnd;
+    /**
+     * States whether the last tag found is marked as start tag
+     */
+    private boolean isStartTag;
+    /**
+     * States whether the last tag found is marked as end tag
+     */
+    private boolean isEndTag;
+    /**
+     * States whether the last tag found is marked for line cleanup
+     */
+    private boolean isCleanupTag;
+    
+    /**
+     * Creates a new scanner for comment tags
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     */
+    public CommentTagScanner(String multilineCommentStartSign, String multilineCommentEndSign) {
+        this(multilineCommentStartSign, multilineCommentEndSign, ParserConfiguration.getInstance());
+    }
+    
+    /**
+     * Creates a new scanner for comment tags using the properties of the given configuration
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     * @param configuration {@link ParserConfiguration} providing the parser properties
+     */
+    public CommentTagScanner(String multilineCommentStartSign, String multilineCommentEndSign, ParserConfiguration configuration) {
+        startTag = multilineCommentStartSign;
+        endTag = multilineCommentEndSign;
+        startEndTagMarker = configuration.getProperty(ParserProperties.START_END_TAG_MARKER_SIGN);
+        keySeparator = configuration.getProperty(ParserProperties.KEY_SEPARATOR);
+        cleanupMarker = configuration.getProperty(ParserProperties.LINE_REMOVAL_MARKER_SIGN);
+    }
+    
+    /**
+     * Restricts the scanner to tags with one of the given tag ids
+     * @param tagIds tag ids to be accepted or <code>null</code> if all tag ids should be accepted
+     * @return the scanner instance
+     */
+    public CommentTagScanner setTagIds(Collection<String> tagIds) {
+        if (tagIds == null) {
+            tagIdTable = null;
+            return this;
+        }
+        int capacity = Integer.highestOneBit(Math.max(tagIds.size(), 1) * 2) * 2;
+        tagIdTable = new String[capacity];
+        for (String tagId : tagIds) {
+            if (tagId.isEmpty()) continue;
+            int i = tagId.hashCode() & (capacity - 1);
+            while (tagIdTable[i] != null && !tagIdTable[i].equals(tagId)) {
+                i = (i + 1) & (capacity - 1);
+            }
+            tagIdTable[i] = tagId;
+        }
+        return this;
+    }
+    
+    /**
+     * Resets the scanner to scan the given input
+     * @param input to be scanned
+     * @return the scanner instance
+     */
+    public CommentTagScanner reset(CharSequence input) {
+        sequence = input;
+        chars = null;
+        return resetRegion(0, input.length());
+    }
+    
+    /**
+     * Resets the scanner to scan the given region of the given input
+     * @param input to be scanned
+     * @param from start index of the region to be scanned
+     * @param to end index (exclusive) of the region to be scanned
+     * @return the scanner instance
+     */
+    public CommentTagScanner reset(char[] input, int from, int to) {
+        sequence = null;
+        chars = input;
+        return resetRegion(from, to);
+    }
+    
+    /**
+     * Searches for the next tag behind the last tag found
+     * @return <code>true</code> if a tag has been found,<br> <code>false</code> otherwise
+     */
+    public boolean find() {
+        return find(start < 0 ? regionStart : end);
+    }
+    
+    /**
+     * Searches for the next tag starting at the given index
+     * @param from index to start the search at
+     * @return <code>true</code> if a tag has been found,<br> <code>false</code> otherwise
+     */
+    public boolean find(int from) {
+        char first = startTag.charAt(0);
+        for (int i = Math.max(from, regionStart); i < regionEnd; i++) {
+            if (charAt(i) == first && matchesAt(i)) {
+                start = i;
+                return true;
+            }
+        }
+        start = -1;
+        end = -1;
+        return false;
+    }
+    
+    /**
+     * Returns the start index of the last tag found
+     * @return the start index of the last tag found or -1 if no tag has been found
+     */
+    public int start() {
+        return start;
+    }
+    
+    /**
+     * Returns the end index (exclusive) of the last tag found
+     * @return the end index of the last tag found or -1 if no tag has been found
+     */
+    public int end() {
+        return end;
+    }
+    
+    /**
+     * Returns the start index of the tag id of the last tag found
+     * @return the start index of the tag id
+     */
+    public int tagIdStart() {
+        return tagIdStart;
+    }
+    
+    /**
+     * Returns the end index (exclusive) of the tag id of the last tag found
+     * @return the end index of the tag id
+     */
+    public int tagIdEnd() {
+        return tagIdEnd;
+    }
+    
+    /**
+     * Checks whether the last tag found is marked as start tag
+     * @return <code>true</code> if the tag is a start tag,<br> <code>false</code> otherwise
+     */
+    public boolean isStartTag() {
+        return isStartTag;
+    }
+    
+    /**
+     * Checks whether the last tag found is marked as end tag
+     * @return <code>true</code> if the tag is an end tag,<br> <code>false</code> otherwise
+     */
+    public boolean isEndTag() {
+        return isEndTag;
+    }
+    
+    /**
+     * Checks whether the last tag found is marked such that its line should be removed if it is empty after comment removal
+     * @return <code>true</code> if the tag is marked for line cleanup,<br> <code>false</code> otherwise
+     */
+    public boolean isCleanupTag() {
+        return isCleanupTag;
+    }
+    
+    /**
+     * Resets the scan region and the last match
+     * @param from start index of the region to be scanned
+     * @param to end index (exclusive) of the region to be scanned
+     * @return the scanner instance
+     */
+    private CommentTagScanner resetRegion(int from, int to) {
+        regionStart = from;
+        regionEnd = to;
+        start = -1;
+        end = -1;
+        return this;
+    }
+    
+    /**
+     * Tries to match a tag at the given index. The optional parts are tried in the same order as the regex engine would try them for the tag regex,
+     * i.e. optional signs are consumed greedily and the tag id is as short as possible.
+     * @param index to match the tag at
+     * @return <code>true</code> if a tag starts at the given index,<br> <code>false</code> otherwise
+     */
+    private boolean matchesAt(int index) {
+        if (!regionMatches(index, startTag)) return false;
+        int afterStartTag = index + startTag.length();
+        for (int dash = 1; dash >= 0; dash--) {
+            int i = afterStartTag;
+            if (dash == 1) {
+                if (!regionMatches(i, "-")) continue;
+                i++;
+            }
+            for (int marker = 1; marker >= 0; marker--) {
+                int j = i;
+                if (marker == 1) {
+                    if (!regionMatches(j, startEndTagMarker)) continue;
+                    j += startEndTagMarker.length();
+                }
+                if (regionMatches(j, keySeparator) && matchesTagIdAndSuffix(j + keySeparator.length())) {
+                    isStartTag = marker == 1;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Tries to match the tag id starting at the given index and the remainder of the tag
+     * @param index start index of the tag id
+     * @return <code>true</code> if a tag id and the remainder of the tag could be matched,<br> <code>false</code> otherwise
+     */
+    private boolean matchesTagIdAndSuffix(int index) {
+        int hash = 0;
+        for (int idEnd = index + 1; idEnd <= regionEnd; idEnd++) {
+            char c = charAt(idEnd - 1);
+            if (isLineTerminator(c)) return false;
+            hash = 31 * hash + c;
+            if (tagIdTable != null && !containsTagId(hash, index, idEnd)) continue;
+            if (!regionMatches(idEnd, keySeparator)) continue;
+            
+            int afterKeySeparator = idEnd + keySeparator.length();
+            for (int marker = 1; marker >= 0; marker--) {
+                int i = afterKeySeparator;
+                if (marker == 1) {
+                    if (!regionMatches(i, startEndTagMarker)) continue;
+                    i += startEndTagMarker.length();
+                }
+                for (int cleanup = 1; cleanup >= 0; cleanup--) {
+                    int j = i;
+                    if (cleanup == 1) {
+                        if (!regionMatches(j, cleanupMarker)) continue;
+                        j += cleanupMarker.length();
+                    }
+                    if (regionMatches(j, endTag)) {
+                        tagIdStart = index;
+                        tagIdEnd = idEnd;
+                        isEndTag = marker == 1;
+                        isCleanupTag = cleanup == 1;
+                        end = j + endTag.length();
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Checks whether the given region of the input is one of the tag ids to be accepted
+     * @param hash {@link String#hashCode()} of the region
+     * @param from start index of the region
+     * @param to end index (exclusive) of the region
+     * @return <code>true</code> if the region equals one of the tag ids,<br> <code>false</code> otherwise
+     */
+    private boolean containsTagId(int hash, int from, int to) {
+        int mask = tagIdTable.length - 1;
+        for (int i = hash & mask; tagIdTable[i] != null; i = (i + 1) & mask) {
+            String tagId = tagIdTable[i];
+            if (tagId.length() == to - from && tagId.hashCode() == hash && regionMatches(from, tagId)) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Checks whether the given string occurs at the given index of the input
+     * @param index to be checked
+     * @param string to be searched for
+     * @return <code>true</code> if the string occurs at the given index,<br> <code>false</code> otherwise
+     */
+    private boolean regionMatches(int index, String string) {
+        if (index + string.length() > regionEnd) return false;
+        for (int i = 0; i < string.length(); i++) {
+            if (charAt(index + i) != string.charAt(i)) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Returns the character at the given index of the input
+     * @param index of the character
+     * @return the character at the given index
+     */
+    private char charAt(int index) {
+        return chars != null ? chars[index] : sequence.charAt(index);
+    }
+    
+    /**
+     * Checks whether the given character terminates a line, i.e. whether it is not matched by the regex dot
+     * @param c character to be checked
+     * @return <code>true</code> if the character is a line terminator,<br> <code>false</code> otherwise
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
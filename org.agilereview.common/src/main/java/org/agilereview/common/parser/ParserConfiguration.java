@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.common.parser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable snapshot of all parser related properties (see {@link ParserProperties} for the keys). The shared snapshot is loaded once from the
+ * classpath and can be used by any number of threads. It can be reloaded by {@link #reload()} or replaced by {@link #setInstance(ParserConfiguration)},
+ * e.g. by a snapshot with programmatically overridden values created by {@link #withProperty(String, String)}. Components holding a snapshot keep
+ * using it until they are recreated.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public final class ParserConfiguration {
+    
+    /**
+     * Shared snapshot or <code>null</code> if it has not been loaded yet
+     */
+    private static volatile ParserConfiguration instance;
+    
+    /**
+     * All property values by key
+     */
+    private final Map<String, String> values;
+    
+    /**
+     * Creates a new snapshot of the given properties
+     * @param properties to be copied
+     */
+    public ParserConfiguration(Properties properties) {
+        Map<String, String> copy = new HashMap<String, String>();
+        for (String key : properties.stringPropertyNames()) {
+            copy.put(key, properties.getProperty(key));
+        }
+        values = Collections.unmodifiableMap(copy);
+    }
+    
+    /**
+     * Creates a new snapshot of the given values
+     * @param values to be used, which will not be copied
+     */
+    private ParserConfiguration(Map<String, String> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+    
+    /**
+     * Returns the shared snapshot, which is loaded from the classpath on first access
+     * @return the shared {@link ParserConfiguration}
+     */
+    public static ParserConfiguration getInstance() {
+        ParserConfiguration configuration = instance;
+        if (configuration == null) {
+            synchronized (ParserConfiguration.class) {
+                configuration = instance;
+                if (configuration == null) {
+                    instance = configuration = new ParserConfiguration(ParserProperties.loadFromClasspath());
+                }
+            }
+        }
+        return configuration;
+    }
+    
+    /**
+     * Replaces the shared snapshot by the given one
+     * @param configuration {@link ParserConfiguration} to be shared or <code>null</code> if the snapshot should be reloaded on next access
+     */
+    public static void setInstance(ParserConfiguration configuration) {
+        instance = configuration;
+    }
+    
+    /**
+     * Reloads the shared snapshot from the classpath, whereby all programmatically set values are discarded
+     * @return the reloaded {@link ParserConfiguration}
+     */
+    public static ParserConfiguration reload() {
+        ParserConfiguration configuration = new ParserConfiguration(ParserProperties.loadFromClasspath());
+        instance = configuration;
+        return configuration;
+    }
+    
+    /**
+     * Returns the value of the given property
+     * @param key property key (see {@link ParserProperties})
+     * @return the value or <code>null</code> if the property is not set
+     */
+    public String getProperty(String key) {
+        return values.get(key);
+    }
+    
+    /**
+     * Creates a copy of this snapshot with the given property value overridden. This snapshot is not modified.
+     * @param key property key (see {@link ParserProperties})
+     * @param value new value
+     * @return the new {@link ParserConfiguration}
+     */
+    public ParserConfiguration withProperty(String key, String value) {
+        Map<String, String> copy = new HashMap<String, String>(values);
+        copy.put(key, value);
+        return new ParserConfiguration(copy);
+    }
+    
+    /**
+     * Returns a mutable copy of all properties
+     * @return the {@link Properties} of this snapshot
+     */
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.putAll(values);
+        return properties;
+    }
+}
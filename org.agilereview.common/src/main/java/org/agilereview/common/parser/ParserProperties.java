@@ -28,11 +28,19 @@ public class ParserProperties extends AbstractProperties {
     }
     
     /**
-     * Creates a new instance of the Parser {@link Properties}
+     * Creates a new instance of the Parser {@link Properties}, which is a copy of the shared {@link ParserConfiguration}
      * @return {@link Properties} for accessing the parser properties
      * @author Malte Brunnlieb (19.05.2014)
      */
     public static Properties newInstance() {
+        return ParserConfiguration.getInstance().toProperties();
+    }
+    
+    /**
+     * Loads the parser properties from the classpath
+     * @return the loaded {@link Properties}
+     */
+    static Properties loadFromClasspath() {
         ParserProperties parserProperties = new ParserProperties(ParserProperties.class.getResourceAsStream("/resources/parser.properties"));
         return parserProperties.loadProperties();
     }
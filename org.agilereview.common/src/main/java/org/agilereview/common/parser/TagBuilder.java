@@ -7,8 +7,6 @@
  */
 package org.agilereview.common.parser;
 
-import java.util.Properties;
-
 /**
  * Builder providing all necessary properties
  * @author Malte Brunnlieb (24.05.2014)
@@ -44,13 +42,22 @@ public abstract class TagBuilder {
      * @author Malte Brunnlieb (24.05.2014)
      */
     public TagBuilder(String multilineCommentStartSign, String multilineCommentEndSign) {
+        this(multilineCommentStartSign, multilineCommentEndSign, ParserConfiguration.getInstance());
+    }
+    
+    /**
+     * Creates a new builder using the properties of the given configuration
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     * @param configuration {@link ParserConfiguration} providing the parser properties
+     */
+    public TagBuilder(String multilineCommentStartSign, String multilineCommentEndSign, ParserConfiguration configuration) {
         startTag = multilineCommentStartSign;
         endTag = multilineCommentEndSign;
         
-        Properties parserProperties = ParserProperties.newInstance();
-        startEndTagMarker = parserProperties.getProperty(ParserProperties.START_END_TAG_MARKER_SIGN);
-        keySeparator = parserProperties.getProperty(ParserProperties.KEY_SEPARATOR);
-        cleanupMarker = parserProperties.getProperty(ParserProperties.LINE_REMOVAL_MARKER_SIGN);
+        startEndTagMarker = configuration.getProperty(ParserProperties.START_END_TAG_MARKER_SIGN);
+        keySeparator = configuration.getProperty(ParserProperties.KEY_SEPARATOR);
+        cleanupMarker = configuration.getProperty(ParserProperties.LINE_REMOVAL_MARKER_SIGN);
     }
     
 }
@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.common.message;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link MessageSourceHolder}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class MessageSourceHolderTest {
+    
+    /**
+     * Tests lookup of plain and parameterized messages
+     */
+    @Test
+    public void testGetMessage() {
+        MessageSourceHolder holder = new MessageSourceHolder("/resources/messages/error", "/resources/messages/test");
+        Assert.assertEquals("Plain message", holder.getMessage("test.plain"));
+        Assert.assertEquals("Could not process A.java (3 tags)", holder.getMessage("test.formatted", "A.java", 3));
+        Assert.assertEquals("Could not process B.java (4 tags)", holder.getMessage("test.formatted", "B.java", 4));
+        Assert.assertNull(holder.getMessage("test.unknown"));
+        Assert.assertNull(holder.getMessage("test.unknown", "A.java"));
+    }
+}
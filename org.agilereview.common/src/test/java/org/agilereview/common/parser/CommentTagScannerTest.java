@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.common.parser;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link CommentTagScanner}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class CommentTagScannerTest {
+    
+    /**
+     * Tests scanning of tags built by the {@link CommentTagBuilder}
+     */
+    @Test
+    public void testFind() {
+        CommentTagBuilder tagBuilder = new CommentTagBuilder("/*", "*/");
+        String startTag = tagBuilder.isMultilineStartTag().cleanupLineWithCommentRemoval(true).buildTag("111");
+        String endTag = tagBuilder.isMultilineEndTag().cleanupLineWithCommentRemoval(false).buildTag("111");
+        String line = "code();" + startTag + " /* comment */" + endTag;
+        
+        CommentTagScanner scanner = new CommentTagScanner("/*", "*/").reset(line);
+        Assert.assertTrue(scanner.find());
+        Assert.assertEquals(startTag, line.substring(scanner.start(), scanner.end()));
+        Assert.assertEquals("111", line.substring(scanner.tagIdStart(), scanner.tagIdEnd()));
+        Assert.assertTrue(scanner.isStartTag());
+        Assert.assertFalse(scanner.isEndTag());
+        Assert.assertTrue(scanner.isCleanupTag());
+        
+        Assert.assertTrue(scanner.find());
+        Assert.assertEquals(endTag, line.substring(scanner.start(), scanner.end()));
+        Assert.assertFalse(scanner.isStartTag());
+        Assert.assertTrue(scanner.isEndTag());
+        Assert.assertFalse(scanner.isCleanupTag());
+        
+        Assert.assertFalse(scanner.find());
+        Assert.assertEquals(-1, scanner.start());
+    }
+    
+    /**
+     * Tests that the scanner finds exactly the same tags as the tag regex for random inputs
+     */
+    @Test
+    public void testFind_sameResultsAsRegex() {
+        CommentTagRegexBuilder regexBuilder = new CommentTagRegexBuilder("/*", "*/");
+        Pattern pattern = Pattern.compile(regexBuilder.buildTagRegex());
+        CommentTagScanner scanner = new CommentTagScanner("/*", "*/");
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String input = randomInput(random);
+            Matcher matcher = pattern.matcher(input);
+            scanner.reset(input.toCharArray(), 0, input.length());
+            while (matcher.find()) {
+                Assert.assertTrue(input, scanner.find());
+                Assert.assertEquals(input, matcher.start(), scanner.start());
+                Assert.assertEquals(input, matcher.end(), scanner.end());
+                Assert.assertEquals(input, matcher.start(2), scanner.tagIdStart());
+                Assert.assertEquals(input, matcher.end(2), scanner.tagIdEnd());
+                Assert.assertEquals(input, matcher.group(1) != null, scanner.isStartTag());
+                Assert.assertEquals(input, matcher.group(3) != null, scanner.isEndTag());
+                Assert.assertEquals(input, matcher.group(4) != null, scanner.isCleanupTag());
+            }
+            Assert.assertFalse(input, scanner.find());
+        }
+    }
+    
+    /**
+     * Tests that the scanner restricted to tag ids finds exactly the same tags as the tag regex for an alternation of these tag ids
+     */
+    @Test
+    public void testFind_tagIds_sameResultsAsRegex() {
+        List<String> tagIds = Arrays.asList("a", "ab", "b*");
+        CommentTagRegexBuilder regexBuilder = new CommentTagRegexBuilder("/*", "*/");
+        Pattern pattern = Pattern.compile(regexBuilder.buildTagRegex("(?:" + Pattern.quote("a") + "|" + Pattern.quote("ab") + "|"
+                + Pattern.quote("b*") + ")", true));
+        CommentTagScanner scanner = new CommentTagScanner("/*", "*/").setTagIds(tagIds);
+        Random random = new Random(4711);
+        for (int i = 0; i < 100000; i++) {
+            String input = randomInput(random);
+            Matcher matcher = pattern.matcher(input);
+            scanner.reset(input);
+            while (matcher.find()) {
+                Assert.assertTrue(input, scanner.find());
+                Assert.assertEquals(input, matcher.start(), scanner.start());
+                Assert.assertEquals(input, matcher.end(), scanner.end());
+                Assert.assertEquals(input, matcher.group(1) != null, scanner.isStartTag());
+                Assert.assertEquals(input, matcher.group(2) != null, scanner.isEndTag());
+                Assert.assertEquals(input, matcher.group(3) != null, scanner.isCleanupTag());
+            }
+            Assert.assertFalse(input, scanner.find());
+        }
+    }
+    
+    /**
+     * Creates a random input consisting of tag fragments and other characters
+     * @param random random number generator
+     * @return the random input
+     */
+    private String randomInput(Random random) {
+        String[] fragments = { "/*", "*/", "-", "?", "|", "a", "b", " ", "\n", "/*-?|a|?*/" };
+        StringBuilder input = new StringBuilder();
+        int length = random.nextInt(16);
+        for (int i = 0; i < length; i++) {
+            input.append(fragments[random.nextInt(fragments.length)]);
+        }
+        return input.toString();
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.common.parser;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link ParserConfiguration}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class ParserConfigurationTest {
+    
+    /**
+     * Restores the configuration loaded from the classpath
+     */
+    @After
+    public void tearDown() {
+        ParserConfiguration.setInstance(null);
+    }
+    
+    /**
+     * Tests that the shared configuration is loaded once and provides the values of the parser properties
+     */
+    @Test
+    public void testGetInstance() {
+        ParserConfiguration configuration = ParserConfiguration.getInstance();
+        Assert.assertSame(configuration, ParserConfiguration.getInstance());
+        Assert.assertEquals("|", configuration.getProperty(ParserProperties.KEY_SEPARATOR));
+        Assert.assertEquals("?", configuration.getProperty(ParserProperties.START_END_TAG_MARKER_SIGN));
+        Assert.assertEquals("-", configuration.getProperty(ParserProperties.LINE_REMOVAL_MARKER_SIGN));
+        Assert.assertEquals("|", ParserProperties.newInstance().getProperty(ParserProperties.KEY_SEPARATOR));
+    }
+    
+    /**
+     * Tests overriding values programmatically as well as reloading the shared configuration
+     */
+    @Test
+    public void testWithPropertyAndReload() {
+        ParserConfiguration configuration = ParserConfiguration.getInstance();
+        ParserConfiguration overridden = configuration.withProperty(ParserProperties.KEY_SEPARATOR, "#");
+        Assert.assertEquals("|", configuration.getProperty(ParserProperties.KEY_SEPARATOR));
+        Assert.assertEquals("/*-?#ID#?*/", new CommentTagBuilder("/*", "*/", overridden).isSingleLine().buildTag("ID"));
+        
+        ParserConfiguration.setInstance(overridden);
+        Assert.assertEquals("/*-?#ID#?*/", new CommentTagBuilder("/*", "*/").isSingleLine().buildTag("ID"));
+        
+        ParserConfiguration reloaded = ParserConfiguration.reload();
+        Assert.assertNotSame(configuration, reloaded);
+        Assert.assertEquals("/*-?|ID|?*/", new CommentTagBuilder("/*", "*/").isSingleLine().buildTag("ID"));
+    }
+}
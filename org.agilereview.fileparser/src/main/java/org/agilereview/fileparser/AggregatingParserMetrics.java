@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * {@link ParserMetrics} summing up the {@link OperationStatistics} of all operations in {@link OperationMetrics} per {@link ParserOperation}. The
+ * metrics can be published via JMX by means of the {@link ParserMetricsExporter}.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class AggregatingParserMetrics implements ParserMetrics {
+    
+    /**
+     * Metrics of each operation
+     */
+    private final Map<ParserOperation, OperationMetrics> metrics = new EnumMap<ParserOperation, OperationMetrics>(ParserOperation.class);
+    
+    /**
+     * Creates new empty {@link AggregatingParserMetrics}
+     */
+    public AggregatingParserMetrics() {
+        for (ParserOperation operation : ParserOperation.values()) {
+            metrics.put(operation, new OperationMetrics(operation));
+        }
+    }
+    
+    @Override
+    public void operationCompleted(OperationStatistics statistics) {
+        metrics.get(statistics.getOperation()).add(statistics);
+    }
+    
+    /**
+     * Returns the metrics of the given operation
+     * @param operation {@link ParserOperation} whose metrics should be returned
+     * @return the {@link OperationMetrics} of the operation
+     */
+    public OperationMetrics getMetrics(ParserOperation operation) {
+        return metrics.get(operation);
+    }
+    
+    /**
+     * Resets the metrics of all operations
+     */
+    public void reset() {
+        for (OperationMetrics operationMetrics : metrics.values()) {
+            operationMetrics.reset();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (OperationMetrics operationMetrics : metrics.values()) {
+            result.append(operationMetrics).append('\n');
+        }
+        return result.toString();
+    }
+}
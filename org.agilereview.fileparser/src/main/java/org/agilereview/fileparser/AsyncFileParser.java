@@ -0,0 +1,558 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous variant of the modifying {@link FileParser} operations. All operations on the same file are queued in the order of their submission
+ * and processed one after another by the executor. Operations, which are waiting at the same time, are merged into as few read/write cycles as
+ * possible: consecutive {@link #addTags(File, Collection)} operations are applied as one batch, and consecutive {@link #removeTags(File, Collection)}
+ * and {@link #clearAllTags(File)} operations as one removal. Merging does not change the result: the line numbers of each addition refer to the file
+ * contents after all previously submitted operations have been applied, regardless of whether the additions are merged or not. Each caller gets its
+ * own {@link Future}, which completes as soon as the read/write cycle containing its operation has finished. If a merged cycle fails, its
+ * operations are retried one by one, such that only the futures of the failing operations complete exceptionally.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class AsyncFileParser {
+    
+    /**
+     * Logger instance
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncFileParser.class);
+    /**
+     * Shared executor of daemon threads used by default, created on first use
+     */
+    private static ExecutorService defaultExecutor;
+    
+    /**
+     * Language profiles of all files to be processed
+     */
+    private final LanguageProfileRegistry profiles;
+    /**
+     * Executor processing the file queues
+     */
+    private final Executor executor;
+    /**
+     * Queues of all files with pending operations by canonical path
+     */
+    private final ConcurrentMap<Path, FileQueue> queues = new ConcurrentHashMap<Path, FileQueue>();
+    /**
+     * {@link TagIndex} to be updated after each write or <code>null</code> if no index should be updated
+     */
+    private volatile TagIndex tagIndex;
+    
+    /**
+     * Creates a new {@link AsyncFileParser} for the {@link LanguageProfileRegistry#getDefault() default language profiles}, which processes the
+     * files on a shared pool of daemon threads
+     */
+    public AsyncFileParser() {
+        this(LanguageProfileRegistry.getDefault(), getDefaultExecutor());
+    }
+    
+    /**
+     * Creates a new {@link AsyncFileParser}
+     * @param profiles {@link LanguageProfileRegistry} determining the profile of each file by its extension
+     * @param executor {@link Executor} processing the file queues. Queues of different files are processed in parallel if the executor provides
+     *            multiple threads, the operations of one file are never processed concurrently.
+     */
+    public AsyncFileParser(LanguageProfileRegistry profiles, Executor executor) {
+        this.profiles = profiles;
+        this.executor = executor;
+    }
+    
+    /**
+     * Sets the {@link TagIndex} whose entry for a file is updated after each write operation
+     * @param tagIndex {@link TagIndex} to be updated or <code>null</code> if no index should be updated
+     */
+    public void setTagIndex(TagIndex tagIndex) {
+        this.tagIndex = tagIndex;
+    }
+    
+    /**
+     * Queues the addition of tags as described in {@link FileParser#addTags(String, int, int)}
+     * @param file to be tagged
+     * @param tagId tag id to be inserted
+     * @param startLine start line of the comment
+     * @param endLine end line of the comment
+     * @return the {@link Future} completing after the tags have been written
+     * @throws IllegalArgumentException if no language profile is registered for the extension of the file
+     */
+    public Future<Void> addTags(File file, String tagId, int startLine, int endLine) {
+        return addTags(file, Collections.singletonList(new TagSelection(tagId, startLine, endLine)));
+    }
+    
+    /**
+     * Queues the addition of tags for all given selections as described in {@link FileParser#addTags(Collection)}
+     * @param file to be tagged
+     * @param selections {@link TagSelection}s to be tagged
+     * @return the {@link Future} completing after the tags have been written
+     * @throws IllegalArgumentException if no language profile is registered for the extension of the file
+     */
+    public Future<Void> addTags(File file, Collection<TagSelection> selections) {
+        return submit(file, new Operation(Operation.ADD, getProfile(file), new ArrayList<TagSelection>(selections), null));
+    }
+    
+    /**
+     * Queues the removal of all tags with the given tag id as described in {@link FileParser#removeTags(String)}
+     * @param file to be cleaned
+     * @param tagId to be removed
+     * @return the {@link Future} completing after the tags have been removed
+     * @throws IllegalArgumentException if no language profile is registered for the extension of the file
+     */
+    public Future<Void> removeTags(File file, String tagId) {
+        return removeTags(file, Collections.singleton(tagId));
+    }
+    
+    /**
+     * Queues the removal of all tags with one of the given tag ids as described in {@link FileParser#removeTags(Collection)}
+     * @param file to be cleaned
+     * @param tagIds to be removed
+     * @return the {@link Future} completing after the tags have been removed
+     * @throws IllegalArgumentException if no language profile is registered for the extension of the file
+     */
+    public Future<Void> removeTags(File file, Collection<String> tagIds) {
+        return submit(file, new Operation(Operation.REMOVE, getProfile(file), null, new ArrayList<String>(tagIds)));
+    }
+    
+    /**
+     * Queues the removal of all tags as described in {@link FileParser#clearAllTags()}
+     * @param file to be cleaned
+     * @return the {@link Future} completing after the tags have been removed
+     * @throws IllegalArgumentException if no language profile is registered for the extension of the file
+     */
+    public Future<Void> clearAllTags(File file) {
+        return submit(file, new Operation(Operation.REMOVE, getProfile(file), null, null));
+    }
+    
+    /**
+     * Returns the language profile of the given file
+     * @param file whose profile should be returned
+     * @return the {@link LanguageProfile} of the file
+     * @throws IllegalArgumentException if no language profile is registered for the extension of the file
+     */
+    private LanguageProfile getProfile(File file) {
+        LanguageProfile profile = profiles.getProfile(file.toPath());
+        if (profile == null) throw new IllegalArgumentException("No language profile registered for " + file);
+        return profile;
+    }
+    
+    /**
+     * Appends the given operation to the queue of the file and schedules the queue if it is not scheduled yet
+     * @param file to be modified
+     * @param operation {@link Operation} to be queued
+     * @return the {@link Future} of the operation
+     */
+    private Future<Void> submit(File file, Operation operation) {
+        Path key = FileLocks.toCanonicalPath(file.toPath());
+        while (true) {
+            FileQueue queue = queues.get(key);
+            if (queue == null) {
+                FileQueue newQueue = new FileQueue(key, file);
+                queue = queues.putIfAbsent(key, newQueue);
+                if (queue == null) {
+                    queue = newQueue;
+                }
+            }
+            if (queue.offer(operation)) return operation;
+        }
+    }
+    
+    /**
+     * Returns the shared default executor, which is created on first use
+     * @return the default {@link ExecutorService}
+     */
+    private static synchronized ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            defaultExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "AsyncFileParser-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return defaultExecutor;
+    }
+    
+    /**
+     * Queue of the pending operations of one file, which is processed by at most one task of the executor at a time. A queue, which runs empty, is
+     * retired and removed from the map of queues, such that later operations create a new queue.
+     */
+    private class FileQueue implements Runnable {
+        
+        /**
+         * Canonical path of the file used as key
+         */
+        private final Path key;
+        /**
+         * File to be modified
+         */
+        private final File file;
+        /**
+         * Pending operations in order of their submission
+         */
+        private final Queue<Operation> operations = new ArrayDeque<Operation>();
+        /**
+         * States whether a task processing this queue has been passed to the executor
+         */
+        private boolean scheduled;
+        /**
+         * States whether the queue has been removed from the map of queues
+         */
+        private boolean retired;
+        
+        /**
+         * Creates a new empty {@link FileQueue}
+         * @param key canonical path of the file
+         * @param file to be modified
+         */
+        FileQueue(Path key, File file) {
+            this.key = key;
+            this.file = file;
+        }
+        
+        /**
+         * Appends the given operation and schedules the queue if needed. If the executor rejects the queue, all operations queued in the meantime
+         * fail with the same exception, which is rethrown for the given operation.
+         * @param operation {@link Operation} to be appended
+         * @return <code>true</code> if the operation has been appended,<br> <code>false</code> if the queue has already been retired
+         */
+        boolean offer(Operation operation) {
+            synchronized (this) {
+                if (retired) return false;
+                operations.add(operation);
+                if (scheduled) return true;
+                scheduled = true;
+            }
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                List<Operation> rejected;
+                synchronized (this) {
+                    operations.remove(operation);
+                    rejected = new ArrayList<Operation>(operations);
+                    operations.clear();
+                    scheduled = false;
+                }
+                for (Operation other : rejected) {
+                    other.fail(e);
+                }
+                throw e;
+            }
+            return true;
+        }
+        
+        /**
+         * Processes all operations queued so far, including those queued while processing, until the queue runs empty. If processing is aborted by
+         * an unexpected exception or error, the queue is retired and all operations not completed yet fail, such that no caller waits forever.
+         */
+        @Override
+        public void run() {
+            List<Operation> pending = Collections.emptyList();
+            try {
+                while (true) {
+                    synchronized (this) {
+                        if (operations.isEmpty()) {
+                            scheduled = false;
+                            retired = true;
+                            queues.remove(key, this);
+                            return;
+                        }
+                        pending = new ArrayList<Operation>(operations);
+                        operations.clear();
+                    }
+                    process(pending);
+                }
+            } catch (RuntimeException | Error e) {
+                abort(pending, e);
+                throw e;
+            }
+        }
+        
+        /**
+         * Retires the queue after processing has been aborted and fails the given operations as well as all operations queued in the meantime
+         * @param pending {@link Operation}s being processed when processing has been aborted
+         * @param cause of the abort
+         */
+        private void abort(List<Operation> pending, Throwable cause) {
+            List<Operation> aborted = new ArrayList<Operation>(pending);
+            synchronized (this) {
+                aborted.addAll(operations);
+                operations.clear();
+                scheduled = false;
+                retired = true;
+                queues.remove(key, this);
+            }
+            LOG.error("Processing the operations on {} has been aborted", file, cause);
+            for (Operation operation : aborted) {
+                operation.fail(cause);
+            }
+        }
+        
+        /**
+         * Processes the given operations in order, whereby consecutive operations of the same kind and profile are merged
+         * @param pending {@link Operation}s to be processed
+         */
+        private void process(List<Operation> pending) {
+            int start = 0;
+            while (start < pending.size()) {
+                Operation first = pending.get(start);
+                int end = start + 1;
+                while (end < pending.size() && pending.get(end).kind == first.kind && pending.get(end).profile == first.profile) {
+                    end++;
+                }
+                List<Operation> group = new ArrayList<Operation>();
+                for (Operation operation : pending.subList(start, end)) {
+                    if (operation.claim()) {
+                        group.add(operation);
+                    }
+                }
+                execute(group);
+                start = end;
+            }
+        }
+        
+        /**
+         * Executes the given operations within one read/write cycle. If this fails, the operations are executed one by one.
+         * @param group {@link Operation}s of the same kind and profile
+         */
+        private void execute(List<Operation> group) {
+            if (group.isEmpty()) return;
+            try {
+                apply(group);
+                for (Operation operation : group) {
+                    operation.complete();
+                }
+            } catch (Exception e) {
+                if (group.size() == 1) {
+                    LOG.debug("Could not modify {}: {}", file, e.getMessage());
+                    group.get(0).fail(e);
+                    return;
+                }
+                LOG.debug("Could not apply {} merged operations to {}, retrying them one by one: {}", group.size(), file, e.getMessage());
+                for (Operation operation : group) {
+                    execute(Collections.singletonList(operation));
+                }
+            }
+        }
+        
+        /**
+         * Applies the given operations to the file within one read/write cycle
+         * @param group {@link Operation}s of the same kind and profile
+         * @throws Exception if the file could not be modified
+         */
+        private void apply(List<Operation> group) throws Exception {
+            FileParser parser = new FileParser(file, group.get(0).profile);
+            parser.setTagIndex(tagIndex);
+            if (group.get(0).kind == Operation.ADD) {
+                List<List<TagSelection>> selectionGroups = new ArrayList<List<TagSelection>>(group.size());
+                for (Operation operation : group) {
+                    selectionGroups.add(operation.selections);
+                }
+                parser.addTagsInSequence(selectionGroups);
+            } else {
+                Set<String> tagIds = new LinkedHashSet<String>();
+                for (Operation operation : group) {
+                    if (operation.tagIds == null) {
+                        tagIds = null;
+                        break;
+                    }
+                    tagIds.addAll(operation.tagIds);
+                }
+                if (tagIds == null) {
+                    parser.clearAllTags();
+                } else {
+                    parser.removeTags(tagIds);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Pending operation on a file, which is also the {@link Future} handed out to its caller. The future is completed explicitly by the queue
+     * processing the operation.
+     */
+    private static class Operation implements Future<Void> {
+        
+        /**
+         * Kind of operations adding tags
+         */
+        static final int ADD = 0;
+        /**
+         * Kind of operations removing tags
+         */
+        static final int REMOVE = 1;
+        
+        /**
+         * Kind of the operation
+         */
+        final int kind;
+        /**
+         * Selections to be tagged or <code>null</code> if tags should be removed
+         */
+        final List<TagSelection> selections;
+        /**
+         * Tag ids to be removed or <code>null</code> if all tags should be removed or tags should be added
+         */
+        final List<String> tagIds;
+        /**
+         * Language profile of the file
+         */
+        final LanguageProfile profile;
+        /**
+         * Latch released as soon as the operation has been completed, has failed or has been cancelled
+         */
+        private final CountDownLatch done = new CountDownLatch(1);
+        /**
+         * States whether the result has been set, guarded by this operation
+         */
+        private boolean finished;
+        /**
+         * States whether the operation has been cancelled
+         */
+        private boolean cancelled;
+        /**
+         * States whether the operation has been claimed for execution, such that it cannot be cancelled anymore
+         */
+        private boolean claimed;
+        /**
+         * Cause of the failure or <code>null</code> if the operation has not failed
+         */
+        private Throwable failure;
+        
+        /**
+         * Creates a new {@link Operation}
+         * @param kind {@link #ADD} or {@link #REMOVE}
+         * @param profile {@link LanguageProfile} of the file
+         * @param selections to be tagged or <code>null</code> if tags should be removed
+         * @param tagIds to be removed or <code>null</code> if all tags should be removed or tags should be added
+         */
+        Operation(int kind, LanguageProfile profile, List<TagSelection> selections, List<String> tagIds) {
+            this.kind = kind;
+            this.profile = profile;
+            this.selections = selections;
+            this.tagIds = tagIds;
+        }
+        
+        /**
+         * Claims the operation for execution unless it has been cancelled before. A claimed operation cannot be cancelled anymore.
+         * @return <code>true</code> if the operation has been claimed,<br> <code>false</code> if it has already been finished
+         */
+        synchronized boolean claim() {
+            if (finished) return false;
+            claimed = true;
+            return true;
+        }
+        
+        /**
+         * Completes the future successfully
+         */
+        void complete() {
+            finish(null, false);
+        }
+        
+        /**
+         * Completes the future exceptionally
+         * @param cause of the failure
+         */
+        void fail(Throwable cause) {
+            finish(cause, false);
+        }
+        
+        /**
+         * Sets the result of the future unless it has already been set. A claimed operation cannot be cancelled.
+         * @param cause of the failure or <code>null</code> if the operation has not failed
+         * @param cancel states whether the operation has been cancelled
+         * @return <code>true</code> if the result has been set,<br> <code>false</code> if it had already been set before or the operation has
+         *         already been claimed for execution when cancelling it
+         */
+        private boolean finish(Throwable cause, boolean cancel) {
+            synchronized (this) {
+                if (finished || (cancel && claimed)) return false;
+                finished = true;
+                failure = cause;
+                cancelled = cancel;
+            }
+            done.countDown();
+            return true;
+        }
+        
+        /**
+         * Cancels the operation unless it has already been claimed for execution. A running read/write cycle is never interrupted, such that an
+         * operation can only be cancelled while it is still queued.
+         * @param mayInterruptIfRunning is ignored
+         * @return <code>true</code> if the operation has been cancelled,<br> <code>false</code> if it is being executed or had already been finished
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return finish(null, true);
+        }
+        
+        @Override
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+        
+        @Override
+        public synchronized boolean isDone() {
+            return finished;
+        }
+        
+        @Override
+        public Void get() throws InterruptedException, ExecutionException {
+            done.await();
+            return getResult();
+        }
+        
+        @Override
+        public Void get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!done.await(timeout, unit)) throw new TimeoutException();
+            return getResult();
+        }
+        
+        /**
+         * Returns the result of the finished operation
+         * @return <code>null</code> if the operation has been completed successfully
+         * @throws ExecutionException if the operation has failed
+         * @throws CancellationException if the operation has been cancelled
+         */
+        private synchronized Void getResult() throws ExecutionException {
+            if (cancelled) throw new CancellationException();
+            if (failure != null) throw new ExecutionException(failure);
+            return null;
+        }
+    }
+}
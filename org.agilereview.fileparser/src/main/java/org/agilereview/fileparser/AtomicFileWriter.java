@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.DosFileAttributeView;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rewrites a file without ever leaving it in a partially written state. All contents are written to a temporary file next to the target file, which
+ * atomically replaces the target file on {@link #commit()}. The file attributes of the target file are preserved. If the writer is closed without
+ * being committed, the temporary file is deleted and the target file stays untouched.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class AtomicFileWriter implements Closeable {
+    
+    /**
+     * Logger instance
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(AtomicFileWriter.class);
+    /**
+     * Size of the direct byte buffer used for writing
+     */
+    private static final int BUFFER_SIZE = 256 * 1024;
+    /**
+     * Direct byte buffer of each thread, reused for all rewrites of this thread. Therefore each thread must not open more than one
+     * {@link AtomicFileWriter} at a time.
+     */
+    private static final ThreadLocal<ByteBuffer> BUFFER = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+    };
+    
+    /**
+     * File to be rewritten
+     */
+    private final Path target;
+    /**
+     * Temporary file all contents are written to
+     */
+    private final Path tmpFile;
+    /**
+     * Channel of the temporary file
+     */
+    private final FileChannel channel;
+    /**
+     * Buffer of the bytes to be written
+     */
+    private final ByteBuffer bytes;
+    /**
+     * Writer encoding all characters with the given charset, lazily created
+     */
+    private ChannelWriter writer;
+    /**
+     * States whether the rewrite has been committed
+     */
+    private boolean committed;
+    
+    /**
+     * Creates a new {@link AtomicFileWriter} and the temporary file for the given file. If the given file is a symbolic link, the file it points to
+     * will be rewritten.
+     * @param file to be rewritten
+     * @throws IOException if the temporary file could not be created
+     */
+    AtomicFileWriter(Path file) throws IOException {
+        target = Files.exists(file) ? file.toRealPath() : file.toAbsolutePath();
+        tmpFile = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        channel = FileChannel.open(tmpFile, StandardOpenOption.WRITE);
+        bytes = BUFFER.get();
+        bytes.clear();
+    }
+    
+    /**
+     * Returns a {@link Writer} encoding all characters with the given charset. Malformed and unmappable characters are replaced in the same way as
+     * {@link String#getBytes(Charset)} does.
+     * @param charset {@link Charset} to be used
+     * @return the {@link Writer} for the file contents
+     */
+    Writer getWriter(Charset charset) {
+        if (writer == null) {
+            writer = new ChannelWriter(charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE));
+        }
+        return writer;
+    }
+    
+    /**
+     * Writes the remaining bytes of the given buffer behind all contents written so far
+     * @param src bytes to be written
+     * @throws IOException if the bytes could not be written
+     */
+    void write(ByteBuffer src) throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        drain();
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+    }
+    
+    /**
+     * Copies the given range of the source channel behind all contents written so far without passing the bytes through the Java heap
+     * @param source channel to copy from
+     * @param position start position of the range within the source channel
+     * @param count number of bytes to be copied
+     * @throws IOException if the bytes could not be copied or the source channel ends in front of the end of the range
+     */
+    void transferFrom(FileChannel source, long position, long count) throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        drain();
+        long end = position + count;
+        while (position < end) {
+            long transferred = source.transferTo(position, end - position, channel);
+            if (transferred <= 0) {
+                throw new EOFException("Unexpected end of file at position " + position + " while copying to " + target);
+            }
+            position += transferred;
+        }
+    }
+    
+    /**
+     * Writes all buffered contents to disk and atomically replaces the target file by the temporary file
+     * @return the size of the written file in bytes
+     * @throws IOException if the contents could not be written or the target file could not be replaced
+     */
+    long commit() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+        drain();
+        channel.force(false);
+        long size = channel.size();
+        channel.close();
+        copyAttributes();
+        try {
+            Files.move(tmpFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            LOG.debug("Atomic move not supported for {}, falling back to non-atomic replace", target);
+            Files.move(tmpFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+        return size;
+    }
+    
+    /**
+     * Discards the temporary file if the rewrite has not been committed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+    
+    /**
+     * Copies the permissions and attributes of the target file to the temporary file
+     * @throws IOException if the attributes could not be read or written
+     */
+    private void copyAttributes() throws IOException {
+        if (!Files.exists(target)) return;
+        PosixFileAttributeView posixView = Files.getFileAttributeView(tmpFile, PosixFileAttributeView.class);
+        if (posixView != null) {
+            PosixFileAttributes attributes = Files.readAttributes(target, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            posixView.setPermissions(attributes.permissions());
+            try {
+                posixView.setGroup(attributes.group());
+                posixView.setOwner(attributes.owner());
+            } catch (IOException e) {
+                LOG.debug("Could not preserve owner of {}: {}", target, e.getMessage());
+            }
+        }
+        DosFileAttributeView dosView = Files.getFileAttributeView(tmpFile, DosFileAttributeView.class);
+        if (posixView == null && dosView != null) {
+            DosFileAttributes attributes = Files.readAttributes(target, DosFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            dosView.setArchive(attributes.isArchive());
+            dosView.setHidden(attributes.isHidden());
+            dosView.setSystem(attributes.isSystem());
+            dosView.setReadOnly(attributes.isReadOnly());
+        }
+    }
+    
+    /**
+     * Writes all buffered bytes to the temporary file
+     * @throws IOException if the bytes could not be written
+     */
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+    
+    /**
+     * {@link Writer} encoding all characters into the direct byte buffer
+     */
+    private class ChannelWriter extends Writer {
+        
+        /**
+         * Encoder for the file charset
+         */
+        private final CharsetEncoder encoder;
+        /**
+         * Characters not encoded yet
+         */
+        private final CharBuffer chars = CharBuffer.allocate(8192);
+        /**
+         * States whether the writer has been closed
+         */
+        private boolean closed;
+        
+        /**
+         * Creates a new {@link ChannelWriter}
+         * @param encoder for the file charset
+         */
+        ChannelWriter(CharsetEncoder encoder) {
+            this.encoder = encoder;
+        }
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            while (len > 0) {
+                int count = Math.min(len, chars.remaining());
+                chars.put(cbuf, off, count);
+                off += count;
+                len -= count;
+                if (!chars.hasRemaining()) {
+                    encode(false);
+                }
+            }
+        }
+        
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            while (len > 0) {
+                int count = Math.min(len, chars.remaining());
+                chars.put(str, off, off + count);
+                off += count;
+                len -= count;
+                if (!chars.hasRemaining()) {
+                    encode(false);
+                }
+            }
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            encode(false);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            encode(true);
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            closed = true;
+        }
+        
+        /**
+         * Encodes all buffered characters into the byte buffer, which is drained whenever it is full
+         * @param endOfInput states whether no further characters will be written
+         * @throws IOException if the bytes could not be written
+         */
+        private void encode(boolean endOfInput) throws IOException {
+            chars.flip();
+            CoderResult result;
+            while ((result = encoder.encode(chars, bytes, endOfInput)).isOverflow()) {
+                drain();
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+            chars.compact();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.agilereview.common.parser.CommentTagRegexBuilder;
+
+/**
+ * Checks the raw bytes of a file for the literal tag prefixes without decoding the file, such that files without any tag can be skipped cheaply.
+ * The check is exact for all ASCII-compatible charsets (e.g. ASCII, ISO-8859-x or UTF-8). Files starting with a UTF-16 or UTF-32 byte order mark
+ * are always considered to contain tags. An instance can be used by multiple threads concurrently.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class ByteTagPrefilter {
+    
+    /**
+     * Size of the read buffer
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Charset of the tag prefixes
+     */
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+    /**
+     * Read buffer of each thread
+     */
+    private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[BUFFER_SIZE];
+        }
+    };
+    
+    /**
+     * ASCII encoded literal prefixes every tag starts with
+     */
+    private final byte[][] prefixes;
+    /**
+     * Length of the longest prefix
+     */
+    private final int maxLength;
+    
+    /**
+     * Creates a new {@link ByteTagPrefilter} for the given multi-line comment signs
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     */
+    ByteTagPrefilter(String multilineCommentStartSign, String multilineCommentEndSign) {
+        this(new CommentTagRegexBuilder(multilineCommentStartSign, multilineCommentEndSign).buildTagPrefixes());
+    }
+    
+    /**
+     * Creates a new {@link ByteTagPrefilter} for the given literal tag prefixes
+     * @param tagPrefixes literal prefixes every tag starts with as built by {@link CommentTagRegexBuilder#buildTagPrefixes()}
+     */
+    ByteTagPrefilter(String[] tagPrefixes) {
+        byte[][] encoded = new byte[tagPrefixes.length][];
+        int max = 0;
+        for (int i = 0; i < tagPrefixes.length && encoded != null; i++) {
+            encoded[i] = tagPrefixes[i].getBytes(US_ASCII);
+            if (!isSingleByteEncoded(tagPrefixes[i], encoded[i])) {
+                encoded = null;
+            } else {
+                max = Math.max(max, encoded[i].length);
+            }
+        }
+        prefixes = encoded;
+        maxLength = max;
+    }
+    
+    /**
+     * Checks whether the given file might contain a tag
+     * @param file to be checked
+     * @return <code>false</code> if the file does not contain any tag,<br> <code>true</code> if the file might contain a tag
+     * @throws IOException if the file could not be read
+     */
+    boolean mightContainTag(Path file) throws IOException {
+        if (prefixes == null) return true;
+        byte[] buffer = BUFFER.get();
+        int carry = 0;
+        boolean first = true;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (true) {
+                int read = channel.read(ByteBuffer.wrap(buffer, carry, buffer.length - carry));
+                boolean eof = read < 0;
+                int length = carry + Math.max(read, 0);
+                if (first && startsWithUnicodeBom(buffer, length)) return true;
+                first = false;
+                int limit = eof ? length : Math.max(length - maxLength + 1, 0);
+                for (int i = 0; i < limit; i++) {
+                    if (matchesAt(buffer, i, length)) return true;
+                }
+                if (eof) return false;
+                carry = length - limit;
+                System.arraycopy(buffer, limit, buffer, 0, carry);
+            }
+        }
+    }
+    
+    /**
+     * Checks whether the given bytes start with a UTF-16 or UTF-32 byte order mark
+     * @param buffer bytes to be checked
+     * @param length number of valid bytes in the buffer
+     * @return <code>true</code> if the bytes start with a UTF-16 or UTF-32 byte order mark,<br> <code>false</code> otherwise
+     */
+    private static boolean startsWithUnicodeBom(byte[] buffer, int length) {
+        if (length >= 2 && ((buffer[0] == (byte) 0xFE && buffer[1] == (byte) 0xFF) || (buffer[0] == (byte) 0xFF && buffer[1] == (byte) 0xFE))) {
+            return true;
+        }
+        return length >= 4 && buffer[0] == 0 && buffer[1] == 0 && buffer[2] == (byte) 0xFE && buffer[3] == (byte) 0xFF;
+    }
+    
+    /**
+     * Checks whether one of the prefixes occurs at the given index
+     * @param buffer bytes to be checked
+     * @param index to be checked
+     * @param length number of valid bytes in the buffer
+     * @return <code>true</code> if a prefix occurs at the given index,<br> <code>false</code> otherwise
+     */
+    private boolean matchesAt(byte[] buffer, int index, int length) {
+        prefixes: for (byte[] prefix : prefixes) {
+            if (index + prefix.length > length) continue;
+            for (int i = 0; i < prefix.length; i++) {
+                if (buffer[index + i] != prefix[i]) continue prefixes;
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Checks whether the given string consists of ASCII characters only, which are encoded as single bytes of the same value
+     * @param string to be checked
+     * @param encoded string encoded with the file charset
+     * @return <code>true</code> if each character has been encoded as a single byte of the same value,<br> <code>false</code> otherwise
+     */
+    private static boolean isSingleByteEncoded(String string, byte[] encoded) {
+        if (string.length() != encoded.length) return false;
+        for (int i = 0; i < encoded.length; i++) {
+            if (string.charAt(i) >= 0x80 || encoded[i] != string.charAt(i)) return false;
+        }
+        return true;
+    }
+}
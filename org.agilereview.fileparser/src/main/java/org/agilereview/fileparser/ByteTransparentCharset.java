@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+
+/**
+ * Byte preserving view of an ASCII-compatible charset. Decoding does not interpret any multi-byte sequences: ASCII bytes are mapped to the same
+ * characters and all other bytes are mapped to the escape characters <code>U+DC80</code> to <code>U+DCFF</code>, which are lone surrogates and
+ * therefore never part of a well-formed string. Encoding maps these characters back to the original bytes, such that a decode/encode round-trip is
+ * byte-exact even for malformed input. As all tag signs are ASCII, tags can be found and edited on the decoded strings without decoding the file
+ * contents for real. Any other character is encoded with the underlying charset.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class ByteTransparentCharset extends Charset {
+    
+    /**
+     * First escape character, which represents the byte 0x80
+     */
+    private static final char ESCAPE_BASE = '\uDC00';
+    
+    /**
+     * Underlying ASCII-compatible charset of the file
+     */
+    private final Charset target;
+    
+    /**
+     * Creates a new {@link ByteTransparentCharset}
+     * @param target underlying ASCII-compatible charset of the file
+     */
+    ByteTransparentCharset(Charset target) {
+        super("x-agilereview-bytes-" + target.name(), null);
+        this.target = target;
+    }
+    
+    /**
+     * Returns the underlying charset
+     * @return the underlying charset of the file
+     */
+    Charset getTarget() {
+        return target;
+    }
+    
+    /**
+     * Converts the given string into the representation of this charset, i.e. encodes it with the underlying charset and maps each byte to a
+     * character
+     * @param string to be converted
+     * @return the byte preserving representation of the string
+     */
+    String fromUnicode(String string) {
+        if (isAscii(string)) return string;
+        byte[] bytes = string.getBytes(target);
+        char[] chars = new char[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i] = toChar(bytes[i]);
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Converts the given string from the representation of this charset to a regular string by decoding the represented bytes with the underlying
+     * charset
+     * @param string to be converted
+     * @return the decoded string
+     */
+    String toUnicode(String string) {
+        if (isAscii(string)) return string;
+        byte[] bytes = new byte[string.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) string.charAt(i);
+        }
+        return new String(bytes, target);
+    }
+    
+    @Override
+    public boolean contains(Charset cs) {
+        return cs instanceof ByteTransparentCharset && target.contains(((ByteTransparentCharset) cs).target);
+    }
+    
+    @Override
+    public CharsetDecoder newDecoder() {
+        return new CharsetDecoder(this, 1, 1) {
+            @Override
+            protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out) {
+                while (in.hasRemaining()) {
+                    if (!out.hasRemaining()) return CoderResult.OVERFLOW;
+                    out.put(toChar(in.get()));
+                }
+                return CoderResult.UNDERFLOW;
+            }
+        };
+    }
+    
+    @Override
+    public CharsetEncoder newEncoder() {
+        return new CharsetEncoder(this, 1, target.newEncoder().maxBytesPerChar()) {
+            @Override
+            protected CoderResult encodeLoop(CharBuffer in, ByteBuffer out) {
+                while (in.hasRemaining()) {
+                    char c = in.get(in.position());
+                    if (c < 0x80 || isEscape(c)) {
+                        if (!out.hasRemaining()) return CoderResult.OVERFLOW;
+                        out.put((byte) c);
+                        in.position(in.position() + 1);
+                        continue;
+                    }
+                    int length = Character.isHighSurrogate(c) && in.remaining() > 1 && Character.isLowSurrogate(in.get(in.position() + 1)) ? 2 : 1;
+                    byte[] bytes = in.subSequence(0, length).toString().getBytes(target);
+                    if (out.remaining() < bytes.length) return CoderResult.OVERFLOW;
+                    out.put(bytes);
+                    in.position(in.position() + length);
+                }
+                return CoderResult.UNDERFLOW;
+            }
+        };
+    }
+    
+    /**
+     * Maps the given byte to its character
+     * @param b byte to be mapped
+     * @return the ASCII character or escape character of the byte
+     */
+    static char toChar(byte b) {
+        return b >= 0 ? (char) b : (char) (ESCAPE_BASE + (b & 0xFF));
+    }
+    
+    /**
+     * Checks whether the given character represents a non-ASCII byte
+     * @param c character to be checked
+     * @return <code>true</code> if the character is an escape character,<br> <code>false</code> otherwise
+     */
+    static boolean isEscape(char c) {
+        return c >= ESCAPE_BASE + 0x80 && c <= ESCAPE_BASE + 0xFF;
+    }
+    
+    /**
+     * Checks whether the given string consists of ASCII characters only
+     * @param string to be checked
+     * @return <code>true</code> if all characters are ASCII characters,<br> <code>false</code> otherwise
+     */
+    private static boolean isAscii(String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+}
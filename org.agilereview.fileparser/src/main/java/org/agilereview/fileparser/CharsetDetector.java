@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Detects the charset of a file by its byte order mark or, if there is none, by the distribution of its zero bytes and by checking whether its
+ * contents are valid UTF-8
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class CharsetDetector {
+    
+    /**
+     * Number of bytes inspected at the beginning of a file
+     */
+    static final int HEAD_SIZE = 64 * 1024;
+    /**
+     * UTF-8 charset
+     */
+    static final Charset UTF8 = Charset.forName("UTF-8");
+    /**
+     * ISO-8859-1 charset, which is used for non UTF-8 contents if the platform charset is not suitable
+     */
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+    /**
+     * Prefixes of the canonical names of all charsets encoding non-ASCII characters with bytes of at least 0x80 only
+     */
+    private static final String[] BYTE_TRANSPARENT_PREFIXES = { "utf-8", "us-ascii", "iso-8859-", "windows-125", "koi8-", "euc-jp", "euc-kr",
+            "x-euc-tw", "gb2312" };
+    /**
+     * All ASCII characters
+     */
+    private static final String ASCII;
+    static {
+        char[] chars = new char[0x80];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) i;
+        }
+        ASCII = new String(chars);
+    }
+    
+    /**
+     * Hidden constructor of a utility class
+     */
+    private CharsetDetector() {
+    }
+    
+    /**
+     * Detects the charset of the given file by inspecting its first {@value #HEAD_SIZE} bytes
+     * @param file whose charset should be detected
+     * @return the detected {@link Charset}
+     * @throws IOException if the file could not be read
+     */
+    static Charset detect(Path file) throws IOException {
+        byte[] head = new byte[HEAD_SIZE];
+        int length = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while (length < head.length && (read = in.read(head, length, head.length - length)) >= 0) {
+                length += read;
+            }
+        }
+        return detect(head, length);
+    }
+    
+    /**
+     * Detects the charset of the given contents. UTF-8, UTF-16 and UTF-32 are recognized by their byte order mark. Contents without byte order mark
+     * are considered to be UTF-16 or UTF-32 if the high order bytes of their code units are mostly zero, as it is the case for text consisting
+     * mainly of ASCII characters, and UTF-8 if they contain valid non-ASCII UTF-8 sequences. Pure ASCII contents and all other contents are considered to be
+     * in the platform charset, if it is ASCII-compatible, or UTF-8 respectively ISO-8859-1 otherwise.
+     * @param contents bytes to be inspected, which might end with an incomplete character
+     * @param length number of bytes to be inspected
+     * @return the detected {@link Charset}
+     */
+    static Charset detect(byte[] contents, int length) {
+        if (startsWith(contents, length, 0xEF, 0xBB, 0xBF)) return UTF8;
+        if (startsWith(contents, length, 0x00, 0x00, 0xFE, 0xFF)) return Charset.forName("UTF-32BE");
+        if (startsWith(contents, length, 0xFF, 0xFE, 0x00, 0x00)) return Charset.forName("UTF-32LE");
+        if (startsWith(contents, length, 0xFE, 0xFF)) return Charset.forName("UTF-16BE");
+        if (startsWith(contents, length, 0xFF, 0xFE)) return Charset.forName("UTF-16LE");
+        Charset wide = detectWideCharset(contents, length);
+        if (wide != null) return wide;
+        
+        Charset platform = Charset.defaultCharset();
+        boolean platformSuitable = isAsciiCompatible(platform);
+        switch (checkUtf8(contents, length)) {
+        case ASCII:
+            return platformSuitable ? platform : UTF8;
+        case VALID:
+            return UTF8;
+        default:
+            return platformSuitable && !platform.equals(UTF8) ? platform : ISO_8859_1;
+        }
+    }
+    
+    /**
+     * Detects UTF-16 and UTF-32 contents without byte order mark. Zero bytes are counted for each byte position within a code unit. The contents
+     * are considered to be in one of these charsets if at least three quarters of the high order bytes and less than a quarter of the low order
+     * bytes are zero.
+     * @param contents bytes to be inspected
+     * @param length number of bytes to be inspected
+     * @return the detected UTF-16 or UTF-32 {@link Charset} or <code>null</code> if the contents do not look like one of these charsets
+     */
+    private static Charset detectWideCharset(byte[] contents, int length) {
+        int[] zeros = new int[4];
+        int words = length / 4;
+        for (int i = 0; i < words * 4; i++) {
+            if (contents[i] == 0) {
+                zeros[i % 4]++;
+            }
+        }
+        if (words > 0) {
+            if (isMostlyZero(zeros[0] + zeros[1] + zeros[2], 3 * words) && isRarelyZero(zeros[3], words)) return Charset.forName("UTF-32BE");
+            if (isRarelyZero(zeros[0], words) && isMostlyZero(zeros[1] + zeros[2] + zeros[3], 3 * words)) return Charset.forName("UTF-32LE");
+        }
+        
+        int units = length / 2;
+        int evenZeros = 0;
+        int oddZeros = 0;
+        for (int i = 0; i < units * 2; i += 2) {
+            if (contents[i] == 0) {
+                evenZeros++;
+            }
+            if (contents[i + 1] == 0) {
+                oddZeros++;
+            }
+        }
+        if (units > 0) {
+            if (isMostlyZero(evenZeros, units) && isRarelyZero(oddZeros, units)) return Charset.forName("UTF-16BE");
+            if (isRarelyZero(evenZeros, units) && isMostlyZero(oddZeros, units)) return Charset.forName("UTF-16LE");
+        }
+        return null;
+    }
+    
+    /**
+     * Checks whether at least three quarters of the given bytes are zero
+     * @param zeros number of zero bytes
+     * @param total number of bytes
+     * @return <code>true</code> if most of the bytes are zero,<br> <code>false</code> otherwise
+     */
+    private static boolean isMostlyZero(int zeros, int total) {
+        return zeros * 4 >= total * 3;
+    }
+    
+    /**
+     * Checks whether less than a quarter of the given bytes are zero
+     * @param zeros number of zero bytes
+     * @param total number of bytes
+     * @return <code>true</code> if only few of the bytes are zero,<br> <code>false</code> otherwise
+     */
+    private static boolean isRarelyZero(int zeros, int total) {
+        return zeros * 4 < total;
+    }
+    
+    /**
+     * Checks whether the given charset encodes all ASCII characters as single bytes of the same value
+     * @param charset to be checked
+     * @return <code>true</code> if the charset is ASCII-compatible,<br> <code>false</code> otherwise
+     */
+    static boolean isAsciiCompatible(Charset charset) {
+        if (charset instanceof ByteTransparentCharset) return true;
+        if (!charset.canEncode()) return false;
+        byte[] bytes = ASCII.getBytes(charset);
+        if (bytes.length != ASCII.length()) return false;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != i) return false;
+        }
+        return ASCII.equals(new String(bytes, charset));
+    }
+    
+    /**
+     * Checks whether files of the given charset can be processed byte-wise, i.e. whether the charset is ASCII-compatible and all bytes of non-ASCII
+     * characters are at least 0x80. Charsets like Shift_JIS, GBK or Big5 are ASCII-compatible, but the trail bytes of their multi-byte characters
+     * might be ASCII bytes like <code>\</code> or <code>|</code>, such that they have to be decoded.
+     * @param charset to be checked
+     * @return <code>true</code> if the charset is byte transparent,<br> <code>false</code> otherwise
+     */
+    static boolean isByteTransparent(Charset charset) {
+        if (charset instanceof ByteTransparentCharset) return true;
+        String name = charset.name().toLowerCase(Locale.ENGLISH);
+        for (String prefix : BYTE_TRANSPARENT_PREFIXES) {
+            if (name.startsWith(prefix)) return isAsciiCompatible(charset);
+        }
+        return false;
+    }
+    
+    /**
+     * Result of the UTF-8 check
+     */
+    private enum Utf8Status {
+        /**
+         * Contents consist of ASCII characters only
+         */
+        ASCII,
+        /**
+         * Contents contain valid non-ASCII UTF-8 sequences only
+         */
+        VALID,
+        /**
+         * Contents contain invalid UTF-8 sequences
+         */
+        INVALID
+    }
+    
+    /**
+     * Checks whether the given contents are valid UTF-8. An incomplete sequence at the end of the contents is accepted.
+     * @param contents bytes to be checked
+     * @param length number of bytes to be checked
+     * @return the {@link Utf8Status} of the contents
+     */
+    private static Utf8Status checkUtf8(byte[] contents, int length) {
+        boolean ascii = true;
+        int i = 0;
+        while (i < length) {
+            int b = contents[i] & 0xFF;
+            if (b < 0x80) {
+                i++;
+                continue;
+            }
+            ascii = false;
+            int count;
+            int min;
+            if (b >= 0xC2 && b <= 0xDF) {
+                count = 1;
+                min = 0x80;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                count = 2;
+                min = 0x800;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                count = 3;
+                min = 0x10000;
+            } else {
+                return Utf8Status.INVALID;
+            }
+            int codePoint = b & (0x3F >> count);
+            for (int j = 1; j <= count; j++) {
+                if (i + j >= length) return Utf8Status.VALID;
+                int next = contents[i + j] & 0xFF;
+                if ((next & 0xC0) != 0x80) return Utf8Status.INVALID;
+                codePoint = (codePoint << 6) | (next & 0x3F);
+            }
+            if (codePoint < min || codePoint > 0x10FFFF || (codePoint >= 0xD800 && codePoint <= 0xDFFF)) return Utf8Status.INVALID;
+            i += count + 1;
+        }
+        return ascii ? Utf8Status.ASCII : Utf8Status.VALID;
+    }
+    
+    /**
+     * Checks whether the given contents start with the given bytes
+     * @param contents to be checked
+     * @param length number of valid bytes
+     * @param prefix expected bytes
+     * @return <code>true</code> if the contents start with the given bytes,<br> <code>false</code> otherwise
+     */
+    private static boolean startsWith(byte[] contents, int length, int... prefix) {
+        if (length < prefix.length) return false;
+        byte[] bytes = new byte[prefix.length];
+        for (int i = 0; i < prefix.length; i++) {
+            bytes[i] = (byte) prefix[i];
+        }
+        return Arrays.equals(bytes, Arrays.copyOf(contents, prefix.length));
+    }
+}
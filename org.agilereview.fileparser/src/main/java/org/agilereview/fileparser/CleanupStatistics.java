@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of a bulk tag removal of the {@link WorkspaceTagCleaner}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class CleanupStatistics {
+    
+    /**
+     * Number of files scanned
+     */
+    private final long filesScanned;
+    /**
+     * Number of files rewritten
+     */
+    private final long filesModified;
+    /**
+     * Number of files, which could not be processed
+     */
+    private final long filesFailed;
+    /**
+     * Number of bytes written to the rewritten files
+     */
+    private final long bytesRewritten;
+    /**
+     * Duration of the cleanup in nanoseconds
+     */
+    private final long elapsedNanos;
+    
+    /**
+     * Creates new {@link CleanupStatistics}
+     * @param filesScanned number of files scanned
+     * @param filesModified number of files rewritten
+     * @param filesFailed number of files, which could not be processed
+     * @param bytesRewritten number of bytes written to the rewritten files
+     * @param elapsedNanos duration of the cleanup in nanoseconds
+     */
+    CleanupStatistics(long filesScanned, long filesModified, long filesFailed, long bytesRewritten, long elapsedNanos) {
+        this.filesScanned = filesScanned;
+        this.filesModified = filesModified;
+        this.filesFailed = filesFailed;
+        this.bytesRewritten = bytesRewritten;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Returns the number of files scanned
+     * @return the number of files scanned
+     */
+    public long getFilesScanned() {
+        return filesScanned;
+    }
+    
+    /**
+     * Returns the number of files rewritten
+     * @return the number of files rewritten
+     */
+    public long getFilesModified() {
+        return filesModified;
+    }
+    
+    /**
+     * Returns the number of files, which could not be processed
+     * @return the number of failed files
+     */
+    public long getFilesFailed() {
+        return filesFailed;
+    }
+    
+    /**
+     * Returns the number of bytes written to the rewritten files
+     * @return the number of bytes rewritten
+     */
+    public long getBytesRewritten() {
+        return bytesRewritten;
+    }
+    
+    /**
+     * Returns the duration of the cleanup
+     * @param unit {@link TimeUnit} of the result
+     * @return the duration in the given unit
+     */
+    public long getElapsedTime(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d files scanned, %d modified (%d bytes rewritten), %d failed in %d ms", filesScanned, filesModified, bytesRewritten,
+                filesFailed, getElapsedTime(TimeUnit.MILLISECONDS));
+    }
+}
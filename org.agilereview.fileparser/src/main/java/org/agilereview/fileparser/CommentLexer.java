@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+/**
+ * State machine detecting multi-line code comments line by line. Comment signs within string literals, text blocks and line comments are ignored,
+ * and comments do not nest. The lexer keeps its state between lines, such that a document is processed in one linear pass. After each
+ * {@link #lex(String)} the comment boundaries found within the line can be queried. An instance must not be used by multiple threads concurrently.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class CommentLexer {
+    
+    /**
+     * State of being in code
+     */
+    private static final int CODE = 0;
+    /**
+     * State of being within a multi-line comment
+     */
+    private static final int BLOCK_COMMENT = 1;
+    /**
+     * State of being within a multi-line string literal
+     */
+    private static final int TEXT_BLOCK = 2;
+    
+    /**
+     * Syntax of the lexed language
+     */
+    private final CommentSyntax syntax;
+    /**
+     * Multi-line comment start sign
+     */
+    private final String blockStart;
+    /**
+     * Multi-line comment end sign
+     */
+    private final String blockEnd;
+    /**
+     * Signs starting a comment up to the end of the line
+     */
+    private final String[] lineCommentStarts;
+    /**
+     * Delimiter of multi-line string literals or <code>null</code> if there are none
+     */
+    private final String textBlock;
+    /**
+     * Current state at the end of the last lexed line
+     */
+    private int state = CODE;
+    /**
+     * States whether a multi-line comment started within the last lexed line
+     */
+    private boolean startsComment;
+    /**
+     * States whether a multi-line comment ended within the last lexed line
+     */
+    private boolean endsComment;
+    
+    /**
+     * Creates a new {@link CommentLexer} starting in code
+     * @param syntax {@link CommentSyntax} of the language to be lexed
+     */
+    CommentLexer(CommentSyntax syntax) {
+        this.syntax = syntax;
+        this.blockStart = syntax.getBlockCommentStart();
+        this.blockEnd = syntax.getBlockCommentEnd();
+        this.lineCommentStarts = syntax.lineCommentStarts();
+        this.textBlock = syntax.getTextBlockDelimiter();
+    }
+    
+    /**
+     * Lexes the next line of the document
+     * @param line contents of the line without line terminator
+     */
+    void lex(String line) {
+        startsComment = false;
+        endsComment = false;
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            if (state == BLOCK_COMMENT) {
+                int end = line.indexOf(blockEnd, i);
+                if (end < 0) return;
+                endsComment = true;
+                state = CODE;
+                i = end + blockEnd.length();
+            } else if (state == TEXT_BLOCK) {
+                i = skipTextBlock(line, i);
+            } else {
+                char c = line.charAt(i);
+                if (line.startsWith(blockStart, i)) {
+                    startsComment = true;
+                    state = BLOCK_COMMENT;
+                    i += blockStart.length();
+                } else if (isLineCommentStart(line, i)) {
+                    return;
+                } else if (textBlock != null && line.startsWith(textBlock, i)) {
+                    state = TEXT_BLOCK;
+                    i += textBlock.length();
+                } else if (syntax.getStringDelimiters().indexOf(c) >= 0) {
+                    i = skipString(line, i + 1, c);
+                } else {
+                    i++;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks whether a multi-line comment started within the last lexed line
+     * @return <code>true</code> if a comment started within the line,<br> <code>false</code> otherwise
+     */
+    boolean startsComment() {
+        return startsComment;
+    }
+    
+    /**
+     * Checks whether a multi-line comment ended within the last lexed line
+     * @return <code>true</code> if a comment ended within the line,<br> <code>false</code> otherwise
+     */
+    boolean endsComment() {
+        return endsComment;
+    }
+    
+    /**
+     * Checks whether the last lexed line ends within a multi-line comment
+     * @return <code>true</code> if a comment is still open at the end of the line,<br> <code>false</code> otherwise
+     */
+    boolean endsInComment() {
+        return state == BLOCK_COMMENT;
+    }
+    
+    /**
+     * Checks whether a line comment starts at the given index
+     * @param line to be checked
+     * @param index within the line
+     * @return <code>true</code> if a line comment starts at the given index,<br> <code>false</code> otherwise
+     */
+    private boolean isLineCommentStart(String line, int index) {
+        for (String lineCommentStart : lineCommentStarts) {
+            if (line.startsWith(lineCommentStart, index)) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Skips a single-line string literal. A string literal not being closed within the line ends at the end of the line.
+     * @param line containing the string literal
+     * @param index of the first character after the opening delimiter
+     * @param delimiter of the string literal
+     * @return the index of the first character after the string literal
+     */
+    private int skipString(String line, int index, char delimiter) {
+        char escape = syntax.getEscapeCharacter();
+        while (index < line.length()) {
+            char c = line.charAt(index);
+            if (c == delimiter) return index + 1;
+            index += c == escape && escape != '\0' ? 2 : 1;
+        }
+        return line.length();
+    }
+    
+    /**
+     * Skips the contents of a multi-line string literal up to and including its closing delimiter or up to the end of the line
+     * @param line containing the string literal
+     * @param index of the first character to be checked
+     * @return the index of the first character after the string literal or the length of the line if the literal is not closed within the line
+     */
+    private int skipTextBlock(String line, int index) {
+        char escape = syntax.getEscapeCharacter();
+        while (index < line.length()) {
+            if (line.startsWith(textBlock, index)) {
+                state = CODE;
+                return index + textBlock.length();
+            }
+            index += line.charAt(index) == escape && escape != '\0' ? 2 : 1;
+        }
+        return line.length();
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.Arrays;
+
+/**
+ * Index of all multi-line code comment regions of a document. The index is built in one linear pass by reporting for each line whether it contains
+ * a comment start sign and/or a comment end sign. Each comment region starts at a line containing a start sign and ends at the first line at or
+ * after its start containing an end sign. If the index has been created with a {@link CommentLexer}, the lines are reported by their contents and
+ * only real comment boundaries are taken into account, i.e. no signs within string literals or line comments. Lookups are performed by binary
+ * search.<br>
+ * After the index has been built, empty lines might be inserted into the document. These insertions have to be reported by
+ * {@link #lineInserted(int)}, such that all lookups keep referring to the current line numbers of the document.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class CommentRegionIndex {
+    
+    /**
+     * Start lines of all comment regions in ascending order
+     */
+    private int[] startLines = new int[16];
+    /**
+     * End lines of all comment regions or -1 if the region has not been closed
+     */
+    private int[] endLines = new int[16];
+    /**
+     * Number of comment regions
+     */
+    private int size;
+    /**
+     * Index of the first comment region, which has not been closed yet
+     */
+    private int firstOpenRegion;
+    /**
+     * Number of lines reported so far
+     */
+    private int lineCount;
+    /**
+     * Line numbers of all inserted empty lines in order of their insertion
+     */
+    private int[] insertedLines = new int[4];
+    /**
+     * Number of inserted empty lines
+     */
+    private int insertedLineCount;
+    /**
+     * Lexer detecting the comment boundaries of lines reported by their contents or <code>null</code> if the lines are reported by flags only
+     */
+    private final CommentLexer lexer;
+    
+    /**
+     * Creates a new {@link CommentRegionIndex}, for which the lines have to be reported by flags
+     */
+    CommentRegionIndex() {
+        this(null);
+    }
+    
+    /**
+     * Creates a new {@link CommentRegionIndex}, for which the lines can be reported by their contents
+     * @param lexer {@link CommentLexer} detecting the comment boundaries, which must not be used otherwise
+     */
+    CommentRegionIndex(CommentLexer lexer) {
+        this.lexer = lexer;
+    }
+    
+    /**
+     * Reports the contents of the next line of the document, which is lexed by the {@link CommentLexer} of this index
+     * @param line contents of the line without line terminator
+     */
+    void addLine(String line) {
+        lexer.lex(line);
+        addLine(lexer.startsComment(), lexer.endsComment(), lexer.endsInComment());
+    }
+    
+    /**
+     * Reports the next line of the document as detected by a {@link CommentLexer}. Regions open before the line are closed by an end sign. All
+     * comments starting within the line are represented by one region, which stays open if the line ends within a comment.
+     * @param startsComment states whether a comment starts within the line
+     * @param endsComment states whether a comment ends within the line
+     * @param endsInComment states whether the line ends within a comment
+     */
+    void addLine(boolean startsComment, boolean endsComment, boolean endsInComment) {
+        if (endsComment) {
+            closeOpenRegions();
+        }
+        if (startsComment) {
+            addRegion();
+            if (!endsInComment) {
+                closeOpenRegions();
+            }
+        }
+        lineCount++;
+    }
+    
+    /**
+     * Reports the next line of the document
+     * @param containsStartSign states whether the line contains a comment start sign
+     * @param containsEndSign states whether the line contains a comment end sign
+     */
+    void addLine(boolean containsStartSign, boolean containsEndSign) {
+        if (containsStartSign) {
+            addRegion();
+        }
+        if (containsEndSign) {
+            closeOpenRegions();
+        }
+        lineCount++;
+    }
+    
+    /**
+     * Adds a new open comment region starting at the current line
+     */
+    private void addRegion() {
+        if (size == startLines.length) {
+            startLines = Arrays.copyOf(startLines, size * 2);
+            endLines = Arrays.copyOf(endLines, size * 2);
+        }
+        startLines[size] = lineCount;
+        endLines[size] = -1;
+        size++;
+    }
+    
+    /**
+     * Closes all open comment regions at the current line
+     */
+    private void closeOpenRegions() {
+        for (int i = firstOpenRegion; i < size; i++) {
+            endLines[i] = lineCount;
+        }
+        firstOpenRegion = size;
+    }
+    
+    /**
+     * Checks whether there is a comment region, which has not been closed until the last reported line
+     * @return <code>true</code> if a comment region is still open,<br> <code>false</code> otherwise
+     */
+    boolean hasOpenRegion() {
+        return firstOpenRegion < size;
+    }
+    
+    /**
+     * Returns the start line of the last comment region reported
+     * @return the start line of the last comment region or -1 if there is none
+     */
+    int getLastStartLine() {
+        return size == 0 ? -1 : toCurrentLine(startLines[size - 1]);
+    }
+    
+    /**
+     * Reports that an empty line has been inserted into the document, such that all following lines are shifted by one
+     * @param line current line number of the inserted line
+     */
+    void lineInserted(int line) {
+        if (insertedLineCount == insertedLines.length) {
+            insertedLines = Arrays.copyOf(insertedLines, insertedLineCount * 2);
+        }
+        insertedLines[insertedLineCount++] = line;
+    }
+    
+    /**
+     * Takes over all empty lines inserted so far as lines of the document, such that the current line numbers become the original line numbers of
+     * all following lookups and insertions. The index is the same as if it had been built from the current document.
+     */
+    void rebase() {
+        for (int i = 0; i < size; i++) {
+            startLines[i] = toCurrentLine(startLines[i]);
+            if (endLines[i] != -1) {
+                endLines[i] = toCurrentLine(endLines[i]);
+            }
+        }
+        lineCount += insertedLineCount;
+        insertedLineCount = 0;
+    }
+    
+    /**
+     * Searches for the last comment region starting at or before the given line
+     * @param line current line number
+     * @return an array containing the start line (position 0) and the end line (position 1) of the found comment region. If no comment region
+     *         starts at or before the given line, the start line is -1. If the comment region has not been closed, the end line is -1.
+     */
+    int[] findRegion(int line) {
+        int[] result = { -1, -1 };
+        int origLine = toOriginalLine(line);
+        if (origLine < 0) return result;
+        
+        int region = Arrays.binarySearch(startLines, 0, size, origLine);
+        if (region < 0) {
+            region = -region - 2;
+        }
+        if (region >= 0) {
+            result[0] = toCurrentLine(startLines[region]);
+            if (endLines[region] != -1) {
+                result[1] = toCurrentLine(endLines[region]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Maps a line number of the original document to the current line number of that line
+     * @param origLine original line number
+     * @return the current line number
+     */
+    int toCurrentLine(int origLine) {
+        int line = origLine;
+        for (int i = 0; i < insertedLineCount; i++) {
+            if (line >= insertedLines[i]) {
+                line++;
+            }
+        }
+        return line;
+    }
+    
+    /**
+     * Maps a current line number to the line number of the original document. If the line has been inserted, the original line number of the
+     * closest original line in front of it will be returned.
+     * @param line current line number
+     * @return the original line number or -1 if there is no original line in front of an inserted line
+     */
+    private int toOriginalLine(int line) {
+        int origLine = line;
+        for (int i = insertedLineCount - 1; i >= 0; i--) {
+            if (origLine > insertedLines[i]) {
+                origLine--;
+            } else if (origLine == insertedLines[i]) {
+                origLine = insertedLines[i] - 1;
+            }
+        }
+        return origLine;
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+/**
+ * Lexical syntax of a language as far as it is needed to detect code comments: the multi-line comment signs, the line comment signs and the string
+ * literals, within which comment signs have to be ignored. Instances are immutable.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public final class CommentSyntax {
+    
+    /**
+     * Syntax of C-style languages like Java, C, C# or JavaScript: block comments, line comments starting with //, string and character literals with
+     * backslash escapes and text blocks enclosed in """
+     */
+    public static final CommentSyntax C_STYLE = new CommentSyntax("/*", "*/", new String[] { "//" }, "\"'", '\\', "\"\"\"");
+    /**
+     * Syntax of CSS: block comments and string literals with backslash escapes
+     */
+    public static final CommentSyntax CSS = new CommentSyntax("/*", "*/", new String[0], "\"'", '\\', null);
+    /**
+     * Syntax of XML and HTML: comments only, as quotes within text content do not start string literals
+     */
+    public static final CommentSyntax XML = new CommentSyntax("<!--", "-->", new String[0], "", '\0', null);
+    
+    /**
+     * Multi-line comment start sign
+     */
+    private final String blockCommentStart;
+    /**
+     * Multi-line comment end sign
+     */
+    private final String blockCommentEnd;
+    /**
+     * Signs starting a comment up to the end of the line
+     */
+    private final String[] lineCommentStarts;
+    /**
+     * Characters delimiting single-line string literals
+     */
+    private final String stringDelimiters;
+    /**
+     * Escape character within string literals or <code>'\0'</code> if there is none
+     */
+    private final char escapeCharacter;
+    /**
+     * Delimiter of multi-line string literals or <code>null</code> if there are none
+     */
+    private final String textBlockDelimiter;
+    
+    /**
+     * Creates a new {@link CommentSyntax}
+     * @param blockCommentStart the multi-line start sign (e.g. /* for java)
+     * @param blockCommentEnd the multi-line end sign (e.g. {@literal *}/ for java)
+     * @param lineCommentStarts signs starting a comment up to the end of the line (e.g. // for java)
+     * @param stringDelimiters characters delimiting single-line string literals
+     * @param escapeCharacter escape character within string literals or <code>'\0'</code> if there is none
+     * @param textBlockDelimiter delimiter of multi-line string literals or <code>null</code> if there are none
+     */
+    public CommentSyntax(String blockCommentStart, String blockCommentEnd, String[] lineCommentStarts, String stringDelimiters,
+            char escapeCharacter, String textBlockDelimiter) {
+        this.blockCommentStart = blockCommentStart;
+        this.blockCommentEnd = blockCommentEnd;
+        this.lineCommentStarts = lineCommentStarts.clone();
+        this.stringDelimiters = stringDelimiters;
+        this.escapeCharacter = escapeCharacter;
+        this.textBlockDelimiter = textBlockDelimiter;
+    }
+    
+    /**
+     * Returns the syntax for the given multi-line comment signs. The signs of C-style and XML comments are mapped to {@link #C_STYLE} and
+     * {@link #XML}, all other signs to a syntax only consisting of the given block comments.
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     * @return the {@link CommentSyntax} for the given signs
+     */
+    public static CommentSyntax of(String multilineCommentStartSign, String multilineCommentEndSign) {
+        if (C_STYLE.blockCommentStart.equals(multilineCommentStartSign) && C_STYLE.blockCommentEnd.equals(multilineCommentEndSign)) return C_STYLE;
+        if (XML.blockCommentStart.equals(multilineCommentStartSign) && XML.blockCommentEnd.equals(multilineCommentEndSign)) return XML;
+        return new CommentSyntax(multilineCommentStartSign, multilineCommentEndSign, new String[0], "", '\0', null);
+    }
+    
+    /**
+     * Returns the multi-line comment start sign
+     * @return the start sign
+     */
+    public String getBlockCommentStart() {
+        return blockCommentStart;
+    }
+    
+    /**
+     * Returns the multi-line comment end sign
+     * @return the end sign
+     */
+    public String getBlockCommentEnd() {
+        return blockCommentEnd;
+    }
+    
+    /**
+     * Returns the signs starting a comment up to the end of the line
+     * @return a new array of the line comment signs
+     */
+    public String[] getLineCommentStarts() {
+        return lineCommentStarts.clone();
+    }
+    
+    /**
+     * Returns the characters delimiting single-line string literals
+     * @return the string delimiters
+     */
+    public String getStringDelimiters() {
+        return stringDelimiters;
+    }
+    
+    /**
+     * Returns the escape character within string literals
+     * @return the escape character or <code>'\0'</code> if there is none
+     */
+    public char getEscapeCharacter() {
+        return escapeCharacter;
+    }
+    
+    /**
+     * Returns the delimiter of multi-line string literals
+     * @return the text block delimiter or <code>null</code> if there are none
+     */
+    public String getTextBlockDelimiter() {
+        return textBlockDelimiter;
+    }
+    
+    /**
+     * Returns the signs starting a comment up to the end of the line without copying them. The returned array must not be modified.
+     * @return the line comment signs
+     */
+    String[] lineCommentStarts() {
+        return lineCommentStarts;
+    }
+}
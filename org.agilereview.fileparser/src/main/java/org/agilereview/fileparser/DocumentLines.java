@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Lines of an in-memory document, which can be modified and extended by new lines. Each line remembers the line of the original document it stems
+ * from, such that all modifications can be converted to {@link TextEdit}s on the original document. Lines are split in the same way as
+ * {@link java.io.BufferedReader#readLine()} does.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class DocumentLines extends AbstractList<String> {
+    
+    /**
+     * Original document
+     */
+    private final CharSequence document;
+    /**
+     * Start offset of each original line
+     */
+    private int[] lineStarts = new int[16];
+    /**
+     * End offset of the contents of each original line, i.e. the offset of its line terminator
+     */
+    private int[] contentEnds = new int[16];
+    /**
+     * Number of original lines
+     */
+    private int lineCount;
+    /**
+     * Line terminator used for inserted lines
+     */
+    private String lineSeparator;
+    /**
+     * Current contents of all lines
+     */
+    private final List<String> lines = new ArrayList<String>();
+    /**
+     * Original line of each current line or -1 for inserted lines
+     */
+    private int[] origins = new int[16];
+    
+    /**
+     * Creates new {@link DocumentLines} for the given document
+     * @param document to be split into lines
+     */
+    DocumentLines(CharSequence document) {
+        this.document = document;
+        int length = document.length();
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            while (end < length && document.charAt(end) != '\n' && document.charAt(end) != '\r') {
+                end++;
+            }
+            int next = end;
+            if (next < length) {
+                next += document.charAt(next) == '\r' && next + 1 < length && document.charAt(next + 1) == '\n' ? 2 : 1;
+                if (lineSeparator == null) {
+                    lineSeparator = document.subSequence(end, next).toString();
+                }
+            }
+            addOriginalLine(start, end);
+            start = next;
+        }
+        if (lineSeparator == null) {
+            lineSeparator = IOUtils.LINE_SEPARATOR;
+        }
+    }
+    
+    /**
+     * Returns the number of lines of the original document
+     * @return the number of original lines
+     */
+    int getOriginalLineCount() {
+        return lineCount;
+    }
+    
+    /**
+     * Returns the start offset of the given original line
+     * @param line zero based original line number
+     * @return the start offset
+     */
+    int getLineStart(int line) {
+        return lineStarts[line];
+    }
+    
+    /**
+     * Returns the end offset of the given original line including its line terminator
+     * @param line zero based original line number
+     * @return the end offset
+     */
+    int getLineEnd(int line) {
+        return line + 1 < lineCount ? lineStarts[line + 1] : document.length();
+    }
+    
+    /**
+     * Converts all modifications of the lines to a minimal list of {@link TextEdit}s on the original document. Inserted lines are terminated by the
+     * first line terminator of the document.
+     * @return the {@link TextEdit}s sorted by offset
+     */
+    List<TextEdit> toEdits() {
+        List<TextEdit> edits = new ArrayList<TextEdit>();
+        StringBuilder inserted = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            int origin = origins[i];
+            if (origin < 0) {
+                inserted.append(lines.get(i)).append(lineSeparator);
+                continue;
+            }
+            if (inserted.length() > 0) {
+                TextEdit.addMerged(edits, new TextEdit(lineStarts[origin], 0, inserted.toString()));
+                inserted.setLength(0);
+            }
+            String line = lines.get(i);
+            int start = lineStarts[origin];
+            int end = contentEnds[origin];
+            int prefix = 0;
+            while (prefix < line.length() && start + prefix < end && line.charAt(prefix) == document.charAt(start + prefix)) {
+                prefix++;
+            }
+            if (prefix == line.length() && start + prefix == end) continue;
+            int suffix = 0;
+            while (suffix < line.length() - prefix && suffix < end - start - prefix
+                    && line.charAt(line.length() - 1 - suffix) == document.charAt(end - 1 - suffix)) {
+                suffix++;
+            }
+            TextEdit.addMerged(edits, new TextEdit(start + prefix, end - start - prefix - suffix, line.substring(prefix, line.length() - suffix)));
+        }
+        if (inserted.length() > 0) {
+            if (lineCount > 0 && contentEnds[lineCount - 1] == document.length()) {
+                // the last line is not terminated, so the separator belongs in front of the inserted lines
+                inserted.setLength(inserted.length() - lineSeparator.length());
+                inserted.insert(0, lineSeparator);
+            }
+            TextEdit.addMerged(edits, new TextEdit(document.length(), 0, inserted.toString()));
+        }
+        return edits;
+    }
+    
+    @Override
+    public String get(int index) {
+        return lines.get(index);
+    }
+    
+    @Override
+    public String set(int index, String element) {
+        return lines.set(index, element);
+    }
+    
+    /**
+     * Inserts a new line, which is not part of the original document
+     */
+    @Override
+    public void add(int index, String element) {
+        lines.add(index, element);
+        origins = ensureCapacity(origins, lines.size());
+        System.arraycopy(origins, index, origins, index + 1, lines.size() - 1 - index);
+        origins[index] = -1;
+    }
+    
+    @Override
+    public int size() {
+        return lines.size();
+    }
+    
+    /**
+     * Appends an original line of the document
+     * @param start offset of the line
+     * @param contentEnd offset of the line terminator
+     */
+    private void addOriginalLine(int start, int contentEnd) {
+        lineStarts = ensureCapacity(lineStarts, lineCount + 1);
+        contentEnds = ensureCapacity(contentEnds, lineCount + 1);
+        origins = ensureCapacity(origins, lineCount + 1);
+        lineStarts[lineCount] = start;
+        contentEnds[lineCount] = contentEnd;
+        origins[lineCount] = lineCount;
+        lines.add(document.subSequence(start, contentEnd).toString());
+        lineCount++;
+    }
+    
+    /**
+     * Returns an array of at least the given capacity containing all elements of the given array
+     * @param array to be grown
+     * @param capacity minimum capacity
+     * @return the given array or a grown copy of it
+     */
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.agilereview.common.parser.CommentTagScanner;
+import org.agilereview.common.parser.ParserConfiguration;
+
+/**
+ * Parser adding and removing AgileReview comment tags to/from documents held in memory, e.g. in an editor buffer. Instead of modifying the document
+ * all operations return the {@link TextEdit}s to be applied by the caller, such that no file is read or written. The edits are computed by the same
+ * logic as the corresponding operations of the {@link FileParser}.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class DocumentParser {
+    
+    /**
+     * {@link FileParser} providing the tag insertion logic, which never accesses its file
+     */
+    private final FileParser parser;
+    /**
+     * Tag matcher instance
+     */
+    private final TagMatcher tagMatcher;
+    /**
+     * Language profile providing the tag matchers
+     */
+    private final LanguageProfile profile;
+    
+    /**
+     * Creates a new {@link DocumentParser}
+     * @param multiLineCommentTags multi-line comment start and end sign of the documents
+     */
+    public DocumentParser(String[] multiLineCommentTags) {
+        this(multiLineCommentTags, ParserConfiguration.getInstance());
+    }
+    
+    /**
+     * Creates a new {@link DocumentParser} building and matching tags according to the given configuration
+     * @param multiLineCommentTags multi-line comment start and end sign of the documents
+     * @param configuration {@link ParserConfiguration} to be used
+     */
+    public DocumentParser(String[] multiLineCommentTags, ParserConfiguration configuration) {
+        this(new LanguageProfile(multiLineCommentTags[0] + " " + multiLineCommentTags[1], multiLineCommentTags[0], multiLineCommentTags[1],
+                configuration));
+    }
+    
+    /**
+     * Creates a new {@link DocumentParser} reusing the tag builders and matchers of the given language profile
+     * @param profile {@link LanguageProfile} of the documents
+     */
+    public DocumentParser(LanguageProfile profile) {
+        this.profile = profile;
+        this.parser = new FileParser(null, profile);
+        this.tagMatcher = new TagMatcher(profile);
+    }
+    
+    /**
+     * Computes the edits adding tags with the given tag id to the document from line startLine to endLine as described in
+     * {@link FileParser#addTags(String, int, int)}
+     * @param document to be tagged
+     * @param tagId tag id to be inserted
+     * @param startLine start line of the comment
+     * @param endLine end line of the comment
+     * @return the {@link TextEdit}s sorted by offset
+     */
+    public List<TextEdit> addTags(CharSequence document, String tagId, int startLine, int endLine) {
+        return addTags(document, Collections.singletonList(new TagSelection(tagId, startLine, endLine)));
+    }
+    
+    /**
+     * Computes the edits adding tags for all given selections to the document as described in {@link FileParser#addTags(Collection)}
+     * @param document to be tagged
+     * @param selections {@link TagSelection}s to be tagged
+     * @return the {@link TextEdit}s sorted by offset
+     */
+    public List<TextEdit> addTags(CharSequence document, Collection<TagSelection> selections) {
+        DocumentLines lines = new DocumentLines(document);
+        CommentRegionIndex index = parser.newCommentRegionIndex();
+        for (String line : lines) {
+            parser.indexLine(index, line);
+        }
+        parser.insertTags(lines, index, selections, new OperationRecorder());
+        return lines.toEdits();
+    }
+    
+    /**
+     * Computes the edits removing all tags with the given tag id from the document
+     * @param document to be cleaned
+     * @param tagId to be removed
+     * @return the {@link TextEdit}s sorted by offset
+     */
+    public List<TextEdit> removeTags(CharSequence document, String tagId) {
+        return removeTags(document, Collections.singleton(tagId));
+    }
+    
+    /**
+     * Computes the edits removing all tags with one of the given tag ids from the document
+     * @param document to be cleaned
+     * @param tagIds to be removed
+     * @return the {@link TextEdit}s sorted by offset
+     */
+    public List<TextEdit> removeTags(CharSequence document, Collection<String> tagIds) {
+        if (tagIds.isEmpty()) return new ArrayList<TextEdit>();
+        return removeTags(document, profile.newTagScanner().setTagIds(tagIds));
+    }
+    
+    /**
+     * Computes the edits removing all tags from the document
+     * @param document to be cleaned
+     * @return the {@link TextEdit}s sorted by offset
+     */
+    public List<TextEdit> clearAllTags(CharSequence document) {
+        return removeTags(document, profile.newTagScanner());
+    }
+    
+    /**
+     * Computes the edits removing all tags found by the given scanner. Lines whose first removed tag is marked for line cleanup are removed
+     * completely if they are empty after tag removal, just like {@link FileParser#clearAllTags()} does.
+     * @param document to be cleaned
+     * @param scanner {@link CommentTagScanner} finding the tags to be removed
+     * @return the {@link TextEdit}s sorted by offset
+     */
+    private List<TextEdit> removeTags(CharSequence document, CommentTagScanner scanner) {
+        List<TextEdit> edits = new ArrayList<TextEdit>();
+        DocumentLines lines = new DocumentLines(document);
+        for (int i = 0; i < lines.getOriginalLineCount(); i++) {
+            String line = lines.get(i);
+            if (!tagMatcher.mightContainTag(line) || !scanner.reset(line).find()) continue;
+            int lineStart = lines.getLineStart(i);
+            if (scanner.isCleanupTag() && TagMatcher.removeFoundTags(scanner, line).trim().isEmpty()) {
+                TextEdit.addMerged(edits, new TextEdit(lineStart, lines.getLineEnd(i) - lineStart, ""));
+                continue;
+            }
+            scanner.reset(line);
+            while (scanner.find()) {
+                TextEdit.addMerged(edits, new TextEdit(lineStart + scanner.start(), scanner.end() - scanner.start(), ""));
+            }
+        }
+        return edits;
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serializes modifications of the same file while modifications of different files run in parallel. Within the JVM, files are mapped by their
+ * canonical path to a fixed number of lock stripes. In addition, an exclusive OS level {@link FileLock} is taken on the file to guard against
+ * other processes, which use the same locking protocol. As files are rewritten by replacing them atomically, the file lock is taken on a region far
+ * behind the end of the file, such that it never blocks reading the contents, and it is retaken if the file has been replaced while waiting for
+ * the lock. Replaced files are detected by their file key. On file systems without file keys, like NTFS, the creation time, the modification time
+ * and the size of the file are compared instead, such that a replacement by a file with equal attributes stays undetected.<br>
+ * Leases must not be nested for the same file within one thread, as the JVM does not allow overlapping file locks.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class FileLocks {
+    
+    /**
+     * Logger instance
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(FileLocks.class);
+    /**
+     * Shared instance used by all {@link FileParser}s
+     */
+    private static final FileLocks DEFAULT = new FileLocks(64);
+    /**
+     * Position of the locked file region, far behind the contents of any file
+     */
+    private static final long LOCK_POSITION = Long.MAX_VALUE - 1;
+    
+    /**
+     * In-process locks, each guarding all files whose canonical path hashes to it
+     */
+    private final ReentrantLock[] stripes;
+    
+    /**
+     * Creates a new {@link FileLocks} instance
+     * @param stripeCount number of in-process locks, which will be rounded up to a power of two
+     */
+    FileLocks(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Returns the shared instance used by all {@link FileParser}s
+     * @return the default {@link FileLocks}
+     */
+    static FileLocks getDefault() {
+        return DEFAULT;
+    }
+    
+    /**
+     * Acquires exclusive access to the given file, blocking until all other modifications of the file within this JVM and within other processes
+     * have finished
+     * @param file to be locked
+     * @return the {@link Lease}, which has to be closed to release the file
+     * @throws IOException if the file could not be opened or locked
+     */
+    Lease acquire(Path file) throws IOException {
+        Path canonicalFile = toCanonicalPath(file);
+        ReentrantLock stripe = getStripe(canonicalFile);
+        stripe.lock();
+        try {
+            return new Lease(stripe, lockFile(canonicalFile));
+        } catch (IOException | RuntimeException e) {
+            stripe.unlock();
+            throw e;
+        }
+    }
+    
+    /**
+     * Returns the in-process lock guarding the given file
+     * @param canonicalFile canonical path of the file
+     * @return the lock stripe
+     */
+    ReentrantLock getStripe(Path canonicalFile) {
+        int hash = canonicalFile.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+    
+    /**
+     * Takes the OS level lock of the given file. If the file has been replaced while waiting for the lock, the lock is taken on the new file. Files
+     * which cannot be opened for writing are not locked, as they can still be replaced if their directory is writable.
+     * @param file to be locked
+     * @return the {@link FileLock} or <code>null</code> if the file does not exist or is not writable
+     * @throws IOException if the file could not be opened or locked
+     */
+    private static FileLock lockFile(Path file) throws IOException {
+        while (true) {
+            Object identity;
+            FileChannel channel;
+            try {
+                identity = identify(Files.readAttributes(file, BasicFileAttributes.class));
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (AccessDeniedException e) {
+                LOG.debug("Could not open {} for locking: {}", file, e.getMessage());
+                return null;
+            }
+            try {
+                FileLock lock = channel.lock(LOCK_POSITION, 1, false);
+                if (identity.equals(readIdentity(file))) return lock;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            channel.close();
+        }
+    }
+    
+    /**
+     * Reads the identity of the file currently located at the given path
+     * @param file path of the file
+     * @return the identity as returned by {@link #identify(BasicFileAttributes)} or <code>null</code> if the file does not exist
+     * @throws IOException if the attributes could not be read
+     */
+    private static Object readIdentity(Path file) throws IOException {
+        try {
+            return identify(Files.readAttributes(file, BasicFileAttributes.class));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Returns an object identifying a file by the given attributes, which differs for a file replacing it. This is the file key if the file system
+     * provides one, or the creation time, the modification time and the size of the file otherwise.
+     * @param attributes {@link BasicFileAttributes} of the file
+     * @return the identity of the file
+     */
+    static Object identify(BasicFileAttributes attributes) {
+        Object fileKey = attributes.fileKey();
+        if (fileKey != null) return fileKey;
+        return Arrays.asList(attributes.creationTime(), attributes.lastModifiedTime(), attributes.size());
+    }
+    
+    /**
+     * Returns the canonical path of the given file, resolving all symbolic links if the file exists
+     * @param file whose canonical path should be determined
+     * @return the canonical path
+     */
+    static Path toCanonicalPath(Path file) {
+        try {
+            return file.toRealPath();
+        } catch (IOException e) {
+            return file.toAbsolutePath().normalize();
+        }
+    }
+    
+    /**
+     * Exclusive access to one file, which is released on {@link #close()}
+     */
+    static class Lease implements Closeable {
+        
+        /**
+         * In-process lock held
+         */
+        private final ReentrantLock stripe;
+        /**
+         * OS level lock held or <code>null</code> if the file has not been locked
+         */
+        private final FileLock fileLock;
+        /**
+         * States whether the lease has been released
+         */
+        private boolean released;
+        
+        /**
+         * Creates a new {@link Lease} of the given locks, which are already held
+         * @param stripe in-process lock
+         * @param fileLock OS level lock or <code>null</code> if the file has not been locked
+         */
+        private Lease(ReentrantLock stripe, FileLock fileLock) {
+            this.stripe = stripe;
+            this.fileLock = fileLock;
+        }
+        
+        /**
+         * Checks that the lease is still held by the current thread, i.e. that the file may be modified
+         * @throws IllegalStateException if the lease has been released or is used by another thread
+         */
+        void assertHeld() {
+            if (released || !stripe.isHeldByCurrentThread()) throw new IllegalStateException("The lease is not held by the current thread");
+        }
+        
+        /**
+         * Releases both locks
+         */
+        @Override
+        public void close() throws IOException {
+            released = true;
+            try {
+                if (fileLock != null) {
+                    fileLock.channel().close();
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+}
@@ -7,45 +7,74 @@
  */
 package org.agilereview.fileparser;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.agilereview.common.parser.CommentTagBuilder;
-import org.agilereview.common.parser.CommentTagRegexBuilder;
-import org.agilereview.common.parser.ParserProperties;
-import org.apache.commons.io.FileUtils;
+import org.agilereview.common.parser.CommentTagScanner;
+import org.agilereview.common.parser.ParserConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Implementation of a file parser which adds AgileReview comment tags to a file
+ * Implementation of a file parser which adds AgileReview comment tags to a file. Unless a charset has been set explicitly, the charset of the file is
+ * detected by the {@link CharsetDetector} for each operation. Files in charsets, which encode non-ASCII characters with bytes of at least 0x80 only,
+ * are processed byte-wise by means of a {@link ByteTransparentCharset}, all other files (e.g. Shift_JIS or UTF-16) are decoded with their charset. In
+ * both cases all bytes which are not part of an inserted or removed tag as well as all line terminators are preserved. Modifications are recorded as
+ * {@link FilePatch}, such that unchanged regions of byte-wise processed files are copied on byte level when writing the file back.
  * @author Malte Brunnlieb (18.05.2014)
  */
-// TODO encoding problem. Try to discover the encoding of the target file
 public class FileParser {
     
     /**
      * Logger instance
      */
     private static Logger LOG = LoggerFactory.getLogger(FileParser.class);
+    /**
+     * {@link ParserMetrics} of all newly created {@link FileParser}s
+     */
+    private static volatile ParserMetrics defaultMetrics = ParserMetrics.NO_OP;
     /**
      * {@link File} to be adressed
      */
     private File file;
     /**
-     * Comment tags for multi line comments
+     * Tag matcher instance
+     */
+    private TagMatcher tagMatcher;
+    /**
+     * States whether {@link #addTags(String, int, int)} streams the file instead of loading it completely into memory
+     */
+    private boolean streaming;
+    /**
+     * {@link TagIndex} to be updated after each write or <code>null</code> if no index should be updated
+     */
+    private TagIndex tagIndex;
+    /**
+     * Charset of the file or <code>null</code> if the charset should be detected
      */
-    private String[] tags;
+    private Charset charset;
     /**
-     * Tag regex builder instance
+     * Language profile providing the tag builders and matchers
      */
-    private CommentTagRegexBuilder tagRegexBuilder;
+    private LanguageProfile profile;
+    /**
+     * Locks serializing all modifications of the file
+     */
+    private FileLocks locks = FileLocks.getDefault();
+    /**
+     * {@link ParserMetrics} all modifying operations are reported to
+     */
+    private ParserMetrics metrics = defaultMetrics;
     
     /**
      * TODO (MB) JavaDoc
@@ -54,9 +83,72 @@ public class FileParser {
      * @author Malte Brunnlieb (18.05.2014)
      */
     public FileParser(File file, String[] multiLineCommentTags) {
+        this(file, multiLineCommentTags, ParserConfiguration.getInstance());
+    }
+    
+    /**
+     * Creates a new {@link FileParser} building and matching tags according to the given configuration
+     * @param file to be parsed
+     * @param multiLineCommentTags multi-line comment start and end sign of the file
+     * @param configuration {@link ParserConfiguration} to be used
+     */
+    public FileParser(File file, String[] multiLineCommentTags, ParserConfiguration configuration) {
+        this(file, new LanguageProfile(multiLineCommentTags[0] + " " + multiLineCommentTags[1], multiLineCommentTags[0], multiLineCommentTags[1],
+                configuration));
+    }
+    
+    /**
+     * Creates a new {@link FileParser} reusing the tag builders and matchers of the given language profile
+     * @param file to be parsed
+     * @param profile {@link LanguageProfile} of the file
+     */
+    public FileParser(File file, LanguageProfile profile) {
         this.file = file;
-        this.tags = multiLineCommentTags;
-        tagRegexBuilder = new CommentTagRegexBuilder(tags[0], tags[1]);
+        this.profile = profile;
+        tagMatcher = new TagMatcher(profile);
+    }
+    
+    /**
+     * Enables or disables the streaming mode. In streaming mode {@link #addTags(String, int, int)} only reads the file up to the code comment
+     * region affected by the selection and only holds this region in memory, which is intended for very large files. The resulting file contents
+     * are the same in both modes.
+     * @param streaming <code>true</code> to enable streaming mode, <code>false</code> to load the whole file into memory (default)
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+    
+    /**
+     * Sets the {@link TagIndex} whose entry for the file is updated after each write operation
+     * @param tagIndex {@link TagIndex} to be updated or <code>null</code> if no index should be updated
+     */
+    public void setTagIndex(TagIndex tagIndex) {
+        this.tagIndex = tagIndex;
+    }
+    
+    /**
+     * Sets the {@link ParserMetrics} the statistics of all modifying operations of this parser are reported to
+     * @param metrics {@link ParserMetrics} to be used or {@link ParserMetrics#NO_OP} to disable the collection of statistics
+     */
+    public void setMetrics(ParserMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Sets the {@link ParserMetrics} of all {@link FileParser}s created afterwards, including those created by the {@link AsyncFileParser} and the
+     * {@link WorkspaceTagCleaner}. By default no statistics are collected.
+     * @param metrics {@link ParserMetrics} to be used or {@link ParserMetrics#NO_OP} to disable the collection of statistics
+     */
+    public static void setDefaultMetrics(ParserMetrics metrics) {
+        defaultMetrics = metrics;
+    }
+    
+    /**
+     * Sets the charset of the file, e.g. if it is known from the editor. By default the charset is detected from the file contents.
+     * @param charset {@link Charset} of the file or <code>null</code> if the charset should be detected
+     */
+    public void setCharset(Charset charset) {
+        this.charset = charset;
     }
     
     /**
@@ -69,29 +161,154 @@ public class FileParser {
      * @author Malte Brunnlieb (18.05.2014)
      */
     public void addTags(String tagId, int startLine, int endLine) throws IOException {
-        LOG.debug("Add tags for comment with tagId '{}' to start line {} / end line {}", tagId, startLine, endLine);
+        addTags(Collections.singletonList(new TagSelection(tagId, startLine, endLine)));
+    }
+    
+    /**
+     * Adds tags for all given selections to the document within one read/write cycle. All line numbers refer to the document before any of the
+     * selections has been applied. The selections are applied in the order of the given collection, whereby each selection is adapted as described
+     * in {@link #addTags(String, int, int)}.
+     * @param selections {@link TagSelection}s to be tagged
+     * @throws IOException if the file could not be read or written
+     */
+    public void addTags(Collection<TagSelection> selections) throws IOException {
+        if (selections.isEmpty()) return;
+        addTags(Collections.singletonList(selections), streaming);
+    }
+    
+    /**
+     * Adds tags for all given groups of selections to the document within one read/write cycle. The result is the same as if
+     * {@link #addTags(Collection)} had been called for each group one after another, i.e. the line numbers of each group refer to the document after
+     * all previous groups have been applied. The whole file is read regardless of the streaming mode.
+     * @param selectionGroups groups of {@link TagSelection}s to be tagged in order of their application
+     * @throws IOException if the file could not be read or written
+     */
+    void addTagsInSequence(List<? extends Collection<TagSelection>> selectionGroups) throws IOException {
+        addTags(selectionGroups, false);
+    }
+    
+    /**
+     * Adds tags for all given groups of selections to the document within one read/write cycle as described in {@link #addTagsInSequence(List)}
+     * @param selectionGroups groups of {@link TagSelection}s to be tagged in order of their application
+     * @param readSelectedLines states whether only the lines needed for the single group of selections should be read
+     * @throws IOException if the file could not be read or written
+     */
+    private void addTags(List<? extends Collection<TagSelection>> selectionGroups, boolean readSelectedLines) throws IOException {
+        try (FileLocks.Lease lease = locks.acquire(file.toPath());
+                OperationRecorder recorder = new OperationRecorder(ParserOperation.ADD_TAGS, tagMatcher, metrics)) {
+            Charset fileCharset = getFileCharset();
+            LineWindow lines = new LineWindow();
+            CommentRegionIndex index = newCommentRegionIndex();
+            FilePatch patch = new FilePatch();
+            try (LineReader reader = newReader(fileCharset, recorder)) {
+                if (readSelectedLines && selectionGroups.size() == 1) {
+                    readSelectedLines(reader, lines, index, patch, selectionGroups.get(0));
+                } else {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lines.addLine(line, reader.getTerminator());
+                        indexLine(index, line);
+                    }
+                }
+                recorder.linesScanned(reader);
+            }
+            for (int i = 0; i < selectionGroups.size(); i++) {
+                if (i > 0) {
+                    index.rebase();
+                }
+                insertTags(lines, index, toFileRepresentation(selectionGroups.get(i), fileCharset), recorder);
+            }
+            lines.flush(lines.size(), patch);
+            
+            LOG.debug("Write file back.");
+            writePatch(patch, fileCharset, lease, recorder);
+            recorder.completed();
+        }
+    }
+    
+    /**
+     * Reads only the lines needed to add tags for all given selections. Only the lines between the last code comment opened before the first
+     * selected line and the end of the code comment surrounding the last selected line are retained in the given window, all lines in front are
+     * flushed while reading. The file is not read any further, as all following lines stay unchanged.
+     * @param reader providing the lines of the file
+     * @param window {@link LineWindow} the lines are added to
+     * @param index {@link CommentRegionIndex} of the read lines
+     * @param patch {@link FilePatch} the flushed lines are recorded in
+     * @param selections {@link TagSelection}s to be tagged
+     * @throws IOException if the file could not be read
+     */
+    private void readSelectedLines(LineReader reader, LineWindow window, CommentRegionIndex index, FilePatch patch,
+            Collection<TagSelection> selections) throws IOException {
+        int startLine = Integer.MAX_VALUE;
+        int endLine = -1;
+        for (TagSelection selection : selections) {
+            startLine = Math.min(startLine, selection.getStartLine() - 1);
+            endLine = Math.max(endLine, selection.getEndLine() - 1);
+        }
         
-        startLine--;
-        endLine--;
+        boolean eof = false;
+        String line;
+        // skip the prefix and only retain the lines of a code comment, which has not been closed yet
+        while (window.size() < startLine && !(eof = (line = reader.readLine()) == null)) {
+            int lineNr = window.size();
+            window.addLine(line, reader.getTerminator());
+            indexLine(index, line);
+            window.flush(index.hasOpenRegion() ? index.getLastStartLine() - 1 : lineNr, patch);
+        }
         
-        CommentTagBuilder tagBuilder = new CommentTagBuilder(tags[0], tags[1]);
+        // read the selection and the lookahead needed to close all code comments reaching into it
+        while (!eof && (window.size() <= endLine + 1 || index.hasOpenRegion())) {
+            if (!(eof = (line = reader.readLine()) == null)) {
+                window.addLine(line, reader.getTerminator());
+                indexLine(index, line);
+            }
+        }
+        // the line following the end of a code comment might be inspected as well
+        if (!eof && (line = reader.readLine()) != null) {
+            window.addLine(line, reader.getTerminator());
+            indexLine(index, line);
+        }
+    }
+    
+    /**
+     * Adds tags for all given selections to the given lines. The line numbers of the selections refer to the lines before the first selection has
+     * been applied and are shifted by the number of lines inserted so far.
+     * @param lines of the document
+     * @param index {@link CommentRegionIndex} of the given lines
+     * @param selections {@link TagSelection}s to be tagged
+     * @param recorder {@link OperationRecorder} of the current operation
+     */
+    void insertTags(List<String> lines, CommentRegionIndex index, Collection<TagSelection> selections, OperationRecorder recorder) {
+        for (TagSelection selection : selections) {
+            LOG.debug("Add tags for comment with tagId '{}' to start line {} / end line {}", selection.getTagId(), selection.getStartLine(),
+                    selection.getEndLine());
+            insertTags(lines, index, selection.getTagId(), index.toCurrentLine(selection.getStartLine() - 1),
+                    index.toCurrentLine(selection.getEndLine() - 1), recorder);
+        }
+    }
+    
+    /**
+     * Adds tags with the given tag id to the given lines from line selStartLine to selEndLine. If there are conflicts with comments in the start line
+     * or end line, the comment will be expanded to the next greater valid region.
+     * @param lines of the document
+     * @param index {@link CommentRegionIndex} of the given lines
+     * @param tagId tag id to be inserted
+     * @param startLine zero based start line of the comment
+     * @param endLine zero based end line of the comment
+     * @param recorder {@link OperationRecorder} of the current operation
+     * @author Malte Brunnlieb (18.05.2014)
+     */
+    private void insertTags(List<String> lines, CommentRegionIndex index, String tagId, int startLine, int endLine, OperationRecorder recorder) {
+        CommentTagBuilder tagBuilder = profile.newTagBuilder();
         
         boolean startLineInserted = false, endLineInserted = false;
         int origSelStartLine = startLine;
         boolean[] significantlyChanged = new boolean[] { false, false };
         
-        // TODO maybe better work on a stream than loading the whole file in memory
-        //        LineIterator it = FileUtils.lineIterator(testResource);
-        //        new ArrayDeque<>(5);
-        //        while(it.hasNext()) {
-        //            String line = it.nextLine();
-        //            
-        //        }
-        List<String> lines = FileUtils.readLines(file);
-        
         // check if selection needs to be adapted
-        int[] newLines = computeSelectionAdapations(lines, startLine, endLine);
-        if (newLines[0] != -1 || newLines[1] != -1) {
+        int[] newLines = computeSelectionAdapations(index, startLine, endLine);
+        boolean adapted = newLines[0] != -1 || newLines[1] != -1;
+        if (adapted) {
             LOG.debug("Comment starts and/or ends within a source comment -> adapt lines to start line {} / end line {}", newLines[0] + 1,
                     newLines[1] + 1);
             // adapt starting line if necessary
@@ -99,7 +316,7 @@ public class FileParser {
                 //                 insert new line if code is in front of javadoc / multi line comments
                 String line = lines.get(newLines[0]);
                 if (!line.trim().isEmpty()) {
-                    lines.add(newLines[0] + 1, "");
+                    insertEmptyLine(lines, index, newLines[0] + 1);
                     startLine = newLines[0] + 1;
                     startLineInserted = true;
                 } else {
@@ -123,9 +340,9 @@ public class FileParser {
         }
         
         // add new line if start line is last line of javaDoc
-        int[] adaptionLines = checkForCodeComment(lines, startLine);
+        int[] adaptionLines = checkForCodeComment(index, startLine);
         if (adaptionLines[0] != -1 && !lines.get(adaptionLines[0]).trim().isEmpty()) {
-            lines.add(startLine + 1, "");
+            insertEmptyLine(lines, index, startLine + 1);
             startLine++;
             endLine++;
             startLineInserted = true;
@@ -133,17 +350,21 @@ public class FileParser {
         }
         
         // add new line if end line is last line of javaDoc
-        adaptionLines = checkForCodeComment(lines, endLine);
+        adaptionLines = checkForCodeComment(index, endLine);
         if (adaptionLines[1] != -1 && lineContains(lines.get(adaptionLines[1]), "/**")) {
             String line = lines.get(endLine + 1);
             if (!line.trim().isEmpty()) {
-                lines.add(endLine + 1, "");
+                insertEmptyLine(lines, index, endLine + 1);
                 endLine++;
                 endLineInserted = true;
                 significantlyChanged[1] = true;
             }
         }
         
+        if (adapted || startLineInserted || endLineInserted) {
+            recorder.selectionAdapted();
+        }
+        
         if (startLine == endLine) {
             LOG.debug("Comment is single-line comment.");
             // Only one line is selected
@@ -154,9 +375,7 @@ public class FileParser {
             } else {
                 tagBuilder.cleanupLineWithCommentRemoval(false);
             }
-            String line = lines.remove(startLine);
-            line += tagBuilder.buildTag(tagId);
-            lines.add(startLine, line);
+            lines.set(startLine, lines.get(startLine) + tagBuilder.buildTag(tagId));
         } else {
             LOG.debug("Comment is multi-line comment.");
             // Write tags -> get tags for current file-ending, insert second tag, insert first tag
@@ -166,9 +385,7 @@ public class FileParser {
             } else {
                 tagBuilder.cleanupLineWithCommentRemoval(false);
             }
-            String line = lines.remove(endLine);
-            line += tagBuilder.buildTag(tagId);
-            lines.add(endLine, line);
+            lines.set(endLine, lines.get(endLine) + tagBuilder.buildTag(tagId));
             
             tagBuilder.isMultilineStartTag();
             if (startLineInserted) {
@@ -176,64 +393,35 @@ public class FileParser {
             } else {
                 tagBuilder.cleanupLineWithCommentRemoval(false);
             }
-            line = lines.remove(startLine);
-            line += tagBuilder.buildTag(tagId);
-            lines.add(startLine, line);
+            lines.set(startLine, lines.get(startLine) + tagBuilder.buildTag(tagId));
         }
-        
-        LOG.debug("Write file back.");
-        FileUtils.writeLines(file, lines);
-        
-        //        parseInput();
-        
-        // ##########################################################
-        
-        //        try (FileReader fileReader = new FileReader(file); BufferedReader reader = new BufferedReader(new FileReader(file));) {
-        //            StringBuilder contents = new StringBuilder();
-        //            boolean isMultiLineComment = (startLine != endLine);
-        //            Matcher matcher;
-        //            
-        //            String line;
-        //            int lineNr = 0;
-        //            while ((line = reader.readLine()) != null) {
-        //                lineNr++;
-        //                matcher = tagPattern.matcher(line);
-        //                if (lineNr == startLine) {
-        //                    if (isMultiLineComment) {
-        //                        tagBuilder.isMultilineStartTag().
-        //                    } else {
-        //                        
-        //                    }
-        //                }
-        //                if (lineNr != 0) {
-        //                    contents.append(newline);
-        //                }
-        //                contents.append(line);
-        //            }
-        //            
-        //            // write the new String with the replaced line OVER the same file
-        //            FileOutputStream output = new FileOutputStream(file);
-        //            output.write(contents.toString().getBytes());
-        //            output.close();
-        //        } catch (Exception e) {
-        //            // TODO: handle exception
-        //        }
+    }
+    
+    /**
+     * Inserts an empty line at the given position and reports it to the {@link CommentRegionIndex}
+     * @param lines of the document
+     * @param index {@link CommentRegionIndex} of the given lines
+     * @param line line number of the line to be inserted
+     */
+    private void insertEmptyLine(List<String> lines, CommentRegionIndex index, int line) {
+        lines.add(line, "");
+        index.lineInserted(line);
     }
     
     /**
      * Checks whether adding an AgileReview comment at the current selection would destroy a code comment and computes adapted line numbers to avoid
      * destruction of code comments.
-     * @param lines of the document
+     * @param index {@link CommentRegionIndex} of the document
      * @param startLine the current startLine of the selection
      * @param endLine the current endLine of the selection
      * @return and array containing the new start (position 0) and endline (position 1). If not nothing is to be changed the content is -1 at position
      *         0/1.
      * @author Malte Brunnlieb (19.05.2014)
      */
-    private int[] computeSelectionAdapations(List<String> lines, int startLine, int endLine) {
+    private int[] computeSelectionAdapations(CommentRegionIndex index, int startLine, int endLine) {
         int[] result = { -1, -1 };
-        int[] startLineAdaptions = checkForCodeComment(lines, startLine);
-        int[] endLineAdaptions = checkForCodeComment(lines, endLine);
+        int[] startLineAdaptions = checkForCodeComment(index, startLine);
+        int[] endLineAdaptions = checkForCodeComment(index, endLine);
         
         // check if inserting a AgileReview comment at selected code region destroys a code comment
         if (startLineAdaptions[0] != -1 && startLineAdaptions[1] != -1 && startLineAdaptions[0] != startLine) {
@@ -248,32 +436,14 @@ public class FileParser {
     
     /**
      * Checks whether the given line is within a code comment. If this holds the code comments start and endline is returned, else {-1, -1}.
-     * @param lines of the document
+     * @param index {@link CommentRegionIndex} of the document
      * @param line the line to check
      * @return [-1, -1] if line is not within a code comment, else [startline, endline] of the code comment
      */
-    private int[] checkForCodeComment(List<String> lines, int line) {
-        // TODO: optimize the search for tags
-        
-        int openTagLine = -1;
-        int closeTagLine = -1;
-        
-        // check for opening non-AgileReview comment tags before the line
-        for (int i = 0; i <= line; i++) {
-            if (lineContains(lines.get(i), tags[0])) {
-                openTagLine = i;
-            }
-        }
-        
-        // check for according closing non-AgileReview comment tag
-        if (openTagLine > -1) {
-            for (int i = openTagLine; i < lines.size(); i++) {
-                if (lineContains(lines.get(i), tags[1])) {
-                    closeTagLine = i;
-                    break;
-                }
-            }
-        }
+    private int[] checkForCodeComment(CommentRegionIndex index, int line) {
+        int[] region = index.findRegion(line);
+        int openTagLine = region[0];
+        int closeTagLine = region[1];
         
         // finally return the results if a comment was found
         int[] result = { -1, -1 };
@@ -287,6 +457,25 @@ public class FileParser {
         return result;
     }
     
+    /**
+     * Creates a new empty {@link CommentRegionIndex}, which detects the comment regions by the {@link CommentSyntax} of the language. Each index
+     * has its own {@link CommentLexer} and has to be built from the first line of the document on.
+     * @return the new {@link CommentRegionIndex}
+     */
+    CommentRegionIndex newCommentRegionIndex() {
+        return new CommentRegionIndex(profile.newCommentLexer());
+    }
+    
+    /**
+     * Reports the given line to the {@link CommentRegionIndex}. All AgileReview related comment tags are ignored, as well as comment signs within
+     * string literals and line comments.
+     * @param index {@link CommentRegionIndex} to be built
+     * @param line next line of the document
+     */
+    void indexLine(CommentRegionIndex index, String line) {
+        index.addLine(tagMatcher.removeTags(line));
+    }
+    
     /**
      * Checks whether the line identified by the lineNumber contains the given string. This function erases all AgileReview related comment tags
      * before searching for the given string.
@@ -296,8 +485,7 @@ public class FileParser {
      * @author Malte Brunnlieb (08.09.2012)
      */
     private boolean lineContains(String line, String string) {
-        line = line.replaceAll(tagRegexBuilder.buildTagRegex(), "");
-        return line.contains(string);
+        return tagMatcher.removeTags(line).contains(string);
     }
     
     /**
@@ -307,48 +495,414 @@ public class FileParser {
      * @author Malte Brunnlieb (18.05.2014)
      */
     public void removeTags(String tagId) throws IOException {
-        removeTags(Pattern.compile(tagRegexBuilder.buildTagRegex(tagId, false)), 0);
+        removeTags(Collections.singleton(tagId));
+    }
+    
+    /**
+     * Removes all tags with one of the given tag ids from the file within one read/write cycle.
+     * @param tagIds to be removed
+     * @throws IOException if the file could not be read or written
+     */
+    public void removeTags(Collection<String> tagIds) throws IOException {
+        if (tagIds.isEmpty()) return;
+        removeMatchingTags(tagIds);
     }
     
     /**
-     * Clears all tags in the file from comment tags
+     * Clears all tags in the file from comment tags. A file without tags is left untouched.
      * @throws IOException if the file could not be read or written
      * @author Malte Brunnlieb (18.05.2014)
      */
     public void clearAllTags() throws IOException {
-        removeTags(Pattern.compile(tagRegexBuilder.buildTagRegex()), 1);
+        removeMatchingTags(null);
     }
     
     /**
-     * Removes all tags matching the given tag pattern
-     * @param tagPattern tags to be removed
-     * @param groupIncrement value to increment the group value for retrieving the line removal marker
+     * Moves the tags with the given tag id to a new selection within one read/write cycle. The old start and end tags are removed as described in
+     * {@link #removeTags(String)}, including lines which only contained a tag marked for cleanup, and new tags are added as described in
+     * {@link #addTags(String, int, int)}. The given line numbers refer to the file before the old tags have been removed and are corrected by the
+     * number of removed lines in front of them. A removed start line is replaced by its following line, a removed end line by its preceding line.
+     * The whole file is read regardless of the streaming mode, as the old tags might be located anywhere within the file.
+     * @param tagId tag id of the tags to be moved
+     * @param startLine new start line of the comment
+     * @param endLine new end line of the comment
      * @throws IOException if the file could not be read or written
-     * @author Malte Brunnlieb (25.05.2014)
      */
-    private void removeTags(Pattern tagPattern, int groupIncrement) throws IOException {
-        String removalCharacter = ParserProperties.newInstance().getProperty(ParserProperties.LINE_REMOVAL_MARKER_SIGN);
-        Matcher matcher;
+    public void moveTags(String tagId, int startLine, int endLine) throws IOException {
+        try (FileLocks.Lease lease = locks.acquire(file.toPath());
+                OperationRecorder recorder = new OperationRecorder(ParserOperation.MOVE_TAGS, tagMatcher, metrics)) {
+            Charset fileCharset = getFileCharset();
+            String fileTagId = toFileRepresentation(tagId, fileCharset);
+            CommentTagScanner scanner = profile.newTagScanner();
+            scanner.setTagIds(Collections.singletonList(fileTagId));
+            LineWindow lines = new LineWindow();
+            CommentRegionIndex index = newCommentRegionIndex();
+            FilePatch patch = new FilePatch();
+            int newStartLine = -1, newEndLine = -1;
+            int lineNr = 0;
+            try (LineReader reader = newReader(fileCharset, recorder)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNr++;
+                    if (lineNr == startLine) {
+                        newStartLine = lines.size() + 1;
+                    }
+                    addLineWithoutTags(lines, index, scanner, line, reader.getTerminator(), recorder);
+                    if (lineNr == endLine) {
+                        newEndLine = lines.size();
+                    }
+                }
+                recorder.linesScanned(reader);
+            }
+            // selections behind the end of the file are rejected by insertTags
+            int removedLines = lineNr - lines.size();
+            if (newStartLine == -1) {
+                newStartLine = startLine - removedLines;
+            }
+            if (newEndLine == -1) {
+                newEndLine = endLine - removedLines;
+            }
+            LOG.debug("Move tags with tagId '{}' to start line {} / end line {}", tagId, newStartLine, newEndLine);
+            insertTags(lines, index, Collections.singletonList(new TagSelection(fileTagId, newStartLine, Math.max(newStartLine, newEndLine))),
+                    recorder);
+            lines.flush(lines.size(), patch);
+            
+            writePatch(patch, fileCharset, lease, recorder);
+            recorder.completed();
+        }
+    }
+    
+    /**
+     * Adds the given line to the window after removing all tags found by the given scanner. If the first removed tag is marked for cleanup and the
+     * line is empty afterwards, the line is removed from the document instead.
+     * @param lines {@link LineWindow} the line is added to
+     * @param index {@link CommentRegionIndex} of the window
+     * @param scanner {@link CommentTagScanner} for the tags to be removed
+     * @param line contents of the line
+     * @param terminator line terminator of the line
+     * @param recorder {@link OperationRecorder} of the current operation
+     */
+    private void addLineWithoutTags(LineWindow lines, CommentRegionIndex index, CommentTagScanner scanner, String line, String terminator,
+            OperationRecorder recorder) {
+        String cleanedLine = line;
+        if (tagMatcher.mightContainTag(line)) {
+            recorder.regexEvaluated();
+            if (scanner.reset(line).find()) {
+                boolean cleanup = scanner.isCleanupTag();
+                cleanedLine = TagMatcher.removeFoundTags(scanner, line);
+                if (cleanup && cleanedLine.trim().isEmpty()) {
+                    LOG.debug("Tag is marked such that the line should be removed if empty -> line removed");
+                    lines.skipLine(line, terminator);
+                    return;
+                }
+            }
+        }
+        lines.addLine(line, terminator);
+        if (!cleanedLine.equals(line)) {
+            lines.set(lines.size() - 1, cleanedLine);
+        }
+        indexLine(index, cleanedLine);
+    }
+    
+    /**
+     * Lists all comment tags of the file in the order of their occurrence. The file is read once and will not be modified.
+     * @return the {@link TagOccurrence}s of all tags in the file
+     * @throws IOException if the file could not be read
+     */
+    public List<TagOccurrence> listTags() throws IOException {
+        Charset fileCharset = getFileCharset();
+        try (LineReader reader = newReader(fileCharset, new OperationRecorder())) {
+            return listTags(reader, fileCharset);
+        }
+    }
+    
+    /**
+     * Lists all comment tags of the given file contents in the order of their occurrence
+     * @param contents of the file
+     * @return the {@link TagOccurrence}s of all tags
+     * @throws IOException if the contents could not be read
+     */
+    List<TagOccurrence> listTags(byte[] contents) throws IOException {
+        Charset fileCharset = toProcessingCharset(charset != null ? charset : CharsetDetector.detect(contents, contents.length));
+        try (LineReader reader = new LineReader(new InputStreamReader(new ByteArrayInputStream(contents), fileCharset))) {
+            return listTags(reader, fileCharset);
+        }
+    }
+    
+    /**
+     * Lists all comment tags of the lines read from the given reader in the order of their occurrence
+     * @param reader providing the file contents
+     * @param fileCharset {@link Charset} the contents have been decoded with
+     * @return the {@link TagOccurrence}s of all tags
+     * @throws IOException if the contents could not be read
+     */
+    private List<TagOccurrence> listTags(LineReader reader, Charset fileCharset) throws IOException {
+        List<TagOccurrence> occurrences = new ArrayList<TagOccurrence>();
+        CommentTagScanner scanner = profile.newTagScanner();
         String line;
-        List<String> lines = new LinkedList<String>();
-        try (FileReader fileReader = new FileReader(file); BufferedReader reader = new BufferedReader(new FileReader(file));) {
-            while ((line = reader.readLine()) != null) {
-                matcher = tagPattern.matcher(line);
-                boolean removeLine = false;
-                if (matcher.find()) {
-                    if (removalCharacter.equals(matcher.group(3 + groupIncrement))) {
-                        LOG.debug("Tag is marked such that the line should be removed if empty");
-                        String newLine = matcher.replaceAll("");
-                        if (newLine.trim().isEmpty()) {
-                            removeLine = true;
-                            LOG.debug("Line removed");
-                        }
+        int lineNr = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNr++;
+            if (!tagMatcher.mightContainTag(line)) continue;
+            scanner.reset(line);
+            while (scanner.find()) {
+                String tagId = line.substring(scanner.tagIdStart(), scanner.tagIdEnd());
+                if (fileCharset instanceof ByteTransparentCharset) {
+                    tagId = ((ByteTransparentCharset) fileCharset).toUnicode(tagId);
+                }
+                occurrences.add(new TagOccurrence(tagId, lineNr, toColumn(line, scanner.start(), fileCharset), TagOccurrence.Kind.of(
+                        scanner.isStartTag(), scanner.isEndTag()), scanner.isCleanupTag()));
+            }
+        }
+        return occurrences;
+    }
+    
+    /**
+     * Returns the column of the given index of a line as reported by {@link TagOccurrence#getColumn()}
+     * @param line contents of the line
+     * @param index within the line
+     * @param fileCharset {@link Charset} the line has been decoded with
+     * @return the column in characters of the original contents
+     */
+    private static int toColumn(String line, int index, Charset fileCharset) {
+        if (fileCharset instanceof ByteTransparentCharset) {
+            return ((ByteTransparentCharset) fileCharset).toUnicode(line.substring(0, index)).length();
+        }
+        return index;
+    }
+    
+    /**
+     * Checks the comment tags of the file for consistency. The file is read once and will not be modified. Each end tag is matched with the last
+     * open start tag of its tag id, such that start and end tags without counterpart, unmarked tags and comments reusing the tag id of a previous
+     * comment are reported.
+     * @return the {@link TagInconsistency}s in the order of their tags, which is empty for a consistent file
+     * @throws IOException if the file could not be read
+     */
+    public List<TagInconsistency> checkTags() throws IOException {
+        return TagConsistencyChecker.check(listTags());
+    }
+    
+    /**
+     * Checks the comment tags of the file for consistency as described in {@link #checkTags()} and removes all
+     * {@link TagInconsistency#isDangling() dangling} tags with a single rewrite. Lines which only contained a removed tag marked for cleanup are
+     * removed as well. Duplicates are left untouched. If the file does not contain any dangling tag, it is left untouched.
+     * @return the {@link TagInconsistency}s found before the repair
+     * @throws IOException if the file could not be read or written
+     */
+    public List<TagInconsistency> repairTags() throws IOException {
+        try (FileLocks.Lease lease = locks.acquire(file.toPath());
+                OperationRecorder recorder = new OperationRecorder(ParserOperation.REPAIR_TAGS, tagMatcher, metrics)) {
+            Charset fileCharset = getFileCharset();
+            List<TagInconsistency> inconsistencies;
+            try (LineReader reader = newReader(fileCharset, recorder)) {
+                inconsistencies = TagConsistencyChecker.check(listTags(reader, fileCharset));
+                recorder.linesScanned(reader);
+            }
+            List<TagOccurrence> danglingTags = new ArrayList<TagOccurrence>();
+            for (TagInconsistency inconsistency : inconsistencies) {
+                if (inconsistency.isDangling()) {
+                    danglingTags.add(inconsistency.getTag());
+                }
+            }
+            if (danglingTags.isEmpty()) {
+                recorder.rewriteSkipped();
+                recorder.completed();
+                return inconsistencies;
+            }
+            
+            FilePatch patch = new FilePatch();
+            try (LineReader reader = newReader(fileCharset, recorder)) {
+                removeTagOccurrences(reader, fileCharset, danglingTags, patch, recorder);
+                recorder.linesScanned(reader);
+            }
+            LOG.debug("Remove {} dangling tags from {}", danglingTags.size(), file);
+            writePatch(patch, fileCharset, lease, recorder);
+            recorder.completed();
+            return inconsistencies;
+        }
+    }
+    
+    /**
+     * Records the removal of the given tags in the patch. A tag is identified by its line and column, such that tags of the same tag id, which are not
+     * contained in the given list, are kept. If a removed tag is marked for cleanup and its line is empty afterwards, the line is removed instead.
+     * The reader is only read up to the line of the last tag.
+     * @param reader providing the file contents
+     * @param fileCharset {@link Charset} the contents have been decoded with
+     * @param tags {@link TagOccurrence}s to be removed in the order of their occurrence
+     * @param patch {@link FilePatch} the removals are recorded in
+     * @param recorder {@link OperationRecorder} of the current operation
+     * @throws IOException if the contents could not be read
+     */
+    private void removeTagOccurrences(LineReader reader, Charset fileCharset, List<TagOccurrence> tags, FilePatch patch, OperationRecorder recorder)
+            throws IOException {
+        CommentTagScanner scanner = profile.newTagScanner();
+        Iterator<TagOccurrence> remaining = tags.iterator();
+        TagOccurrence next = remaining.hasNext() ? remaining.next() : null;
+        long lineStart = 0;
+        int lineNr = 0;
+        String line;
+        for (; next != null && (line = reader.readLine()) != null; lineStart += line.length() + reader.getTerminator().length()) {
+            lineNr++;
+            if (lineNr < next.getLine()) continue;
+            recorder.regexEvaluated();
+            StringBuilder cleanedLine = new StringBuilder(line.length());
+            List<int[]> removals = new ArrayList<int[]>();
+            boolean cleanup = false;
+            int copied = 0;
+            scanner.reset(line);
+            while (next != null && next.getLine() == lineNr && scanner.find()) {
+                if (toColumn(line, scanner.start(), fileCharset) != next.getColumn()) continue;
+                cleanedLine.append(line, copied, scanner.start());
+                copied = scanner.end();
+                removals.add(new int[] { scanner.start(), scanner.end() });
+                cleanup |= next.isCleanup();
+                next = remaining.hasNext() ? remaining.next() : null;
+            }
+            // tags, which could not be located anymore, are skipped
+            while (next != null && next.getLine() == lineNr) {
+                next = remaining.hasNext() ? remaining.next() : null;
+            }
+            cleanedLine.append(line, copied, line.length());
+            
+            if (cleanup && cleanedLine.toString().trim().isEmpty()) {
+                LOG.debug("Tag is marked such that the line should be removed if empty -> line removed");
+                patch.replace(lineStart, line.length() + reader.getTerminator().length(), "");
+                continue;
+            }
+            for (int[] removal : removals) {
+                patch.replace(lineStart + removal[0], removal[1] - removal[0], "");
+            }
+        }
+    }
+    
+    /**
+     * Removes all tags with one of the given tag ids. If the file does not contain any of these tags, it is left untouched.
+     * @param tagIds to be removed or <code>null</code> if all tags should be removed
+     * @return <code>true</code> if the file has been rewritten,<br> <code>false</code> if no tag has been found
+     * @throws IOException if the file could not be read or written
+     * @author Malte Brunnlieb (25.05.2014)
+     */
+    boolean removeMatchingTags(Collection<String> tagIds) throws IOException {
+        try (FileLocks.Lease lease = locks.acquire(file.toPath());
+                OperationRecorder recorder = new OperationRecorder(tagIds != null ? ParserOperation.REMOVE_TAGS : ParserOperation.CLEAR_ALL_TAGS,
+                        tagMatcher, metrics)) {
+            Charset fileCharset = getFileCharset();
+            CommentTagScanner scanner = profile.newTagScanner();
+            if (tagIds != null) {
+                List<String> fileTagIds = new ArrayList<String>(tagIds.size());
+                for (String tagId : tagIds) {
+                    fileTagIds.add(toFileRepresentation(tagId, fileCharset));
+                }
+                scanner.setTagIds(fileTagIds);
+            }
+            
+            FilePatch patch = new FilePatch();
+            long lineStart = 0;
+            String line;
+            try (LineReader reader = newReader(fileCharset, recorder)) {
+                for (; (line = reader.readLine()) != null; lineStart += line.length() + reader.getTerminator().length()) {
+                    if (!tagMatcher.mightContainTag(line)) continue;
+                    recorder.regexEvaluated();
+                    if (!scanner.reset(line).find()) continue;
+                    if (scanner.isCleanupTag() && TagMatcher.removeFoundTags(scanner, line).trim().isEmpty()) {
+                        LOG.debug("Tag is marked such that the line should be removed if empty -> line removed");
+                        patch.replace(lineStart, line.length() + reader.getTerminator().length(), "");
+                        continue;
+                    }
+                    scanner.reset(line);
+                    while (scanner.find()) {
+                        patch.replace(lineStart + scanner.start(), scanner.end() - scanner.start(), "");
                     }
                 }
-                if (!removeLine) lines.add(matcher.replaceAll(""));
+                recorder.linesScanned(reader);
+            }
+            if (patch.isEmpty()) {
+                recorder.rewriteSkipped();
+                recorder.completed();
+                return false;
             }
+            writePatch(patch, fileCharset, lease, recorder);
+            recorder.completed();
+            return true;
+        }
+    }
+    
+    /**
+     * Applies the given patch to the file and updates the {@link TagIndex}, if any
+     * @param patch {@link FilePatch} to be applied
+     * @param fileCharset {@link Charset} used for processing the file
+     * @param lease {@link FileLocks.Lease} of the file, which has to be held by the current thread
+     * @param recorder {@link OperationRecorder} of the current operation
+     * @throws IOException if the file could not be written
+     */
+    private void writePatch(FilePatch patch, Charset fileCharset, FileLocks.Lease lease, OperationRecorder recorder) throws IOException {
+        lease.assertHeld();
+        recorder.rewritten(patch.apply(file.toPath(), fileCharset));
+        updateTagIndex();
+    }
+    
+    /**
+     * Updates the entry of the file in the {@link TagIndex}, if any
+     * @throws IOException if the file could not be read
+     */
+    private void updateTagIndex() throws IOException {
+        if (tagIndex != null) {
+            tagIndex.refresh(file.toPath(), profile, true);
+        }
+    }
+    
+    /**
+     * Returns the charset used for reading and writing the file, which is based on the explicitly set or detected charset of the file
+     * @return the {@link Charset} for processing the file
+     * @throws IOException if the file could not be read
+     */
+    private Charset getFileCharset() throws IOException {
+        return toProcessingCharset(charset != null ? charset : CharsetDetector.detect(file.toPath()));
+    }
+    
+    /**
+     * Returns the charset for processing contents of the given charset. Byte transparent charsets as checked by
+     * {@link CharsetDetector#isByteTransparent(Charset)} are processed byte-wise.
+     * @param contentCharset {@link Charset} of the contents
+     * @return a {@link ByteTransparentCharset} for byte transparent charsets or the given charset otherwise
+     */
+    private static Charset toProcessingCharset(Charset contentCharset) {
+        return CharsetDetector.isByteTransparent(contentCharset) ? new ByteTransparentCharset(contentCharset) : contentCharset;
+    }
+    
+    /**
+     * Converts the tag ids of the given selections into the representation of the given processing charset
+     * @param selections {@link TagSelection}s to be converted
+     * @param fileCharset {@link Charset} used for processing the file
+     * @return the converted {@link TagSelection}s
+     */
+    private static Collection<TagSelection> toFileRepresentation(Collection<TagSelection> selections, Charset fileCharset) {
+        if (!(fileCharset instanceof ByteTransparentCharset)) return selections;
+        List<TagSelection> converted = new ArrayList<TagSelection>(selections.size());
+        for (TagSelection selection : selections) {
+            converted.add(new TagSelection(toFileRepresentation(selection.getTagId(), fileCharset), selection.getStartLine(), selection.getEndLine()));
         }
-        FileUtils.writeLines(file, lines);
+        return converted;
     }
     
+    /**
+     * Converts the given tag id into the representation of the given processing charset
+     * @param tagId to be converted
+     * @param fileCharset {@link Charset} used for processing the file
+     * @return the converted tag id
+     */
+    private static String toFileRepresentation(String tagId, Charset fileCharset) {
+        return fileCharset instanceof ByteTransparentCharset ? ((ByteTransparentCharset) fileCharset).fromUnicode(tagId) : tagId;
+    }
+    
+    /**
+     * Opens a new reader for the file
+     * @param fileCharset {@link Charset} used for processing the file
+     * @param recorder {@link OperationRecorder} counting the bytes read
+     * @return a new {@link LineReader} for the file
+     * @throws IOException if the file could not be opened
+     */
+    private LineReader newReader(Charset fileCharset, OperationRecorder recorder) throws IOException {
+        return new LineReader(new InputStreamReader(recorder.countInput(Files.newInputStream(file.toPath())), fileCharset));
+    }
 }
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Modifications of a file given as replacements of character ranges of the decoded file contents. On {@link #apply(Path, Charset)} only the
+ * replacements are encoded, whereas all ranges in between are copied from the original file. For a {@link ByteTransparentCharset} each character
+ * corresponds to exactly one byte, such that the unchanged ranges are transferred on byte level by
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} without being decoded at all.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class FilePatch {
+    
+    /**
+     * Start offset of each replaced range
+     */
+    private long[] offsets = new long[16];
+    /**
+     * Length of each replaced range
+     */
+    private long[] lengths = new long[16];
+    /**
+     * Replacement of each range
+     */
+    private final List<String> replacements = new ArrayList<String>();
+    
+    /**
+     * Replaces the given range of the original contents. Ranges have to be added in ascending order and must not overlap. A range starting at the
+     * end of the previous range is merged into it.
+     * @param offset start offset of the range within the original contents
+     * @param length length of the range
+     * @param replacement contents replacing the range
+     * @throws IllegalArgumentException if the range starts in front of the end of the previous range
+     */
+    void replace(long offset, long length, String replacement) {
+        int last = replacements.size() - 1;
+        long lastEnd = last < 0 ? 0 : offsets[last] + lengths[last];
+        if (offset < lastEnd) {
+            throw new IllegalArgumentException("Range at offset " + offset + " overlaps the previous range ending at " + lastEnd);
+        }
+        if (last >= 0 && offset == lastEnd) {
+            lengths[last] += length;
+            replacements.set(last, replacements.get(last) + replacement);
+            return;
+        }
+        if (length == 0 && replacement.isEmpty()) return;
+        if (replacements.size() == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            lengths = Arrays.copyOf(lengths, lengths.length * 2);
+        }
+        offsets[replacements.size()] = offset;
+        lengths[replacements.size()] = length;
+        replacements.add(replacement);
+    }
+    
+    /**
+     * Replaces the given original line by its new contents. Only the range between the common prefix and the common suffix of both lines is
+     * replaced.
+     * @param start offset of the line within the original contents
+     * @param original contents of the original line without line terminator
+     * @param line new contents of the line without line terminator
+     */
+    void replaceLine(long start, String original, String line) {
+        if (original.equals(line)) return;
+        int prefix = 0;
+        while (prefix < line.length() && prefix < original.length() && line.charAt(prefix) == original.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < line.length() - prefix && suffix < original.length() - prefix
+                && line.charAt(line.length() - 1 - suffix) == original.charAt(original.length() - 1 - suffix)) {
+            suffix++;
+        }
+        replace(start + prefix, original.length() - prefix - suffix, line.substring(prefix, line.length() - suffix));
+    }
+    
+    /**
+     * Checks whether no range has been replaced
+     * @return <code>true</code> if the patch does not modify anything,<br> <code>false</code> otherwise
+     */
+    boolean isEmpty() {
+        return replacements.isEmpty();
+    }
+    
+    /**
+     * Applies all replacements to the given file, which is atomically replaced by the patched contents
+     * @param file to be patched
+     * @param charset {@link Charset} the offsets of the replaced ranges refer to
+     * @return the size of the patched file in bytes
+     * @throws IOException if the file could not be read or written
+     */
+    long apply(Path file, Charset charset) throws IOException {
+        if (charset instanceof ByteTransparentCharset) {
+            return applyByteWise(file, charset);
+        } else {
+            return applyCharWise(file, charset);
+        }
+    }
+    
+    /**
+     * Applies all replacements by transferring the unchanged byte ranges and encoding the replacements only
+     * @param file to be patched
+     * @param charset {@link ByteTransparentCharset} the offsets of the replaced ranges refer to
+     * @return the size of the patched file in bytes
+     * @throws IOException if the file could not be read or written
+     */
+    private long applyByteWise(Path file, Charset charset) throws IOException {
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ); AtomicFileWriter fileWriter = new AtomicFileWriter(file)) {
+            Writer writer = fileWriter.getWriter(charset);
+            long position = 0;
+            for (int i = 0; i < replacements.size(); i++) {
+                fileWriter.transferFrom(source, position, offsets[i] - position);
+                writer.write(replacements.get(i));
+                position = offsets[i] + lengths[i];
+            }
+            fileWriter.transferFrom(source, position, source.size() - position);
+            return fileWriter.commit();
+        }
+    }
+    
+    /**
+     * Applies all replacements by decoding the file and re-encoding all characters
+     * @param file to be patched
+     * @param charset {@link Charset} the offsets of the replaced ranges refer to
+     * @return the size of the patched file in bytes
+     * @throws IOException if the file could not be read or written
+     */
+    private long applyCharWise(Path file, Charset charset) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), charset); AtomicFileWriter fileWriter = new AtomicFileWriter(file)) {
+            Writer writer = fileWriter.getWriter(charset);
+            long position = 0;
+            for (int i = 0; i < replacements.size(); i++) {
+                IOUtils.copyLarge(reader, writer, 0, offsets[i] - position);
+                writer.write(replacements.get(i));
+                IOUtils.skipFully(reader, lengths[i]);
+                position = offsets[i] + lengths[i];
+            }
+            IOUtils.copyLarge(reader, writer);
+            return fileWriter.commit();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.agilereview.common.parser.CommentTagBuilder;
+import org.agilereview.common.parser.CommentTagRegexBuilder;
+import org.agilereview.common.parser.CommentTagScanner;
+import org.agilereview.common.parser.ParserConfiguration;
+
+/**
+ * Comment syntax of a language together with all tag matching data derived from it. The literal tag prefixes and the byte level pre-filter are
+ * computed once per profile, such that they can be reused for all files of the language. A profile is immutable and can be used by
+ * multiple threads concurrently, whereas the builders and scanners it creates must not be shared between threads.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public final class LanguageProfile {
+    
+    /**
+     * Name of the language
+     */
+    private final String name;
+    /**
+     * Lexical syntax of the language
+     */
+    private final CommentSyntax syntax;
+    /**
+     * Multi-line comment start sign
+     */
+    private final String startSign;
+    /**
+     * Multi-line comment end sign
+     */
+    private final String endSign;
+    /**
+     * Lower case file extensions of the language
+     */
+    private final List<String> extensions;
+    /**
+     * Parser configuration used for all tags
+     */
+    private final ParserConfiguration configuration;
+    /**
+     * Literal prefixes every tag starts with
+     */
+    private final String[] tagPrefixes;
+    /**
+     * Byte level pre-filter for files of the language
+     */
+    private final ByteTagPrefilter prefilter;
+    
+    /**
+     * Creates a new {@link LanguageProfile} using the shared {@link ParserConfiguration}
+     * @param name of the language
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     * @param extensions file extensions of the language (without leading dot)
+     */
+    public LanguageProfile(String name, String multilineCommentStartSign, String multilineCommentEndSign, String... extensions) {
+        this(name, multilineCommentStartSign, multilineCommentEndSign, ParserConfiguration.getInstance(), extensions);
+    }
+    
+    /**
+     * Creates a new {@link LanguageProfile}
+     * @param name of the language
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     * @param configuration {@link ParserConfiguration} to be used
+     * @param extensions file extensions of the language (without leading dot)
+     */
+    public LanguageProfile(String name, String multilineCommentStartSign, String multilineCommentEndSign, ParserConfiguration configuration,
+            String... extensions) {
+        this(name, CommentSyntax.of(multilineCommentStartSign, multilineCommentEndSign), configuration, extensions);
+    }
+    
+    /**
+     * Creates a new {@link LanguageProfile} using the shared {@link ParserConfiguration}
+     * @param name of the language
+     * @param syntax {@link CommentSyntax} of the language
+     * @param extensions file extensions of the language (without leading dot)
+     */
+    public LanguageProfile(String name, CommentSyntax syntax, String... extensions) {
+        this(name, syntax, ParserConfiguration.getInstance(), extensions);
+    }
+    
+    /**
+     * Creates a new {@link LanguageProfile}
+     * @param name of the language
+     * @param syntax {@link CommentSyntax} of the language
+     * @param configuration {@link ParserConfiguration} to be used
+     * @param extensions file extensions of the language (without leading dot)
+     */
+    public LanguageProfile(String name, CommentSyntax syntax, ParserConfiguration configuration, String... extensions) {
+        this.name = name;
+        this.syntax = syntax;
+        this.startSign = syntax.getBlockCommentStart();
+        this.endSign = syntax.getBlockCommentEnd();
+        this.configuration = configuration;
+        List<String> lowerCaseExtensions = new ArrayList<String>(extensions.length);
+        for (String extension : extensions) {
+            lowerCaseExtensions.add(extension.toLowerCase(Locale.ENGLISH));
+        }
+        this.extensions = Collections.unmodifiableList(lowerCaseExtensions);
+        CommentTagRegexBuilder regexBuilder = new CommentTagRegexBuilder(startSign, endSign, configuration);
+        this.tagPrefixes = regexBuilder.buildTagPrefixes();
+        this.prefilter = new ByteTagPrefilter(tagPrefixes);
+    }
+    
+    /**
+     * Returns the name of the language
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Returns the multi-line comment start sign
+     * @return the start sign
+     */
+    public String getMultilineCommentStartSign() {
+        return startSign;
+    }
+    
+    /**
+     * Returns the multi-line comment end sign
+     * @return the end sign
+     */
+    public String getMultilineCommentEndSign() {
+        return endSign;
+    }
+    
+    /**
+     * Returns the multi-line comment start and end sign as expected by {@link FileParser#FileParser(java.io.File, String[])}
+     * @return a new array of the start and end sign
+     */
+    public String[] getCommentSigns() {
+        return new String[] { startSign, endSign };
+    }
+    
+    /**
+     * Returns the lexical syntax of the language
+     * @return the {@link CommentSyntax}
+     */
+    public CommentSyntax getSyntax() {
+        return syntax;
+    }
+    
+    /**
+     * Returns the file extensions of the language
+     * @return an unmodifiable list of lower case file extensions without leading dot
+     */
+    public List<String> getExtensions() {
+        return extensions;
+    }
+    
+    /**
+     * Returns the parser configuration used for all tags
+     * @return the {@link ParserConfiguration}
+     */
+    public ParserConfiguration getConfiguration() {
+        return configuration;
+    }
+    
+    /**
+     * Creates a new {@link CommentTagBuilder} for the language
+     * @return the new {@link CommentTagBuilder}
+     */
+    public CommentTagBuilder newTagBuilder() {
+        return new CommentTagBuilder(startSign, endSign, configuration);
+    }
+    
+    /**
+     * Creates a new {@link CommentTagScanner} for the language
+     * @return the new {@link CommentTagScanner}
+     */
+    public CommentTagScanner newTagScanner() {
+        return new CommentTagScanner(startSign, endSign, configuration);
+    }
+    
+    /**
+     * Creates a new {@link CommentLexer} for the language, which starts in code
+     * @return the new {@link CommentLexer}
+     */
+    CommentLexer newCommentLexer() {
+        return new CommentLexer(syntax);
+    }
+    
+    /**
+     * Returns the literal prefixes every tag starts with. The returned array must not be modified.
+     * @return the literal tag prefixes
+     */
+    String[] getTagPrefixes() {
+        return tagPrefixes;
+    }
+    
+    /**
+     * Returns the byte level pre-filter for files of the language
+     * @return the {@link ByteTagPrefilter}
+     */
+    ByteTagPrefilter getPrefilter() {
+        return prefilter;
+    }
+    
+    @Override
+    public String toString() {
+        return name + " " + startSign + " " + endSign + " " + extensions;
+    }
+}
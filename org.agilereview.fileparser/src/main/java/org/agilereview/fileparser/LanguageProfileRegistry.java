@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of {@link LanguageProfile}s by file extension. A registry can be used by multiple threads concurrently. The
+ * {@link #getDefault() default registry} contains the profiles of the most common languages.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class LanguageProfileRegistry {
+    
+    /**
+     * Shared registry of the default profiles
+     */
+    private static final LanguageProfileRegistry DEFAULT = createDefault();
+    
+    /**
+     * Profiles by lower case file extension
+     */
+    private final ConcurrentMap<String, LanguageProfile> profiles = new ConcurrentHashMap<String, LanguageProfile>();
+    
+    /**
+     * Returns the shared registry containing the profiles of the most common languages. Profiles registered to this registry are visible to all
+     * users of the default registry.
+     * @return the default {@link LanguageProfileRegistry}
+     */
+    public static LanguageProfileRegistry getDefault() {
+        return DEFAULT;
+    }
+    
+    /**
+     * Creates a new registry containing one profile for each distinct pair of comment signs of the given map
+     * @param commentSigns multi-line comment start and end sign by file extension (without leading dot)
+     * @return the new {@link LanguageProfileRegistry}
+     */
+    public static LanguageProfileRegistry fromCommentSigns(Map<String, String[]> commentSigns) {
+        Map<List<String>, List<String>> extensionsBySigns = new HashMap<List<String>, List<String>>();
+        for (Map.Entry<String, String[]> entry : commentSigns.entrySet()) {
+            List<String> signs = Arrays.asList(entry.getValue());
+            List<String> extensions = extensionsBySigns.get(signs);
+            if (extensions == null) {
+                extensions = new ArrayList<String>();
+                extensionsBySigns.put(signs, extensions);
+            }
+            extensions.add(entry.getKey());
+        }
+        LanguageProfileRegistry registry = new LanguageProfileRegistry();
+        for (Map.Entry<List<String>, List<String>> entry : extensionsBySigns.entrySet()) {
+            String startSign = entry.getKey().get(0);
+            String endSign = entry.getKey().get(1);
+            registry.register(new LanguageProfile(startSign + " " + endSign, startSign, endSign, entry.getValue().toArray(new String[0])));
+        }
+        return registry;
+    }
+    
+    /**
+     * Registers the given profile for all of its extensions, whereby profiles previously registered for these extensions are replaced
+     * @param profile {@link LanguageProfile} to be registered
+     */
+    public void register(LanguageProfile profile) {
+        for (String extension : profile.getExtensions()) {
+            profiles.put(extension, profile);
+        }
+    }
+    
+    /**
+     * Returns the profile registered for the given file extension
+     * @param extension file extension without leading dot
+     * @return the {@link LanguageProfile} or <code>null</code> if no profile is registered for the extension
+     */
+    public LanguageProfile getProfile(String extension) {
+        return profiles.get(extension.toLowerCase(Locale.ENGLISH));
+    }
+    
+    /**
+     * Returns the profile registered for the extension of the given file
+     * @param file whose profile should be returned
+     * @return the {@link LanguageProfile} or <code>null</code> if no profile is registered for the extension of the file
+     */
+    public LanguageProfile getProfile(Path file) {
+        return profiles.get(getExtension(file));
+    }
+    
+    /**
+     * Returns all registered profiles
+     * @return a new collection of all distinct {@link LanguageProfile}s
+     */
+    public Collection<LanguageProfile> getProfiles() {
+        return new LinkedHashSet<LanguageProfile>(profiles.values());
+    }
+    
+    /**
+     * Returns the lower case extension of the given file
+     * @param file whose extension should be determined
+     * @return the extension without leading dot or an empty string if the file has no extension
+     */
+    static String getExtension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ENGLISH);
+    }
+    
+    /**
+     * Creates a new registry containing the profiles of the most common languages. Languages whose string literals or line comments are not covered
+     * by a {@link CommentSyntax}, like raw strings of Go or # comments of PHP, are not registered, as comment signs within them would be taken for
+     * real comment boundaries.
+     * @return the new {@link LanguageProfileRegistry}
+     */
+    private static LanguageProfileRegistry createDefault() {
+        LanguageProfileRegistry registry = new LanguageProfileRegistry();
+        registry.register(new LanguageProfile("Java", CommentSyntax.C_STYLE, "java", "scala", "groovy"));
+        registry.register(new LanguageProfile("C", CommentSyntax.C_STYLE, "c", "h", "cpp", "hpp", "cc", "cs"));
+        registry.register(new LanguageProfile("JavaScript", CommentSyntax.C_STYLE, "js", "ts"));
+        registry.register(new LanguageProfile("CSS", CommentSyntax.CSS, "css"));
+        registry.register(new LanguageProfile("XML", CommentSyntax.XML, "xml", "xhtml"));
+        registry.register(new LanguageProfile("HTML", CommentSyntax.XML, "html", "htm", "jsp"));
+        return registry;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe histogram of latencies with buckets of exponentially growing width. Bucket 0 counts all latencies below one microsecond, bucket
+ * <i>i</i> counts all latencies from 2<sup>i-1</sup> up to 2<sup>i</sup> microseconds. Percentiles are therefore reported as the upper bound of
+ * their bucket, i.e. with a relative error of at most 100%, which is sufficient to spot outliers at a constant memory footprint.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class LatencyHistogram {
+    
+    /**
+     * Number of buckets, covering latencies up to 2<sup>40</sup> microseconds
+     */
+    static final int BUCKET_COUNT = 41;
+    
+    /**
+     * Number of latencies within each bucket
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    /**
+     * Number of recorded latencies
+     */
+    private final AtomicLong count = new AtomicLong();
+    /**
+     * Sum of all recorded latencies in nanoseconds
+     */
+    private final AtomicLong totalNanos = new AtomicLong();
+    /**
+     * Maximum recorded latency in nanoseconds
+     */
+    private final AtomicLong maxNanos = new AtomicLong();
+    
+    /**
+     * Records the given latency
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        buckets.incrementAndGet(getBucket(nanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+            // retry with the updated maximum
+        }
+    }
+    
+    /**
+     * Returns the bucket of the given latency
+     * @param nanos latency in nanoseconds
+     * @return the index of the bucket
+     */
+    static int getBucket(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+    
+    /**
+     * Returns the number of recorded latencies
+     * @return the number of latencies
+     */
+    public long getCount() {
+        return count.get();
+    }
+    
+    /**
+     * Returns the mean of all recorded latencies
+     * @param unit {@link TimeUnit} of the result
+     * @return the mean latency in the given unit or 0 if no latency has been recorded
+     */
+    public double getMean(TimeUnit unit) {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : (double) totalNanos.get() / recorded / unit.toNanos(1);
+    }
+    
+    /**
+     * Returns the maximum recorded latency
+     * @param unit {@link TimeUnit} of the result
+     * @return the maximum latency in the given unit
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Returns the upper bound of the bucket containing the given percentile
+     * @param percentile between 0 and 100
+     * @param unit {@link TimeUnit} of the result
+     * @return the upper bound of the percentile in the given unit or 0 if no latency has been recorded
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("Percentile out of range: " + percentile);
+        long[] snapshot = new long[BUCKET_COUNT];
+        long recorded = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            recorded += snapshot[i];
+        }
+        if (recorded == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(recorded * percentile / 100));
+        int bucket = 0;
+        for (long seen = snapshot[0]; seen < rank; seen += snapshot[++bucket]) {
+            // find the bucket containing the rank
+        }
+        long upperBoundNanos = bucket == BUCKET_COUNT - 1 ? maxNanos.get() : TimeUnit.MICROSECONDS.toNanos(1L << bucket);
+        return unit.convert(upperBoundNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Returns the number of latencies within the given bucket
+     * @param bucket index of the bucket
+     * @return the number of latencies
+     */
+    long getBucketCount(int bucket) {
+        return buckets.get(bucket);
+    }
+    
+    /**
+     * Discards all recorded latencies
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Reads lines like {@link java.io.BufferedReader#readLine()}, but additionally reports the line terminator of each line, such that a file can be
+ * written back without changing its line terminators
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class LineReader implements Closeable {
+    
+    /**
+     * Line terminators, which are shared to avoid creating a string for each line
+     */
+    private static final String LF = "\n", CR = "\r", CRLF = "\r\n";
+    
+    /**
+     * Underlying reader
+     */
+    private final Reader reader;
+    /**
+     * Character buffer
+     */
+    private final char[] buffer = new char[8192];
+    /**
+     * Position of the next character within the buffer
+     */
+    private int position;
+    /**
+     * Number of valid characters within the buffer
+     */
+    private int limit;
+    /**
+     * Line terminator of the last line read
+     */
+    private String terminator = "";
+    /**
+     * Number of lines read so far
+     */
+    private long lineCount;
+    
+    /**
+     * Creates a new {@link LineReader}
+     * @param reader providing the characters
+     */
+    LineReader(Reader reader) {
+        this.reader = reader;
+    }
+    
+    /**
+     * Reads the next line
+     * @return the contents of the next line without line terminator or <code>null</code> if the end of the stream has been reached
+     * @throws IOException if the characters could not be read
+     */
+    String readLine() throws IOException {
+        StringBuilder line = null;
+        while (true) {
+            if (position == limit && !fill()) {
+                terminator = "";
+                if (line == null) return null;
+                lineCount++;
+                return line.toString();
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            if (position < limit) {
+                String result = line == null ? new String(buffer, start, position - start) : line.append(buffer, start, position - start).toString();
+                if (buffer[position++] == '\n') {
+                    terminator = LF;
+                } else if ((position < limit || fill()) && buffer[position] == '\n') {
+                    position++;
+                    terminator = CRLF;
+                } else {
+                    terminator = CR;
+                }
+                lineCount++;
+                return result;
+            }
+            if (line == null) {
+                line = new StringBuilder(position - start + 80);
+            }
+            line.append(buffer, start, position - start);
+        }
+    }
+    
+    /**
+     * Returns the line terminator of the last line read
+     * @return the line terminator or an empty string if the last line has not been terminated
+     */
+    String getTerminator() {
+        return terminator;
+    }
+    
+    /**
+     * Returns the number of lines read so far
+     * @return the number of lines returned by {@link #readLine()}
+     */
+    long getLineCount() {
+        return lineCount;
+    }
+    
+    /**
+     * Copies all remaining characters to the given writer
+     * @param writer to copy the characters to
+     * @throws IOException if the characters could not be read or written
+     */
+    void copyRemaining(Writer writer) throws IOException {
+        do {
+            writer.write(buffer, position, limit - position);
+            position = limit;
+        } while (fill());
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+    
+    /**
+     * Refills the buffer, whereby all characters before the current position are discarded
+     * @return <code>true</code> if characters have been read,<br> <code>false</code> if the end of the stream has been reached
+     * @throws IOException if the characters could not be read
+     */
+    private boolean fill() throws IOException {
+        int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+        int read;
+        do {
+            read = reader.read(buffer, limit, buffer.length - limit);
+        } while (read == 0);
+        if (read < 0) return false;
+        limit += read;
+        return true;
+    }
+}
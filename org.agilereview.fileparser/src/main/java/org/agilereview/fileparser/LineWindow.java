@@ -0,0 +1,495 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Window of consecutive lines of a document, which is addressed by absolute line numbers. All lines in front of the window have already been
+ * flushed and are not accessible anymore. Each line keeps its original line terminator, whereas inserted lines are terminated by the first line
+ * terminator of the document. Lines of the document can be removed while reading by skipping them, they are not part of the window at all. Flushed
+ * lines are not written out completely, but only their modifications are recorded in a {@link FilePatch}.<br>
+ * The contents of all lines are stored in one append-only text buffer, which holds one byte per character as long as all characters are ASCII
+ * or escape characters of the {@link ByteTransparentCharset}, and one char per character otherwise. Modified lines are appended to the buffer,
+ * which is compacted when it is full. The lines themselves are primitive records of offsets into the buffer kept in a gap buffer, such that
+ * successive insertions near the same position do not shift all following lines. {@link String}s are only created on access.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class LineWindow extends AbstractList<String> {
+    
+    /**
+     * Line terminators by their code
+     */
+    private static final String[] TERMINATORS = { "", "\n", "\r", "\r\n" };
+    /**
+     * Start offset of inserted lines, which do not have an original line
+     */
+    private static final int INSERTED = -1;
+    /**
+     * Maximum size of an array
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    
+    /**
+     * Text buffer as long as all characters are representable as single bytes, <code>null</code> after switching to {@link #chars}
+     */
+    private byte[] bytes = new byte[1024];
+    /**
+     * Text buffer if a character is not representable as single byte, <code>null</code> otherwise
+     */
+    private char[] chars;
+    /**
+     * Number of characters used within the text buffer
+     */
+    private int textLength;
+    /**
+     * Start offset of the current contents of each line within the text buffer
+     */
+    private int[] starts = new int[64];
+    /**
+     * Length of the current contents of each line
+     */
+    private int[] lengths = new int[64];
+    /**
+     * Start offset of the original contents of each line within the text buffer or {@link #INSERTED}
+     */
+    private int[] originalStarts = new int[64];
+    /**
+     * Length of the original contents of each line
+     */
+    private int[] originalLengths = new int[64];
+    /**
+     * Codes of the current (bits 0-1) and original (bits 2-3) line terminator of each line
+     */
+    private byte[] terminators = new byte[64];
+    /**
+     * Index of the first record within the gap, i.e. the number of records in front of the gap
+     */
+    private int gapStart;
+    /**
+     * Index of the first record behind the gap
+     */
+    private int gapEnd = 64;
+    /**
+     * Absolute line number of the first line held in memory
+     */
+    private int offset;
+    /**
+     * Offset of the first original line held in memory within the original document
+     */
+    private long position;
+    /**
+     * Offset of the end of the last line read within the original document
+     */
+    private long readPosition;
+    /**
+     * Offset and length of all skipped lines within the original document, which have not been flushed yet
+     */
+    private final ArrayDeque<long[]> skippedLines = new ArrayDeque<long[]>();
+    /**
+     * Line terminator of inserted lines or <code>null</code> if no terminated line has been read yet
+     */
+    private String lineSeparator;
+    
+    /**
+     * Appends a line read from the document
+     * @param line contents of the line
+     * @param terminator line terminator of the line or an empty string if the line is not terminated
+     */
+    void addLine(String line, String terminator) {
+        int code = toCode(terminator);
+        int start = appendText(line);
+        int record = insertRecord(getLineCount());
+        starts[record] = start;
+        lengths[record] = line.length();
+        originalStarts[record] = start;
+        originalLengths[record] = line.length();
+        terminators[record] = (byte) (code | code << 2);
+        readPosition += line.length() + terminator.length();
+        if (lineSeparator == null && code != 0) {
+            lineSeparator = terminator;
+        }
+    }
+    
+    /**
+     * Skips a line read from the document, such that it is removed from the document including its line terminator
+     * @param line contents of the line
+     * @param terminator line terminator of the line or an empty string if the line is not terminated
+     */
+    void skipLine(String line, String terminator) {
+        long length = line.length() + terminator.length();
+        skippedLines.add(new long[] { readPosition, length });
+        readPosition += length;
+        if (lineSeparator == null && !terminator.isEmpty()) {
+            lineSeparator = terminator;
+        }
+    }
+    
+    /**
+     * Records the modifications of all lines in front of the given absolute line number in the given patch and releases these lines from the
+     * window. Lines inserted in front of the first retained line are recorded as insertion at the start of this line.
+     * @param line absolute line number of the first line to be retained
+     * @param patch {@link FilePatch} the modifications should be recorded in
+     */
+    void flush(int line, FilePatch patch) {
+        int count = Math.min(line - offset, getLineCount());
+        if (count <= 0) {
+            flushSkippedLines(patch);
+            return;
+        }
+        moveGap(count);
+        StringBuilder inserted = new StringBuilder();
+        for (int record = 0; record < count; record++) {
+            String terminator = TERMINATORS[terminators[record] & 3];
+            if (originalStarts[record] == INSERTED) {
+                inserted.append(getText(starts[record], lengths[record])).append(terminator);
+                continue;
+            }
+            if (inserted.length() > 0) {
+                patch.replace(position, 0, inserted.toString());
+                inserted.setLength(0);
+            }
+            flushSkippedLines(patch);
+            if (!isUnchanged(record)) {
+                patch.replaceLine(position, getText(originalStarts[record], originalLengths[record]), getText(starts[record], lengths[record]));
+            }
+            position += originalLengths[record];
+            String originalTerminator = TERMINATORS[terminators[record] >> 2];
+            patch.replaceLine(position, originalTerminator, terminator);
+            position += originalTerminator.length();
+        }
+        if (inserted.length() > 0) {
+            patch.replace(position, 0, inserted.toString());
+        }
+        flushSkippedLines(patch);
+        gapStart = 0;
+        offset += count;
+        if (getLineCount() == 0) {
+            textLength = 0;
+        }
+    }
+    
+    /**
+     * Records the removal of all skipped lines located at the current position in the given patch
+     * @param patch {@link FilePatch} the removals should be recorded in
+     */
+    private void flushSkippedLines(FilePatch patch) {
+        while (!skippedLines.isEmpty() && skippedLines.peek()[0] == position) {
+            long length = skippedLines.poll()[1];
+            patch.replace(position, length, "");
+            position += length;
+        }
+    }
+    
+    @Override
+    public String get(int index) {
+        int record = toRecord(toWindowIndex(index));
+        return getText(starts[record], lengths[record]);
+    }
+    
+    /**
+     * Replaces the contents of the given line. The new contents are appended to the text buffer, the previous contents are reclaimed on the next
+     * compaction unless they are the original contents of the line.
+     */
+    @Override
+    public String set(int index, String element) {
+        String previous = get(index);
+        int start = appendText(element);
+        int record = toRecord(index - offset);
+        starts[record] = start;
+        lengths[record] = element.length();
+        return previous;
+    }
+    
+    /**
+     * Inserts a new line, which is terminated by the first line terminator of the document. If the line is appended behind a last line without
+     * terminator, the terminator is moved to the former last line.
+     */
+    @Override
+    public void add(int index, String element) {
+        int windowIndex = toWindowIndex(index);
+        int lineCount = getLineCount();
+        if (windowIndex > lineCount) {
+            throw new IndexOutOfBoundsException("Line " + index + " is behind the end of the window (size " + size() + ")");
+        }
+        int separator = toCode(lineSeparator != null ? lineSeparator : IOUtils.LINE_SEPARATOR);
+        if (windowIndex == lineCount && windowIndex > 0) {
+            int last = toRecord(windowIndex - 1);
+            if ((terminators[last] & 3) == 0) {
+                terminators[last] |= separator;
+                separator = 0;
+            }
+        }
+        int start = appendText(element);
+        int record = insertRecord(windowIndex);
+        starts[record] = start;
+        lengths[record] = element.length();
+        originalStarts[record] = INSERTED;
+        originalLengths[record] = 0;
+        terminators[record] = (byte) separator;
+    }
+    
+    /**
+     * Returns the number of lines of the document up to the end of the window, i.e. including all already flushed lines
+     */
+    @Override
+    public int size() {
+        return offset + getLineCount();
+    }
+    
+    /**
+     * Returns the number of lines held in memory
+     * @return the number of line records
+     */
+    private int getLineCount() {
+        return starts.length - (gapEnd - gapStart);
+    }
+    
+    /**
+     * Converts the given absolute line number to the index within the window
+     * @param index absolute line number
+     * @return the index within the window
+     * @throws IndexOutOfBoundsException if the line has already been flushed
+     */
+    private int toWindowIndex(int index) {
+        if (index < offset) {
+            throw new IndexOutOfBoundsException("Line " + index + " has already been flushed (window starts at " + offset + ")");
+        }
+        return index - offset;
+    }
+    
+    /**
+     * Converts the given index within the window to the index of its record
+     * @param windowIndex index within the window
+     * @return the index of the line record
+     * @throws IndexOutOfBoundsException if the window does not contain the line
+     */
+    private int toRecord(int windowIndex) {
+        if (windowIndex >= getLineCount()) {
+            throw new IndexOutOfBoundsException("Line " + (offset + windowIndex) + " is behind the end of the window (size " + size() + ")");
+        }
+        return windowIndex < gapStart ? windowIndex : windowIndex + gapEnd - gapStart;
+    }
+    
+    /**
+     * Moves the gap to the given index and takes its first record
+     * @param windowIndex index within the window the new record should have
+     * @return the index of the new record, whose fields have to be initialized
+     */
+    private int insertRecord(int windowIndex) {
+        if (gapStart == gapEnd) {
+            growRecords();
+        }
+        moveGap(windowIndex);
+        return gapStart++;
+    }
+    
+    /**
+     * Moves the gap, such that the given number of records is located in front of it
+     * @param windowIndex index within the window the gap should start at
+     */
+    private void moveGap(int windowIndex) {
+        if (windowIndex < gapStart) {
+            int count = gapStart - windowIndex;
+            moveRecords(windowIndex, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (windowIndex > gapStart) {
+            int count = windowIndex - gapStart;
+            moveRecords(gapEnd, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+    
+    /**
+     * Copies records within the record arrays
+     * @param from index of the first record to be copied
+     * @param to target index of the first record
+     * @param count number of records to be copied
+     */
+    private void moveRecords(int from, int to, int count) {
+        System.arraycopy(starts, from, starts, to, count);
+        System.arraycopy(lengths, from, lengths, to, count);
+        System.arraycopy(originalStarts, from, originalStarts, to, count);
+        System.arraycopy(originalLengths, from, originalLengths, to, count);
+        System.arraycopy(terminators, from, terminators, to, count);
+    }
+    
+    /**
+     * Doubles the capacity of the record arrays, keeping the gap at its position
+     */
+    private void growRecords() {
+        int capacity = starts.length;
+        int newCapacity = (int) Math.min(MAX_CAPACITY, capacity * 2L);
+        if (newCapacity == capacity) throw new OutOfMemoryError("Too many lines");
+        int tail = capacity - gapEnd;
+        int newGapEnd = newCapacity - tail;
+        starts = grow(starts, newCapacity, tail);
+        lengths = grow(lengths, newCapacity, tail);
+        originalStarts = grow(originalStarts, newCapacity, tail);
+        originalLengths = grow(originalLengths, newCapacity, tail);
+        byte[] newTerminators = new byte[newCapacity];
+        System.arraycopy(terminators, 0, newTerminators, 0, gapStart);
+        System.arraycopy(terminators, gapEnd, newTerminators, newGapEnd, tail);
+        terminators = newTerminators;
+        gapEnd = newGapEnd;
+    }
+    
+    /**
+     * Copies the given record array into a new array of the given capacity, keeping the records in front of the gap at the start and the given
+     * number of records behind the gap at the end of the array
+     * @param array record array to be copied
+     * @param newCapacity capacity of the new array
+     * @param tail number of records behind the gap
+     * @return the new array
+     */
+    private int[] grow(int[] array, int newCapacity, int tail) {
+        int[] result = new int[newCapacity];
+        System.arraycopy(array, 0, result, 0, gapStart);
+        System.arraycopy(array, array.length - tail, result, newCapacity - tail, tail);
+        return result;
+    }
+    
+    /**
+     * Appends the given text to the text buffer
+     * @param text to be appended
+     * @return the start offset of the text within the buffer
+     */
+    private int appendText(String text) {
+        int length = text.length();
+        ensureTextCapacity(length);
+        int start = textLength;
+        if (chars == null) {
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                if (c >= 0x80 && !ByteTransparentCharset.isEscape(c)) {
+                    inflate(start + i);
+                    text.getChars(i, length, chars, start + i);
+                    break;
+                }
+                bytes[start + i] = (byte) c;
+            }
+        } else {
+            text.getChars(0, length, chars, start);
+        }
+        textLength += length;
+        return start;
+    }
+    
+    /**
+     * Returns the text at the given range of the text buffer
+     * @param start offset of the text within the buffer
+     * @param length length of the text
+     * @return the text
+     */
+    private String getText(int start, int length) {
+        if (chars != null) return new String(chars, start, length);
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = ByteTransparentCharset.toChar(bytes[start + i]);
+        }
+        return new String(text);
+    }
+    
+    /**
+     * Switches the text buffer from bytes to chars
+     * @param length number of characters written to the buffer so far
+     */
+    private void inflate(int length) {
+        chars = new char[bytes.length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ByteTransparentCharset.toChar(bytes[i]);
+        }
+        bytes = null;
+    }
+    
+    /**
+     * Ensures that the given number of characters can be appended to the text buffer. If the buffer is full, all text referenced by the lines held
+     * in memory is copied into a new buffer with at least the same amount of free space, such that appending is amortized constant per
+     * character.
+     * @param length number of characters to be appended
+     */
+    private void ensureTextCapacity(int length) {
+        int capacity = chars != null ? chars.length : bytes.length;
+        if (length <= capacity - textLength) return;
+        long live = length;
+        int lineCount = getLineCount();
+        for (int i = 0; i < lineCount; i++) {
+            int record = toRecord(i);
+            live += originalLengths[record];
+            if (!isUnchanged(record)) {
+                live += lengths[record];
+            }
+        }
+        if (live > MAX_CAPACITY) throw new OutOfMemoryError("Window exceeds the maximum text buffer size");
+        int newCapacity = (int) Math.min(MAX_CAPACITY, Math.max(capacity, live * 2));
+        if (chars != null) {
+            char[] newChars = new char[newCapacity];
+            textLength = compactText(chars, newChars);
+            chars = newChars;
+        } else {
+            byte[] newBytes = new byte[newCapacity];
+            textLength = compactText(bytes, newBytes);
+            bytes = newBytes;
+        }
+    }
+    
+    /**
+     * Copies the text of all lines held in memory into the given buffer and updates the offsets of the lines. Unchanged lines keep sharing their
+     * original text.
+     * @param source current text buffer, a byte or char array
+     * @param target new text buffer of the same type
+     * @return the number of characters copied
+     */
+    private int compactText(Object source, Object target) {
+        int length = 0;
+        int lineCount = getLineCount();
+        for (int i = 0; i < lineCount; i++) {
+            int record = toRecord(i);
+            boolean shared = isUnchanged(record);
+            if (originalStarts[record] != INSERTED) {
+                System.arraycopy(source, originalStarts[record], target, length, originalLengths[record]);
+                originalStarts[record] = length;
+                length += originalLengths[record];
+            }
+            if (shared) {
+                starts[record] = originalStarts[record];
+            } else {
+                System.arraycopy(source, starts[record], target, length, lengths[record]);
+                starts[record] = length;
+                length += lengths[record];
+            }
+        }
+        return length;
+    }
+    
+    /**
+     * Checks whether the given line still references its original contents
+     * @param record index of the line record
+     * @return <code>true</code> if the line has neither been modified nor inserted,<br> <code>false</code> otherwise
+     */
+    private boolean isUnchanged(int record) {
+        return starts[record] == originalStarts[record] && lengths[record] == originalLengths[record];
+    }
+    
+    /**
+     * Returns the code of the given line terminator
+     * @param terminator line terminator
+     * @return the index of the terminator within {@link #TERMINATORS}
+     */
+    private static int toCode(String terminator) {
+        for (int code = 0; code < TERMINATORS.length; code++) {
+            if (TERMINATORS[code].equals(terminator)) return code;
+        }
+        throw new IllegalArgumentException("Unknown line terminator: " + terminator);
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counters and {@link LatencyHistogram} of all operations of one {@link ParserOperation}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+    
+    /**
+     * Operation the metrics are collected for
+     */
+    private final ParserOperation operation;
+    /**
+     * Number of completed operations
+     */
+    private final AtomicLong count = new AtomicLong();
+    /**
+     * Number of failed operations
+     */
+    private final AtomicLong failures = new AtomicLong();
+    /**
+     * Number of bytes read
+     */
+    private final AtomicLong bytesRead = new AtomicLong();
+    /**
+     * Number of bytes written
+     */
+    private final AtomicLong bytesWritten = new AtomicLong();
+    /**
+     * Number of lines scanned
+     */
+    private final AtomicLong linesScanned = new AtomicLong();
+    /**
+     * Number of lines the tag pattern has been evaluated on
+     */
+    private final AtomicLong regexEvaluations = new AtomicLong();
+    /**
+     * Number of adapted selections
+     */
+    private final AtomicLong selectionAdaptations = new AtomicLong();
+    /**
+     * Number of skipped rewrites
+     */
+    private final AtomicLong skippedRewrites = new AtomicLong();
+    /**
+     * Latencies of all operations
+     */
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    
+    /**
+     * Creates new empty {@link OperationMetrics}
+     * @param operation {@link ParserOperation} the metrics are collected for
+     */
+    OperationMetrics(ParserOperation operation) {
+        this.operation = operation;
+    }
+    
+    /**
+     * Adds the given statistics to the metrics
+     * @param statistics {@link OperationStatistics} of one operation
+     */
+    void add(OperationStatistics statistics) {
+        count.incrementAndGet();
+        if (statistics.isFailed()) {
+            failures.incrementAndGet();
+        }
+        bytesRead.addAndGet(statistics.getBytesRead());
+        bytesWritten.addAndGet(statistics.getBytesWritten());
+        linesScanned.addAndGet(statistics.getLinesScanned());
+        regexEvaluations.addAndGet(statistics.getRegexEvaluations());
+        selectionAdaptations.addAndGet(statistics.getSelectionAdaptations());
+        if (statistics.isRewriteSkipped()) {
+            skippedRewrites.incrementAndGet();
+        }
+        latencies.record(statistics.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+    
+    /**
+     * Returns the operation the metrics are collected for
+     * @return the {@link ParserOperation}
+     */
+    public ParserOperation getOperation() {
+        return operation;
+    }
+    
+    /**
+     * Returns the histogram of the latencies of all operations
+     * @return the {@link LatencyHistogram}
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+    
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+    
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+    
+    @Override
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+    
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+    
+    @Override
+    public long getLinesScanned() {
+        return linesScanned.get();
+    }
+    
+    @Override
+    public long getRegexEvaluations() {
+        return regexEvaluations.get();
+    }
+    
+    @Override
+    public long getSelectionAdaptations() {
+        return selectionAdaptations.get();
+    }
+    
+    @Override
+    public long getSkippedRewrites() {
+        return skippedRewrites.get();
+    }
+    
+    @Override
+    public double getMeanLatencyMicros() {
+        return latencies.getMean(TimeUnit.MICROSECONDS);
+    }
+    
+    @Override
+    public long getMedianLatencyMicros() {
+        return latencies.getPercentile(50, TimeUnit.MICROSECONDS);
+    }
+    
+    @Override
+    public long getPercentile99LatencyMicros() {
+        return latencies.getPercentile(99, TimeUnit.MICROSECONDS);
+    }
+    
+    @Override
+    public long getMaxLatencyMicros() {
+        return latencies.getMax(TimeUnit.MICROSECONDS);
+    }
+    
+    @Override
+    public void reset() {
+        count.set(0);
+        failures.set(0);
+        bytesRead.set(0);
+        bytesWritten.set(0);
+        linesScanned.set(0);
+        regexEvaluations.set(0);
+        selectionAdaptations.set(0);
+        skippedRewrites.set(0);
+        latencies.reset();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d operations (%d failed, %d skipped rewrites), %d bytes read, %d bytes written, %d lines, %d regex evaluations, "
+                + "%d adaptations, latency mean %.0f us / p50 %d us / p99 %d us / max %d us", operation.getMethodName(), getCount(), getFailures(),
+                getSkippedRewrites(), getBytesRead(), getBytesWritten(), getLinesScanned(), getRegexEvaluations(), getSelectionAdaptations(),
+                getMeanLatencyMicros(), getMedianLatencyMicros(), getPercentile99LatencyMicros(), getMaxLatencyMicros());
+    }
+}
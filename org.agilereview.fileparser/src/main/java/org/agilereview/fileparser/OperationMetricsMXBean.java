@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+/**
+ * Management interface of the {@link OperationMetrics} of one {@link ParserOperation}, which is registered by the {@link ParserMetricsExporter}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public interface OperationMetricsMXBean {
+    
+    /**
+     * Returns the number of completed operations
+     * @return the number of operations including the failed ones
+     */
+    long getCount();
+    
+    /**
+     * Returns the number of failed operations
+     * @return the number of failures
+     */
+    long getFailures();
+    
+    /**
+     * Returns the number of bytes read while parsing files
+     * @return the number of bytes read
+     */
+    long getBytesRead();
+    
+    /**
+     * Returns the number of bytes written to rewritten files
+     * @return the number of bytes written
+     */
+    long getBytesWritten();
+    
+    /**
+     * Returns the number of lines scanned
+     * @return the number of lines
+     */
+    long getLinesScanned();
+    
+    /**
+     * Returns the number of lines the tag pattern has been evaluated on
+     * @return the number of evaluations
+     */
+    long getRegexEvaluations();
+    
+    /**
+     * Returns the number of selections adapted to code comments
+     * @return the number of adaptations
+     */
+    long getSelectionAdaptations();
+    
+    /**
+     * Returns the number of operations which left the file untouched
+     * @return the number of skipped rewrites
+     */
+    long getSkippedRewrites();
+    
+    /**
+     * Returns the mean latency of the operations
+     * @return the mean latency in microseconds
+     */
+    double getMeanLatencyMicros();
+    
+    /**
+     * Returns the upper bound of the median latency
+     * @return the median latency in microseconds
+     */
+    long getMedianLatencyMicros();
+    
+    /**
+     * Returns the upper bound of the 99th percentile of the latencies
+     * @return the 99th percentile in microseconds
+     */
+    long getPercentile99LatencyMicros();
+    
+    /**
+     * Returns the maximum latency
+     * @return the maximum latency in microseconds
+     */
+    long getMaxLatencyMicros();
+    
+    /**
+     * Resets all counters and the latency histogram
+     */
+    void reset();
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.input.CountingInputStream;
+
+/**
+ * Collects the {@link OperationStatistics} of a single operation of a {@link FileParser}. A new recorder is created for each operation and only used
+ * by the thread performing it. If the operation is not reported to any {@link ParserMetrics}, the recorder is disabled and neither measures the time
+ * nor counts the bytes read. Closing the recorder reports the operation as failed unless it has been marked as {@link #completed()} before.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class OperationRecorder implements AutoCloseable {
+    
+    /**
+     * Metrics the operation is reported to
+     */
+    private final ParserMetrics metrics;
+    /**
+     * Recorded operation or <code>null</code> if the recorder is disabled
+     */
+    private final ParserOperation operation;
+    /**
+     * {@link System#nanoTime()} at the start of the operation
+     */
+    private final long startNanos;
+    /**
+     * Streams counting the bytes read
+     */
+    private final List<CountingInputStream> inputs = new ArrayList<CountingInputStream>();
+    /**
+     * Matcher whose evaluations are counted
+     */
+    private final TagMatcher tagMatcher;
+    /**
+     * Evaluations of the {@link #tagMatcher} at the start of the operation
+     */
+    private final long initialMatcherEvaluations;
+    /**
+     * Number of bytes written to the rewritten file
+     */
+    private long bytesWritten;
+    /**
+     * Number of lines scanned
+     */
+    private long linesScanned;
+    /**
+     * Number of lines the tag pattern has been evaluated on outside of the {@link #tagMatcher}
+     */
+    private long regexEvaluations;
+    /**
+     * Number of adapted selections
+     */
+    private long selectionAdaptations;
+    /**
+     * States whether the rewrite has been skipped
+     */
+    private boolean rewriteSkipped;
+    /**
+     * States whether the operation has completed normally
+     */
+    private boolean completed;
+    /**
+     * States whether the operation has already been reported
+     */
+    private boolean closed;
+    
+    /**
+     * Creates a disabled recorder for code paths, which are not reported as an operation of their own
+     */
+    OperationRecorder() {
+        this(null, null, ParserMetrics.NO_OP);
+    }
+    
+    /**
+     * Starts recording a new operation
+     * @param operation {@link ParserOperation} to be recorded
+     * @param tagMatcher {@link TagMatcher} whose evaluations should be counted. The matcher must only be used by the recording thread until the
+     *            recorder is closed.
+     * @param metrics {@link ParserMetrics} the operation will be reported to
+     */
+    OperationRecorder(ParserOperation operation, TagMatcher tagMatcher, ParserMetrics metrics) {
+        boolean enabled = metrics != ParserMetrics.NO_OP && operation != null;
+        this.metrics = metrics;
+        this.operation = enabled ? operation : null;
+        this.tagMatcher = enabled ? tagMatcher : null;
+        initialMatcherEvaluations = enabled ? tagMatcher.getEvaluations() : 0;
+        startNanos = enabled ? System.nanoTime() : 0;
+    }
+    
+    /**
+     * Returns the given stream, which counts the bytes read if the recorder is enabled
+     * @param in stream reading the file
+     * @return the stream to be used instead of the given one
+     */
+    InputStream countInput(InputStream in) {
+        if (operation == null) return in;
+        CountingInputStream counting = new CountingInputStream(in);
+        inputs.add(counting);
+        return counting;
+    }
+    
+    /**
+     * Adds the lines read by the given reader to the scanned lines
+     * @param reader {@link LineReader} which has finished reading
+     */
+    void linesScanned(LineReader reader) {
+        linesScanned += reader.getLineCount();
+    }
+    
+    /**
+     * Counts an evaluation of the tag pattern outside of the {@link TagMatcher}
+     */
+    void regexEvaluated() {
+        regexEvaluations++;
+    }
+    
+    /**
+     * Counts a selection adapted to a code comment
+     */
+    void selectionAdapted() {
+        selectionAdaptations++;
+    }
+    
+    /**
+     * Records the rewrite of the file
+     * @param bytes size of the rewritten file
+     */
+    void rewritten(long bytes) {
+        bytesWritten += bytes;
+    }
+    
+    /**
+     * Records that the rewrite of the file has been skipped
+     */
+    void rewriteSkipped() {
+        rewriteSkipped = true;
+    }
+    
+    /**
+     * Marks the operation as completed normally
+     */
+    void completed() {
+        completed = true;
+    }
+    
+    /**
+     * Finishes the operation and reports its statistics, unless the recorder is disabled or has already been closed
+     */
+    @Override
+    public void close() {
+        if (operation == null || closed) return;
+        closed = true;
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long bytesRead = 0;
+        for (CountingInputStream input : inputs) {
+            bytesRead += input.getByteCount();
+        }
+        OperationStatistics statistics = new OperationStatistics(operation, !completed, bytesRead, bytesWritten, linesScanned, regexEvaluations
+                + tagMatcher.getEvaluations() - initialMatcherEvaluations, selectionAdaptations, rewriteSkipped, elapsedNanos);
+        metrics.operationCompleted(statistics);
+    }
+}
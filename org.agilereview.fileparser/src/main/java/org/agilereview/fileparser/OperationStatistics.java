@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of a single modifying operation of the {@link FileParser}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class OperationStatistics {
+    
+    /**
+     * Operation performed
+     */
+    private final ParserOperation operation;
+    /**
+     * States whether the operation failed
+     */
+    private final boolean failed;
+    /**
+     * Number of bytes read while parsing the file
+     */
+    private final long bytesRead;
+    /**
+     * Number of bytes written to the rewritten file
+     */
+    private final long bytesWritten;
+    /**
+     * Number of lines scanned
+     */
+    private final long linesScanned;
+    /**
+     * Number of lines the tag pattern has been evaluated on
+     */
+    private final long regexEvaluations;
+    /**
+     * Number of selections adapted to code comments
+     */
+    private final long selectionAdaptations;
+    /**
+     * States whether the rewrite has been skipped, as the file did not have to be changed
+     */
+    private final boolean rewriteSkipped;
+    /**
+     * Duration of the operation in nanoseconds
+     */
+    private final long elapsedNanos;
+    
+    /**
+     * Creates new {@link OperationStatistics}
+     * @param operation operation performed
+     * @param failed <code>true</code> if the operation failed
+     * @param bytesRead number of bytes read while parsing the file
+     * @param bytesWritten number of bytes written to the rewritten file
+     * @param linesScanned number of lines scanned
+     * @param regexEvaluations number of lines the tag pattern has been evaluated on
+     * @param selectionAdaptations number of selections adapted to code comments
+     * @param rewriteSkipped <code>true</code> if the file did not have to be changed
+     * @param elapsedNanos duration of the operation in nanoseconds
+     */
+    OperationStatistics(ParserOperation operation, boolean failed, long bytesRead, long bytesWritten, long linesScanned, long regexEvaluations,
+            long selectionAdaptations, boolean rewriteSkipped, long elapsedNanos) {
+        this.operation = operation;
+        this.failed = failed;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.linesScanned = linesScanned;
+        this.regexEvaluations = regexEvaluations;
+        this.selectionAdaptations = selectionAdaptations;
+        this.rewriteSkipped = rewriteSkipped;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Returns the operation performed
+     * @return the {@link ParserOperation}
+     */
+    public ParserOperation getOperation() {
+        return operation;
+    }
+    
+    /**
+     * Returns whether the operation failed with an exception
+     * @return <code>true</code> if the operation failed,<br> <code>false</code> otherwise
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+    
+    /**
+     * Returns the number of bytes read while parsing the file. Bytes copied while rewriting the file are not included.
+     * @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+    
+    /**
+     * Returns the size of the rewritten file
+     * @return the number of bytes written or 0 if the file has not been rewritten
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+    
+    /**
+     * Returns the number of lines scanned. In streaming mode only the lines up to the last selection are scanned.
+     * @return the number of lines scanned
+     */
+    public long getLinesScanned() {
+        return linesScanned;
+    }
+    
+    /**
+     * Returns the number of lines the tag pattern has been evaluated on, i.e. the number of lines passing the literal tag prefilter
+     * @return the number of evaluations
+     */
+    public long getRegexEvaluations() {
+        return regexEvaluations;
+    }
+    
+    /**
+     * Returns the number of selections, which have been moved or extended to avoid destroying code comments
+     * @return the number of adapted selections
+     */
+    public long getSelectionAdaptations() {
+        return selectionAdaptations;
+    }
+    
+    /**
+     * Returns whether the rewrite of the file has been skipped, as there were no tags to be removed
+     * @return <code>true</code> if the file has been left untouched,<br> <code>false</code> otherwise
+     */
+    public boolean isRewriteSkipped() {
+        return rewriteSkipped;
+    }
+    
+    /**
+     * Returns the duration of the operation including the time waiting for the file lock
+     * @param unit {@link TimeUnit} of the result
+     * @return the duration in the given unit
+     */
+    public long getElapsedTime(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s%s: %d bytes read, %d bytes written%s, %d lines, %d regex evaluations, %d adaptations in %d us",
+                operation.getMethodName(), failed ? " (failed)" : "", bytesRead, bytesWritten, rewriteSkipped ? " (skipped)" : "", linesScanned,
+                regexEvaluations, selectionAdaptations, getElapsedTime(TimeUnit.MICROSECONDS));
+    }
+}
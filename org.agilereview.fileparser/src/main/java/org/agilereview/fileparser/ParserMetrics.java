@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+/**
+ * Receiver of the {@link OperationStatistics} of all modifying {@link FileParser} operations. As files are processed by multiple threads, the
+ * implementations have to be thread-safe. The default is {@link #NO_OP}, which disables the collection of statistics altogether.
+ * @see AggregatingParserMetrics
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public interface ParserMetrics {
+    
+    /**
+     * Metrics discarding all statistics. The {@link FileParser} does not even collect the statistics if this instance is set.
+     */
+    ParserMetrics NO_OP = new ParserMetrics() {
+        
+        @Override
+        public void operationCompleted(OperationStatistics statistics) {
+        }
+    };
+    
+    /**
+     * Called after each modifying operation, regardless of whether it succeeded or failed
+     * @param statistics {@link OperationStatistics} of the operation
+     */
+    void operationCompleted(OperationStatistics statistics);
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the {@link OperationMetrics} of {@link AggregatingParserMetrics} as MXBeans, one per {@link ParserOperation}, named
+ * <code>org.agilereview.fileparser:type=ParserMetrics,name=&lt;name&gt;,operation=&lt;method name&gt;</code>. The exporter is optional, the
+ * metrics can be queried directly as well.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class ParserMetricsExporter {
+    
+    /**
+     * Logger instance
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ParserMetricsExporter.class);
+    /**
+     * Domain of all registered MXBeans
+     */
+    public static final String DOMAIN = "org.agilereview.fileparser";
+    
+    /**
+     * Metrics to be published
+     */
+    private final AggregatingParserMetrics metrics;
+    /**
+     * Server the MXBeans are registered with
+     */
+    private final MBeanServer server;
+    /**
+     * Name distinguishing the published metrics from other instances
+     */
+    private final String name;
+    /**
+     * Names of the registered MXBeans
+     */
+    private final List<ObjectName> registered = new ArrayList<ObjectName>();
+    
+    /**
+     * Creates a new {@link ParserMetricsExporter} publishing the given metrics in the platform MBean server
+     * @param metrics {@link AggregatingParserMetrics} to be published
+     * @param name distinguishing the published metrics from other instances
+     */
+    public ParserMetricsExporter(AggregatingParserMetrics metrics, String name) {
+        this(metrics, name, ManagementFactory.getPlatformMBeanServer());
+    }
+    
+    /**
+     * Creates a new {@link ParserMetricsExporter}
+     * @param metrics {@link AggregatingParserMetrics} to be published
+     * @param name distinguishing the published metrics from other instances
+     * @param server {@link MBeanServer} the MXBeans should be registered with
+     */
+    public ParserMetricsExporter(AggregatingParserMetrics metrics, String name, MBeanServer server) {
+        this.metrics = metrics;
+        this.name = name;
+        this.server = server;
+    }
+    
+    /**
+     * Registers the MXBeans of all operations. If one of them could not be registered, the already registered ones are unregistered again.
+     * @throws JMException if an MXBean could not be registered, e.g. as the name is already in use
+     */
+    public synchronized void export() throws JMException {
+        if (!registered.isEmpty()) return;
+        try {
+            for (ParserOperation operation : ParserOperation.values()) {
+                ObjectName objectName = getObjectName(operation);
+                server.registerMBean(metrics.getMetrics(operation), objectName);
+                registered.add(objectName);
+            }
+        } catch (JMException e) {
+            unexport();
+            throw e;
+        }
+    }
+    
+    /**
+     * Unregisters all registered MXBeans. MXBeans which have already been unregistered by others are skipped.
+     * @throws JMException if an MXBean could not be unregistered
+     */
+    public synchronized void unexport() throws JMException {
+        try {
+            for (ObjectName objectName : registered) {
+                try {
+                    server.unregisterMBean(objectName);
+                } catch (InstanceNotFoundException e) {
+                    LOG.debug("MXBean {} has already been unregistered", objectName);
+                }
+            }
+        } finally {
+            registered.clear();
+        }
+    }
+    
+    /**
+     * Returns the name of the MXBean of the given operation
+     * @param operation {@link ParserOperation} whose MXBean name should be returned
+     * @return the {@link ObjectName}
+     * @throws MalformedObjectNameException if the name could not be built
+     */
+    public ObjectName getObjectName(ParserOperation operation) throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN + ":type=ParserMetrics,name=" + ObjectName.quote(name) + ",operation=" + operation.getMethodName());
+    }
+}
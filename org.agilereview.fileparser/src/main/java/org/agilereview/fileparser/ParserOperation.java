@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+/**
+ * Modifying operations of the {@link FileParser}, which are reported to the {@link ParserMetrics}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public enum ParserOperation {
+    
+    /**
+     * {@link FileParser#addTags(java.util.Collection)} and its single selection variant
+     */
+    ADD_TAGS("addTags"),
+    /**
+     * {@link FileParser#removeTags(java.util.Collection)} and its single tag id variant
+     */
+    REMOVE_TAGS("removeTags"),
+    /**
+     * {@link FileParser#clearAllTags()}
+     */
+    CLEAR_ALL_TAGS("clearAllTags"),
+    /**
+     * {@link FileParser#moveTags(String, int, int)}
+     */
+    MOVE_TAGS("moveTags"),
+    /**
+     * {@link FileParser#repairTags()}
+     */
+    REPAIR_TAGS("repairTags");
+    
+    /**
+     * Name of the {@link FileParser} method
+     */
+    private final String methodName;
+    
+    /**
+     * Creates a new {@link ParserOperation}
+     * @param methodName name of the {@link FileParser} method
+     */
+    private ParserOperation(String methodName) {
+        this.methodName = methodName;
+    }
+    
+    /**
+     * Returns the name of the {@link FileParser} method performing the operation
+     * @return the method name
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+}
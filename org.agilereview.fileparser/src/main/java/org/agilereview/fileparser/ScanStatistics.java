@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of a scan of the {@link WorkspaceTagScanner}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class ScanStatistics {
+    
+    /**
+     * Number of files scanned
+     */
+    private final long filesScanned;
+    /**
+     * Number of files containing at least one tag
+     */
+    private final long filesWithTags;
+    /**
+     * Number of files, which could not be scanned
+     */
+    private final long filesFailed;
+    /**
+     * Number of tags found
+     */
+    private final long tagCount;
+    /**
+     * Number of bytes scanned
+     */
+    private final long bytesScanned;
+    /**
+     * Duration of the scan in nanoseconds
+     */
+    private final long elapsedNanos;
+    
+    /**
+     * Creates new {@link ScanStatistics}
+     * @param filesScanned number of files scanned
+     * @param filesWithTags number of files containing at least one tag
+     * @param filesFailed number of files, which could not be scanned
+     * @param tagCount number of tags found
+     * @param bytesScanned number of bytes scanned
+     * @param elapsedNanos duration of the scan in nanoseconds
+     */
+    ScanStatistics(long filesScanned, long filesWithTags, long filesFailed, long tagCount, long bytesScanned, long elapsedNanos) {
+        this.filesScanned = filesScanned;
+        this.filesWithTags = filesWithTags;
+        this.filesFailed = filesFailed;
+        this.tagCount = tagCount;
+        this.bytesScanned = bytesScanned;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Returns the number of files scanned
+     * @return the number of files scanned
+     */
+    public long getFilesScanned() {
+        return filesScanned;
+    }
+    
+    /**
+     * Returns the number of files containing at least one tag
+     * @return the number of files containing tags
+     */
+    public long getFilesWithTags() {
+        return filesWithTags;
+    }
+    
+    /**
+     * Returns the number of files, which could not be scanned
+     * @return the number of failed files
+     */
+    public long getFilesFailed() {
+        return filesFailed;
+    }
+    
+    /**
+     * Returns the number of tags found
+     * @return the number of tags
+     */
+    public long getTagCount() {
+        return tagCount;
+    }
+    
+    /**
+     * Returns the number of bytes scanned
+     * @return the number of bytes
+     */
+    public long getBytesScanned() {
+        return bytesScanned;
+    }
+    
+    /**
+     * Returns the duration of the scan
+     * @param unit {@link TimeUnit} of the result
+     * @return the duration in the given unit
+     */
+    public long getElapsedTime(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Returns the throughput of the scan
+     * @return the number of files scanned per second
+     */
+    public double getFilesPerSecond() {
+        return elapsedNanos == 0 ? 0 : filesScanned * 1e9 / elapsedNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d files (%d with tags, %d failed), %d tags, %d bytes in %d ms (%.0f files/s)", filesScanned, filesWithTags, filesFailed,
+                tagCount, bytesScanned, getElapsedTime(TimeUnit.MILLISECONDS), getFilesPerSecond());
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks the tags of a file for consistency within a single pass. Start tags are kept on a stack per tag id, such that each end tag is matched with
+ * the innermost open start tag of its tag id.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class TagConsistencyChecker {
+    
+    /**
+     * Hidden constructor of a utility class
+     */
+    private TagConsistencyChecker() {
+    }
+    
+    /**
+     * Checks the given tags for inconsistencies
+     * @param tags {@link TagOccurrence}s of a file in the order of their occurrence
+     * @return the {@link TagInconsistency}s in the order of their tags
+     */
+    static List<TagInconsistency> check(List<TagOccurrence> tags) {
+        if (tags.isEmpty()) return Collections.emptyList();
+        TagInconsistency.Kind[] kinds = new TagInconsistency.Kind[tags.size()];
+        Map<String, ArrayDeque<Integer>> openStarts = new HashMap<String, ArrayDeque<Integer>>();
+        Set<String> completedTagIds = new HashSet<String>();
+        boolean consistent = true;
+        
+        for (int i = 0; i < tags.size(); i++) {
+            TagOccurrence tag = tags.get(i);
+            ArrayDeque<Integer> starts = openStarts.get(tag.getTagId());
+            switch (tag.getKind()) {
+            case START:
+                if (starts == null) {
+                    starts = new ArrayDeque<Integer>();
+                    openStarts.put(tag.getTagId(), starts);
+                }
+                starts.push(i);
+                break;
+            case END:
+                if (starts == null || starts.isEmpty()) {
+                    kinds[i] = TagInconsistency.Kind.ORPHAN_END;
+                    consistent = false;
+                } else {
+                    int start = starts.pop();
+                    if (!completedTagIds.add(tag.getTagId())) {
+                        kinds[start] = TagInconsistency.Kind.DUPLICATE;
+                        kinds[i] = TagInconsistency.Kind.DUPLICATE;
+                        consistent = false;
+                    }
+                }
+                break;
+            case SINGLE_LINE:
+                if (!completedTagIds.add(tag.getTagId())) {
+                    kinds[i] = TagInconsistency.Kind.DUPLICATE;
+                    consistent = false;
+                }
+                break;
+            default:
+                kinds[i] = TagInconsistency.Kind.UNMARKED;
+                consistent = false;
+            }
+        }
+        for (ArrayDeque<Integer> starts : openStarts.values()) {
+            for (int start : starts) {
+                kinds[start] = TagInconsistency.Kind.ORPHAN_START;
+                consistent = false;
+            }
+        }
+        if (consistent) return Collections.emptyList();
+        
+        List<TagInconsistency> inconsistencies = new ArrayList<TagInconsistency>();
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] != null) {
+                inconsistencies.add(new TagInconsistency(kinds[i], tags.get(i)));
+            }
+        }
+        return inconsistencies;
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+/**
+ * Comment tag violating the tag structure of a file, e.g. a start tag without matching end tag as it might be left over by a merge
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class TagInconsistency {
+    
+    /**
+     * Kind of an inconsistency
+     */
+    public enum Kind {
+        /**
+         * Start tag without a following end tag with the same tag id
+         */
+        ORPHAN_START,
+        /**
+         * End tag without a preceding start tag with the same tag id, which also covers end tags located in front of their start tag
+         */
+        ORPHAN_END,
+        /**
+         * Tag which is neither marked as start nor as end tag
+         */
+        UNMARKED,
+        /**
+         * Complete comment whose tag id has already been used by a previous comment of the same file
+         */
+        DUPLICATE
+    }
+    
+    /**
+     * Kind of the inconsistency
+     */
+    private final Kind kind;
+    /**
+     * Tag causing the inconsistency
+     */
+    private final TagOccurrence tag;
+    
+    /**
+     * Creates a new {@link TagInconsistency}
+     * @param kind kind of the inconsistency
+     * @param tag {@link TagOccurrence} causing the inconsistency
+     */
+    TagInconsistency(Kind kind, TagOccurrence tag) {
+        this.kind = kind;
+        this.tag = tag;
+    }
+    
+    /**
+     * Returns the kind of the inconsistency
+     * @return the {@link Kind} of the inconsistency
+     */
+    public Kind getKind() {
+        return kind;
+    }
+    
+    /**
+     * Returns the tag causing the inconsistency
+     * @return the {@link TagOccurrence} of the tag
+     */
+    public TagOccurrence getTag() {
+        return tag;
+    }
+    
+    /**
+     * Checks whether the tag does not belong to any comment and is therefore removed by a repair. Duplicates form complete comments and are only
+     * reported, as it cannot be decided which of the comments is the valid one.
+     * @return <code>true</code> if the tag is dangling,<br> <code>false</code> otherwise
+     */
+    public boolean isDangling() {
+        return kind != Kind.DUPLICATE;
+    }
+    
+    @Override
+    public String toString() {
+        return kind + " " + tag;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Callback of the {@link WorkspaceTagValidator}, which is notified as soon as a file has been checked. As files are checked in parallel, the
+ * methods are called concurrently from the worker threads and have to be thread-safe.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public interface TagInconsistencyListener {
+    
+    /**
+     * Called for each checked file containing at least one inconsistency
+     * @param file which has been checked
+     * @param inconsistencies {@link TagInconsistency}s of the file
+     * @param repaired states whether the dangling tags of the file have been removed
+     */
+    void inconsistenciesFound(Path file, List<TagInconsistency> inconsistencies, boolean repaired);
+    
+    /**
+     * Called for each file, which could not be checked or repaired
+     * @param file which could not be checked
+     * @param e exception which occurred
+     */
+    void validationFailed(Path file, IOException e);
+}
@@ -0,0 +1,357 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent index of the comment tags of many files. For each file the size, the modification time and a CRC32 checksum of its contents are stored
+ * together with its tags, such that a file only has to be parsed again if its fingerprint changed. The index is stored in a compact binary format
+ * with fixed-width big-endian fields, which is read at once on {@link #load(Path)}. The tags of a loaded entry are decoded from the read contents
+ * not before they are requested. The index file is not kept open or mapped, such that it can be replaced by {@link #save(Path)} on all platforms.
+ * An index can be used by multiple threads concurrently.<br>
+ * <br>
+ * Format: <code>magic:int version:int entryCount:int entry*</code> with<br>
+ * <code>entry = path:string size:long lastModified:long crc:int tagBlockLength:int tagCount:int tag*</code>,<br>
+ * <code>tag = tagId:string line:int column:int kind:byte cleanup:byte</code> and<br>
+ * <code>string = length:int utf8Bytes</code>
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class TagIndex {
+    
+    /**
+     * Logger instance
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(TagIndex.class);
+    /**
+     * Magic number identifying an index file
+     */
+    private static final int MAGIC = 0x41525449;
+    /**
+     * Version of the index format
+     */
+    private static final int VERSION = 1;
+    /**
+     * Charset of all strings within the index file
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    
+    /**
+     * Entries by normalized absolute file path
+     */
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    
+    /**
+     * Loads the index from the given file. If the file does not exist or is no valid index file, an empty index will be returned.
+     * @param indexFile file to load the index from
+     * @return the loaded {@link TagIndex}
+     * @throws IOException if the file could not be read
+     */
+    public static TagIndex load(Path indexFile) throws IOException {
+        TagIndex index = new TagIndex();
+        if (!Files.exists(indexFile)) return index;
+        // a mapping would keep the file locked on Windows until it is garbage collected and prevent replacing it on save
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        try {
+            if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+                LOG.debug("{} is no tag index of version {}, starting with an empty index", indexFile, VERSION);
+                return index;
+            }
+            int entryCount = data.getInt();
+            for (int i = 0; i < entryCount; i++) {
+                String path = getString(data);
+                long size = data.getLong();
+                long lastModified = data.getLong();
+                int crc = data.getInt();
+                int tagBlockLength = data.getInt();
+                int tagOffset = data.position();
+                data.position(tagOffset + tagBlockLength);
+                index.entries.put(path, new Entry(size, lastModified, crc, data, tagOffset));
+            }
+        } catch (RuntimeException e) {
+            LOG.debug("{} is corrupted, starting with an empty index: {}", indexFile, e.toString());
+            index.entries.clear();
+        }
+        return index;
+    }
+    
+    /**
+     * Saves the index to the given file. The file is replaced atomically.
+     * @param indexFile file to save the index to
+     * @throws IOException if the file could not be written
+     */
+    public void save(Path indexFile) throws IOException {
+        List<Map.Entry<String, Entry>> snapshot = new ArrayList<Map.Entry<String, Entry>>(entries.entrySet());
+        int capacity = 12;
+        List<byte[]> paths = new ArrayList<byte[]>(snapshot.size());
+        List<byte[][]> tagIds = new ArrayList<byte[][]>(snapshot.size());
+        for (Map.Entry<String, Entry> entry : snapshot) {
+            byte[] path = entry.getKey().getBytes(UTF8);
+            List<TagOccurrence> tags = entry.getValue().getTags();
+            byte[][] ids = new byte[tags.size()][];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = tags.get(i).getTagId().getBytes(UTF8);
+                capacity += 4 + ids[i].length + 10;
+            }
+            paths.add(path);
+            tagIds.add(ids);
+            capacity += 4 + path.length + 28;
+        }
+        
+        ByteBuffer data = ByteBuffer.allocate(capacity);
+        data.putInt(MAGIC).putInt(VERSION).putInt(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            Entry entry = snapshot.get(i).getValue();
+            List<TagOccurrence> tags = entry.getTags();
+            byte[][] ids = tagIds.get(i);
+            data.putInt(paths.get(i).length).put(paths.get(i));
+            data.putLong(entry.size).putLong(entry.lastModified).putInt(entry.crc);
+            int tagBlockLength = 4;
+            for (byte[] id : ids) {
+                tagBlockLength += 4 + id.length + 10;
+            }
+            data.putInt(tagBlockLength).putInt(tags.size());
+            for (int j = 0; j < ids.length; j++) {
+                TagOccurrence tag = tags.get(j);
+                data.putInt(ids[j].length).put(ids[j]).putInt(tag.getLine()).putInt(tag.getColumn());
+                data.put((byte) tag.getKind().ordinal()).put((byte) (tag.isCleanup() ? 1 : 0));
+            }
+        }
+        data.flip();
+        try (AtomicFileWriter writer = new AtomicFileWriter(indexFile)) {
+            writer.write(data);
+            writer.commit();
+        }
+    }
+    
+    /**
+     * Returns the indexed tags of the given file without checking whether the file has changed
+     * @param file whose tags should be returned
+     * @return the {@link TagOccurrence}s of the file or <code>null</code> if the file is not indexed
+     */
+    public List<TagOccurrence> getTags(Path file) {
+        Entry entry = entries.get(toKey(file));
+        return entry == null ? null : entry.getTags();
+    }
+    
+    /**
+     * Returns all indexed files
+     * @return a new set of the normalized absolute paths of all indexed files
+     */
+    public Set<String> getFiles() {
+        return new HashSet<String>(entries.keySet());
+    }
+    
+    /**
+     * Returns the tags of the given file and updates the index if the file has changed. The file is only parsed if its size or modification time
+     * differs from the index entry and its contents do not match the indexed checksum. If the file does not exist anymore, its entry is removed.
+     * @param file whose tags should be returned
+     * @param commentSigns multi-line comment start and end sign of the file
+     * @return the {@link TagOccurrence}s of the file
+     * @throws IOException if the file could not be read
+     */
+    public List<TagOccurrence> refresh(Path file, String[] commentSigns) throws IOException {
+        return refresh(file, new LanguageProfile(commentSigns[0] + " " + commentSigns[1], commentSigns[0], commentSigns[1]), false);
+    }
+    
+    /**
+     * Returns the tags of the given file and updates the index if the file has changed as described in {@link #refresh(Path, String[])}
+     * @param file whose tags should be returned
+     * @param profile {@link LanguageProfile} of the file
+     * @return the {@link TagOccurrence}s of the file
+     * @throws IOException if the file could not be read
+     */
+    public List<TagOccurrence> refresh(Path file, LanguageProfile profile) throws IOException {
+        return refresh(file, profile, false);
+    }
+    
+    /**
+     * Removes the entry of the given file
+     * @param file whose entry should be removed
+     */
+    public void remove(Path file) {
+        entries.remove(toKey(file));
+    }
+    
+    /**
+     * Removes the entries of all files within the given directory, which are not contained in the given set of files
+     * @param root directory whose entries should be checked
+     * @param files normalized absolute paths of all files within the directory, which should be retained
+     */
+    void retain(Path root, Set<String> files) {
+        String prefix = toKey(root) + root.getFileSystem().getSeparator();
+        for (Iterator<String> it = entries.keySet().iterator(); it.hasNext();) {
+            String path = it.next();
+            if (path.startsWith(prefix) && !files.contains(path)) {
+                it.remove();
+            }
+        }
+    }
+    
+    /**
+     * Returns the tags of the given file and updates the index if the file has changed
+     * @param file whose tags should be returned
+     * @param profile {@link LanguageProfile} of the file
+     * @param force states whether the file should be parsed even if its fingerprint did not change
+     * @return the {@link TagOccurrence}s of the file
+     * @throws IOException if the file could not be read
+     */
+    List<TagOccurrence> refresh(Path file, LanguageProfile profile, boolean force) throws IOException {
+        String key = toKey(file);
+        Entry entry = entries.get(key);
+        BasicFileAttributes attributes;
+        byte[] contents;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!force && entry != null && entry.size == attributes.size() && entry.lastModified == attributes.lastModifiedTime().toMillis()) {
+                return entry.getTags();
+            }
+            contents = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            entries.remove(key);
+            throw e;
+        }
+        
+        CRC32 crc32 = new CRC32();
+        crc32.update(contents);
+        int crc = (int) crc32.getValue();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        List<TagOccurrence> tags;
+        if (!force && entry != null && entry.size == contents.length && entry.crc == crc) {
+            tags = entry.getTags();
+        } else {
+            tags = Collections.unmodifiableList(new FileParser(file.toFile(), profile).listTags(contents));
+        }
+        entries.put(key, new Entry(contents.length, lastModified, crc, tags));
+        return tags;
+    }
+    
+    /**
+     * Returns the key of the given file
+     * @param file whose key should be returned
+     * @return the normalized absolute path of the file
+     */
+    static String toKey(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+    
+    /**
+     * Reads a string at the current position of the given buffer
+     * @param data buffer to read from
+     * @return the string read
+     */
+    private static String getString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getInt()];
+        data.get(bytes);
+        return new String(bytes, UTF8);
+    }
+    
+    /**
+     * Index entry of a single file
+     */
+    private static class Entry {
+        
+        /**
+         * Size of the file in bytes
+         */
+        private final long size;
+        /**
+         * Modification time of the file in milliseconds
+         */
+        private final long lastModified;
+        /**
+         * CRC32 checksum of the file contents
+         */
+        private final int crc;
+        /**
+         * Contents of the index file containing the encoded tags or <code>null</code> if the tags have been decoded
+         */
+        private ByteBuffer data;
+        /**
+         * Offset of the encoded tags within the contents of the index file
+         */
+        private final int tagOffset;
+        /**
+         * Decoded tags or <code>null</code> if the tags have not been decoded yet
+         */
+        private List<TagOccurrence> tags;
+        
+        /**
+         * Creates a new {@link Entry} for decoded tags
+         * @param size of the file in bytes
+         * @param lastModified modification time of the file in milliseconds
+         * @param crc CRC32 checksum of the file contents
+         * @param tags {@link TagOccurrence}s of the file
+         */
+        Entry(long size, long lastModified, int crc, List<TagOccurrence> tags) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.crc = crc;
+            this.tags = tags;
+            this.tagOffset = -1;
+        }
+        
+        /**
+         * Creates a new {@link Entry} whose tags are decoded lazily from the given contents of the index file
+         * @param size of the file in bytes
+         * @param lastModified modification time of the file in milliseconds
+         * @param crc CRC32 checksum of the file contents
+         * @param data contents of the index file
+         * @param tagOffset offset of the encoded tags within the contents of the index file
+         */
+        Entry(long size, long lastModified, int crc, ByteBuffer data, int tagOffset) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.crc = crc;
+            this.data = data;
+            this.tagOffset = tagOffset;
+        }
+        
+        /**
+         * Returns the tags of the file, which are decoded on first access
+         * @return the {@link TagOccurrence}s of the file
+         */
+        synchronized List<TagOccurrence> getTags() {
+            if (tags == null) {
+                ByteBuffer buffer = data.duplicate();
+                buffer.position(tagOffset);
+                int tagCount = buffer.getInt();
+                List<TagOccurrence> decoded = new ArrayList<TagOccurrence>(tagCount);
+                for (int i = 0; i < tagCount; i++) {
+                    String tagId = getString(buffer);
+                    int line = buffer.getInt();
+                    int column = buffer.getInt();
+                    TagOccurrence.Kind kind = TagOccurrence.Kind.values()[buffer.get()];
+                    decoded.add(new TagOccurrence(tagId, line, column, kind, buffer.get() != 0));
+                }
+                tags = Collections.unmodifiableList(decoded);
+                data = null;
+            }
+            return tags;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import org.agilereview.common.parser.CommentTagScanner;
+
+/**
+ * Reusable matcher for AgileReview comment tags. Lines are checked for the literal tag prefixes before they are scanned by a
+ * {@link CommentTagScanner}, such that lines without tags are processed by a plain {@link String#indexOf(String)}. An instance must not be used by
+ * multiple threads concurrently.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+class TagMatcher {
+    
+    /**
+     * Literal prefixes every tag starts with
+     */
+    private final String[] tagPrefixes;
+    /**
+     * Scanner for all tags
+     */
+    private final CommentTagScanner scanner;
+    /**
+     * Number of lines the scanner has been run on
+     */
+    private long evaluations;
+    
+    /**
+     * Creates a new {@link TagMatcher} for the given multi-line comment signs
+     * @param multilineCommentStartSign the multi-line start sign (e.g. /* for java)
+     * @param multilineCommentEndSign the multi-line end sign (e.g. {@literal *}/ for java)
+     */
+    TagMatcher(String multilineCommentStartSign, String multilineCommentEndSign) {
+        this(new LanguageProfile(multilineCommentStartSign + " " + multilineCommentEndSign, multilineCommentStartSign, multilineCommentEndSign));
+    }
+    
+    /**
+     * Creates a new {@link TagMatcher} reusing the tag prefixes of the given profile
+     * @param profile {@link LanguageProfile} of the lines to be matched
+     */
+    TagMatcher(LanguageProfile profile) {
+        tagPrefixes = profile.getTagPrefixes();
+        scanner = profile.newTagScanner();
+    }
+    
+    /**
+     * Checks whether the given line might contain a tag by searching for the literal tag prefixes
+     * @param line to be checked
+     * @return <code>false</code> if the line does not contain any tag,<br> <code>true</code> if the line might contain a tag
+     */
+    boolean mightContainTag(String line) {
+        for (String prefix : tagPrefixes) {
+            if (line.indexOf(prefix) >= 0) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Removes all tags from the given line
+     * @param line to be cleaned
+     * @return the line without any tags
+     */
+    String removeTags(String line) {
+        if (!mightContainTag(line)) return line;
+        evaluations++;
+        if (!scanner.reset(line).find()) return line;
+        return removeFoundTags(scanner, line);
+    }
+    
+    /**
+     * Returns the number of lines {@link #removeTags(String)} has run the tag scanner on, i.e. which passed the literal prefilter
+     * @return the number of evaluations
+     */
+    long getEvaluations() {
+        return evaluations;
+    }
+    
+    /**
+     * Removes the tag the given scanner is positioned at as well as all following tags found by the scanner from the given line
+     * @param scanner {@link CommentTagScanner} which has found the first tag to be removed in the given line
+     * @param line to be cleaned
+     * @return the line without the tags
+     */
+    static String removeFoundTags(CommentTagScanner scanner, String line) {
+        StringBuilder result = new StringBuilder(line.length());
+        int last = 0;
+        do {
+            result.append(line, last, scanner.start());
+            last = scanner.end();
+        } while (scanner.find());
+        result.append(line, last, line.length());
+        return result.toString();
+    }
+}
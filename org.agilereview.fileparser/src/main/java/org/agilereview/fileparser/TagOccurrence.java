@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+/**
+ * Occurrence of an AgileReview comment tag within a file
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class TagOccurrence {
+    
+    /**
+     * Kind of a comment tag
+     */
+    public enum Kind {
+        /**
+         * Start tag of a multi-line comment
+         */
+        START,
+        /**
+         * End tag of a multi-line comment
+         */
+        END,
+        /**
+         * Tag of a single line comment, which is marked as start and end tag
+         */
+        SINGLE_LINE,
+        /**
+         * Tag which is neither marked as start nor as end tag
+         */
+        UNMARKED;
+        
+        /**
+         * Returns the kind of a tag with the given markers
+         * @param isStartTag states whether the tag is marked as start tag
+         * @param isEndTag states whether the tag is marked as end tag
+         * @return the kind of the tag
+         */
+        static Kind of(boolean isStartTag, boolean isEndTag) {
+            if (isStartTag) {
+                return isEndTag ? SINGLE_LINE : START;
+            }
+            return isEndTag ? END : UNMARKED;
+        }
+    }
+    
+    /**
+     * Tag id of the tag
+     */
+    private final String tagId;
+    /**
+     * Line of the tag
+     */
+    private final int line;
+    /**
+     * Column of the tag
+     */
+    private final int column;
+    /**
+     * Kind of the tag
+     */
+    private final Kind kind;
+    /**
+     * States whether the tag is marked for line cleanup
+     */
+    private final boolean cleanup;
+    
+    /**
+     * Creates a new {@link TagOccurrence}
+     * @param tagId tag id of the tag
+     * @param line line of the tag, starting at 1
+     * @param column column of the first character of the tag, starting at 0
+     * @param kind kind of the tag
+     * @param cleanup states whether the tag is marked for line cleanup
+     */
+    public TagOccurrence(String tagId, int line, int column, Kind kind, boolean cleanup) {
+        this.tagId = tagId;
+        this.line = line;
+        this.column = column;
+        this.kind = kind;
+        this.cleanup = cleanup;
+    }
+    
+    /**
+     * Returns the tag id of the tag
+     * @return the tag id
+     */
+    public String getTagId() {
+        return tagId;
+    }
+    
+    /**
+     * Returns the line of the tag
+     * @return the line, starting at 1
+     */
+    public int getLine() {
+        return line;
+    }
+    
+    /**
+     * Returns the column of the first character of the tag
+     * @return the column, starting at 0
+     */
+    public int getColumn() {
+        return column;
+    }
+    
+    /**
+     * Returns the kind of the tag
+     * @return the {@link Kind} of the tag
+     */
+    public Kind getKind() {
+        return kind;
+    }
+    
+    /**
+     * Checks whether the tag is marked such that its line should be removed if it is empty after comment removal
+     * @return <code>true</code> if the tag is marked for line cleanup,<br> <code>false</code> otherwise
+     */
+    public boolean isCleanup() {
+        return cleanup;
+    }
+    
+    @Override
+    public String toString() {
+        return tagId + " " + kind + (cleanup ? " (cleanup)" : "") + " [" + line + ":" + column + "]";
+    }
+}
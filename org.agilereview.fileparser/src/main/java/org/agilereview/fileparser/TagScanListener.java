@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Callback of the {@link WorkspaceTagScanner}, which is notified as soon as a file has been scanned. As files are scanned in parallel, the methods
+ * are called concurrently from the worker threads and have to be thread-safe.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public interface TagScanListener {
+    
+    /**
+     * Called for each scanned file containing at least one tag
+     * @param file which has been scanned
+     * @param tags {@link TagOccurrence}s of all tags in the file
+     */
+    void tagsFound(Path file, List<TagOccurrence> tags);
+    
+    /**
+     * Called for each file, which could not be scanned
+     * @param file which could not be scanned
+     * @param e exception which occurred
+     */
+    void scanFailed(Path file, IOException e);
+}
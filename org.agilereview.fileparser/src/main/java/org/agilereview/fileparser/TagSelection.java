@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+/**
+ * Selection of lines, which should be tagged with the given tag id
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class TagSelection {
+    
+    /**
+     * Tag id to be inserted
+     */
+    private final String tagId;
+    /**
+     * Start line of the comment
+     */
+    private final int startLine;
+    /**
+     * End line of the comment
+     */
+    private final int endLine;
+    
+    /**
+     * Creates a new {@link TagSelection}
+     * @param tagId tag id to be inserted
+     * @param startLine start line of the comment
+     * @param endLine end line of the comment
+     */
+    public TagSelection(String tagId, int startLine, int endLine) {
+        this.tagId = tagId;
+        this.startLine = startLine;
+        this.endLine = endLine;
+    }
+    
+    /**
+     * Returns the tag id to be inserted
+     * @return the tag id
+     */
+    public String getTagId() {
+        return tagId;
+    }
+    
+    /**
+     * Returns the start line of the comment
+     * @return the start line
+     */
+    public int getStartLine() {
+        return startLine;
+    }
+    
+    /**
+     * Returns the end line of the comment
+     * @return the end line
+     */
+    public int getEndLine() {
+        return endLine;
+    }
+    
+    @Override
+    public String toString() {
+        return tagId + " [" + startLine + ", " + endLine + "]";
+    }
+}
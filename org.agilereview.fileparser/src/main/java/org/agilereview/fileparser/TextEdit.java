@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.List;
+
+/**
+ * Replacement of a range of a document by a new text. The offset and length always refer to the document before any edit of the same edit list has
+ * been applied.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class TextEdit {
+    
+    /**
+     * Offset of the replaced range
+     */
+    private final int offset;
+    /**
+     * Length of the replaced range
+     */
+    private final int length;
+    /**
+     * Text replacing the range
+     */
+    private final String replacement;
+    
+    /**
+     * Creates a new {@link TextEdit}
+     * @param offset of the replaced range
+     * @param length of the replaced range
+     * @param replacement text replacing the range
+     */
+    public TextEdit(int offset, int length, String replacement) {
+        this.offset = offset;
+        this.length = length;
+        this.replacement = replacement;
+    }
+    
+    /**
+     * Returns the offset of the replaced range
+     * @return the offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+    
+    /**
+     * Returns the length of the replaced range
+     * @return the length
+     */
+    public int getLength() {
+        return length;
+    }
+    
+    /**
+     * Returns the text replacing the range
+     * @return the replacement
+     */
+    public String getReplacement() {
+        return replacement;
+    }
+    
+    /**
+     * Applies the given edits to the given document
+     * @param document to be edited
+     * @param edits {@link TextEdit}s sorted by offset, which do not overlap
+     * @return the edited document
+     */
+    public static String apply(CharSequence document, List<TextEdit> edits) {
+        StringBuilder result = new StringBuilder(document.length());
+        int last = 0;
+        for (TextEdit edit : edits) {
+            result.append(document, last, edit.offset).append(edit.replacement);
+            last = edit.offset + edit.length;
+        }
+        return result.append(document, last, document.length()).toString();
+    }
+    
+    /**
+     * Appends the given edit to the given list of edits. If the edit starts right at the end of the last edit of the list, both edits are merged.
+     * @param edits {@link TextEdit}s sorted by offset, which do not overlap
+     * @param edit {@link TextEdit} starting behind all edits of the list
+     */
+    static void addMerged(List<TextEdit> edits, TextEdit edit) {
+        if (!edits.isEmpty()) {
+            TextEdit last = edits.get(edits.size() - 1);
+            if (last.offset + last.length == edit.offset) {
+                edits.set(edits.size() - 1, new TextEdit(last.offset, last.length + edit.length, last.replacement + edit.replacement));
+                return;
+            }
+        }
+        edits.add(edit);
+    }
+    
+    @Override
+    public String toString() {
+        return "[" + offset + ", " + length + ") -> \"" + replacement + "\"";
+    }
+}
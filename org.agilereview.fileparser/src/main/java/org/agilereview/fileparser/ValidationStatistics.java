@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of a validation of the {@link WorkspaceTagValidator}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class ValidationStatistics {
+    
+    /**
+     * Number of files checked
+     */
+    private final long filesChecked;
+    /**
+     * Number of files containing at least one inconsistency
+     */
+    private final long filesInconsistent;
+    /**
+     * Number of files rewritten by the repair
+     */
+    private final long filesRepaired;
+    /**
+     * Number of files, which could not be checked or repaired
+     */
+    private final long filesFailed;
+    /**
+     * Number of inconsistencies found
+     */
+    private final long inconsistencyCount;
+    /**
+     * Duration of the validation in nanoseconds
+     */
+    private final long elapsedNanos;
+    
+    /**
+     * Creates new {@link ValidationStatistics}
+     * @param filesChecked number of files checked
+     * @param filesInconsistent number of files containing at least one inconsistency
+     * @param filesRepaired number of files rewritten by the repair
+     * @param filesFailed number of files, which could not be checked or repaired
+     * @param inconsistencyCount number of inconsistencies found
+     * @param elapsedNanos duration of the validation in nanoseconds
+     */
+    ValidationStatistics(long filesChecked, long filesInconsistent, long filesRepaired, long filesFailed, long inconsistencyCount,
+            long elapsedNanos) {
+        this.filesChecked = filesChecked;
+        this.filesInconsistent = filesInconsistent;
+        this.filesRepaired = filesRepaired;
+        this.filesFailed = filesFailed;
+        this.inconsistencyCount = inconsistencyCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Returns the number of files checked
+     * @return the number of files checked
+     */
+    public long getFilesChecked() {
+        return filesChecked;
+    }
+    
+    /**
+     * Returns the number of files containing at least one inconsistency
+     * @return the number of inconsistent files
+     */
+    public long getFilesInconsistent() {
+        return filesInconsistent;
+    }
+    
+    /**
+     * Returns the number of files rewritten by the repair
+     * @return the number of repaired files
+     */
+    public long getFilesRepaired() {
+        return filesRepaired;
+    }
+    
+    /**
+     * Returns the number of files, which could not be checked or repaired
+     * @return the number of failed files
+     */
+    public long getFilesFailed() {
+        return filesFailed;
+    }
+    
+    /**
+     * Returns the number of inconsistencies found
+     * @return the number of inconsistencies
+     */
+    public long getInconsistencyCount() {
+        return inconsistencyCount;
+    }
+    
+    /**
+     * Returns the duration of the validation
+     * @param unit {@link TimeUnit} of the result
+     * @return the duration in the given unit
+     */
+    public long getElapsedTime(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d files (%d inconsistent, %d repaired, %d failed), %d inconsistencies in %d ms", filesChecked, filesInconsistent,
+                filesRepaired, filesFailed, inconsistencyCount, getElapsedTime(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Removes all AgileReview comment tags from a whole directory tree. The tree is walked on the calling thread, whereas the files are processed in
+ * parallel by a bounded number of worker threads. Each file is first checked for the literal tag prefixes on byte level, such that files without
+ * tags are neither decoded nor rewritten and keep their modification time.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class WorkspaceTagCleaner {
+    
+    /**
+     * Logger instance
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(WorkspaceTagCleaner.class);
+    /**
+     * Language profiles of all files to be processed
+     */
+    private final LanguageProfileRegistry profiles;
+    /**
+     * Number of files processed in parallel
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /**
+     * {@link TagIndex} to be updated for each rewritten file or <code>null</code> if no index should be updated
+     */
+    private TagIndex tagIndex;
+    
+    /**
+     * Creates a new {@link WorkspaceTagCleaner} for the {@link LanguageProfileRegistry#getDefault() default language profiles}
+     */
+    public WorkspaceTagCleaner() {
+        this(LanguageProfileRegistry.getDefault());
+    }
+    
+    /**
+     * Creates a new {@link WorkspaceTagCleaner}, which only processes files with one of the given extensions
+     * @param commentSigns multi-line comment start and end sign by file extension (without leading dot)
+     */
+    public WorkspaceTagCleaner(Map<String, String[]> commentSigns) {
+        this(LanguageProfileRegistry.fromCommentSigns(commentSigns));
+    }
+    
+    /**
+     * Creates a new {@link WorkspaceTagCleaner}, which only processes files with an extension of one of the profiles of the given registry
+     * @param profiles {@link LanguageProfileRegistry} of all files to be processed
+     */
+    public WorkspaceTagCleaner(LanguageProfileRegistry profiles) {
+        this.profiles = profiles;
+    }
+    
+    /**
+     * Sets the maximum number of files processed in parallel. Defaults to the number of available processors.
+     * @param parallelism number of worker threads
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Sets the {@link TagIndex} whose entries are updated for each rewritten file
+     * @param tagIndex {@link TagIndex} to be updated or <code>null</code> if no index should be updated
+     */
+    public void setTagIndex(TagIndex tagIndex) {
+        this.tagIndex = tagIndex;
+    }
+    
+    /**
+     * Removes all tags from all files with a known extension within the given directory tree. The method returns after all files have been
+     * processed. Files, which could not be processed, are logged and skipped.
+     * @param root directory to be cleaned
+     * @return the {@link CleanupStatistics} of the cleanup
+     * @throws IOException if the directory tree could not be walked
+     * @throws InterruptedException if the calling thread has been interrupted while waiting for the workers
+     */
+    public CleanupStatistics clearAllTags(Path root) throws IOException, InterruptedException {
+        final AtomicLong filesScanned = new AtomicLong();
+        final AtomicLong filesModified = new AtomicLong();
+        final AtomicLong filesFailed = new AtomicLong();
+        final AtomicLong bytesRewritten = new AtomicLong();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long startTime = System.nanoTime();
+        
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                
+                @Override
+                public FileVisitResult visitFile(final Path file, BasicFileAttributes attrs) {
+                    final LanguageProfile profile = profiles.getProfile(file);
+                    if (profile == null || !attrs.isRegularFile()) return FileVisitResult.CONTINUE;
+                    pool.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                filesScanned.incrementAndGet();
+                                if (!profile.getPrefilter().mightContainTag(file)) return;
+                                FileParser parser = new FileParser(file.toFile(), profile);
+                                parser.setTagIndex(tagIndex);
+                                if (parser.removeMatchingTags(null)) {
+                                    filesModified.incrementAndGet();
+                                    bytesRewritten.addAndGet(Files.size(file));
+                                }
+                            } catch (IOException e) {
+                                filesFailed.incrementAndGet();
+                                LOG.warn("Could not remove tags from {}: {}", file, e.getMessage());
+                            } catch (RuntimeException e) {
+                                filesFailed.incrementAndGet();
+                                LOG.error("Could not remove tags from {}", file, e);
+                            }
+                        }
+                    });
+                    return FileVisitResult.CONTINUE;
+                }
+                
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    if (profiles.getProfile(file) != null) {
+                        filesFailed.incrementAndGet();
+                        LOG.warn("Could not access {}: {}", file, e.getMessage());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            pool.shutdownNow();
+            throw e;
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            throw e;
+        }
+        
+        CleanupStatistics statistics = new CleanupStatistics(filesScanned.get(), filesModified.get(), filesFailed.get(), bytesRewritten.get(),
+                System.nanoTime() - startTime);
+        LOG.debug("Cleaned {}: {}", root, statistics);
+        return statistics;
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans a whole directory tree for AgileReview comment tags. The tree is walked on the calling thread, whereas all files with a known extension
+ * are scanned in parallel by a {@link ForkJoinPool}. The tags of each file are passed to a {@link TagScanListener} as soon as the file has been
+ * scanned.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class WorkspaceTagScanner {
+    
+    /**
+     * Logger instance
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(WorkspaceTagScanner.class);
+    /**
+     * Language profiles of all files to be scanned
+     */
+    private final LanguageProfileRegistry profiles;
+    /**
+     * Number of files scanned in parallel
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /**
+     * {@link TagIndex} used to skip unchanged files or <code>null</code> if all files should be parsed
+     */
+    private TagIndex tagIndex;
+    
+    /**
+     * Creates a new {@link WorkspaceTagScanner} for the {@link LanguageProfileRegistry#getDefault() default language profiles}
+     */
+    public WorkspaceTagScanner() {
+        this(LanguageProfileRegistry.getDefault());
+    }
+    
+    /**
+     * Creates a new {@link WorkspaceTagScanner}, which only scans files with one of the given extensions
+     * @param commentSigns multi-line comment start and end sign by file extension (without leading dot)
+     */
+    public WorkspaceTagScanner(Map<String, String[]> commentSigns) {
+        this(LanguageProfileRegistry.fromCommentSigns(commentSigns));
+    }
+    
+    /**
+     * Creates a new {@link WorkspaceTagScanner}, which only scans files with an extension of one of the profiles of the given registry
+     * @param profiles {@link LanguageProfileRegistry} of all files to be scanned
+     */
+    public WorkspaceTagScanner(LanguageProfileRegistry profiles) {
+        this.profiles = profiles;
+    }
+    
+    /**
+     * Returns the multi-line comment signs of the {@link LanguageProfileRegistry#getDefault() default language profiles} by file extension
+     * @return a new modifiable map of multi-line comment signs by file extension
+     */
+    public static Map<String, String[]> getDefaultCommentSigns() {
+        Map<String, String[]> commentSigns = new HashMap<String, String[]>();
+        for (LanguageProfile profile : LanguageProfileRegistry.getDefault().getProfiles()) {
+            for (String extension : profile.getExtensions()) {
+                commentSigns.put(extension, profile.getCommentSigns());
+            }
+        }
+        return commentSigns;
+    }
+    
+    /**
+     * Sets the number of files scanned in parallel. Defaults to the number of available processors.
+     * @param parallelism number of worker threads
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Sets a {@link TagIndex}, which is used to skip parsing unchanged files. The index is updated by each scan: changed files are parsed again and
+     * the entries of files, which do not exist anymore within the scanned tree, are removed.
+     * @param tagIndex {@link TagIndex} to be used or <code>null</code> if all files should be parsed
+     */
+    public void setTagIndex(TagIndex tagIndex) {
+        this.tagIndex = tagIndex;
+    }
+    
+    /**
+     * Scans all files with a known extension within the given directory tree. The method returns after all files have been scanned. The first
+     * runtime exception thrown by the listener or while parsing a file stops the scan and is rethrown.
+     * @param root directory to be scanned
+     * @param listener {@link TagScanListener} to be notified for each file containing tags or failing to be scanned
+     * @return the {@link ScanStatistics} of the scan
+     * @throws IOException if the directory tree could not be walked
+     * @throws InterruptedException if the calling thread has been interrupted while waiting for the workers
+     */
+    public ScanStatistics scan(Path root, final TagScanListener listener) throws IOException, InterruptedException {
+        final AtomicLong filesScanned = new AtomicLong();
+        final AtomicLong filesWithTags = new AtomicLong();
+        final AtomicLong filesFailed = new AtomicLong();
+        final AtomicLong tagCount = new AtomicLong();
+        final AtomicLong bytesScanned = new AtomicLong();
+        final AtomicReference<RuntimeException> listenerFailure = new AtomicReference<RuntimeException>();
+        final Set<String> visitedFiles = new HashSet<String>();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long startTime = System.nanoTime();
+        
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                    final LanguageProfile profile = profiles.getProfile(file);
+                    if (profile == null || !attrs.isRegularFile()) return FileVisitResult.CONTINUE;
+                    if (listenerFailure.get() != null) return FileVisitResult.TERMINATE;
+                    if (tagIndex != null) {
+                        visitedFiles.add(TagIndex.toKey(file));
+                    }
+                    pool.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                try {
+                                    List<TagOccurrence> tags;
+                                    if (tagIndex != null) {
+                                        tags = tagIndex.refresh(file, profile);
+                                    } else {
+                                        tags = new FileParser(file.toFile(), profile).listTags();
+                                    }
+                                    filesScanned.incrementAndGet();
+                                    bytesScanned.addAndGet(attrs.size());
+                                    if (!tags.isEmpty()) {
+                                        filesWithTags.incrementAndGet();
+                                        tagCount.addAndGet(tags.size());
+                                        listener.tagsFound(file, tags);
+                                    }
+                                } catch (IOException e) {
+                                    filesFailed.incrementAndGet();
+                                    LOG.debug("Could not scan {}: {}", file, e.getMessage());
+                                    listener.scanFailed(file, e);
+                                }
+                            } catch (RuntimeException e) {
+                                listenerFailure.compareAndSet(null, e);
+                            }
+                        }
+                    });
+                    return FileVisitResult.CONTINUE;
+                }
+                
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    if (profiles.getProfile(file) != null) {
+                        filesFailed.incrementAndGet();
+                        listener.scanFailed(file, e);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            pool.shutdownNow();
+            throw e;
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            throw e;
+        }
+        if (listenerFailure.get() != null) throw listenerFailure.get();
+        if (tagIndex != null) {
+            tagIndex.retain(root, visitedFiles);
+        }
+        
+        ScanStatistics statistics = new ScanStatistics(filesScanned.get(), filesWithTags.get(), filesFailed.get(), tagCount.get(),
+                bytesScanned.get(), System.nanoTime() - startTime);
+        LOG.debug("Scanned {}: {}", root, statistics);
+        return statistics;
+    }
+}
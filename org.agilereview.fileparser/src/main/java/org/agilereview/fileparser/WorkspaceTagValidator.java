@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks the comment tags of a whole directory tree for consistency as described in {@link FileParser#checkTags()} and optionally removes all
+ * dangling tags. The tree is walked on the calling thread, whereas the files are checked in parallel by a {@link ForkJoinPool}. Files without the
+ * literal tag prefixes are skipped on byte level. Each file is read once for the check and, if dangling tags are removed, rewritten once.
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class WorkspaceTagValidator {
+    
+    /**
+     * Logger instance
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(WorkspaceTagValidator.class);
+    /**
+     * Language profiles of all files to be checked
+     */
+    private final LanguageProfileRegistry profiles;
+    /**
+     * Number of files checked in parallel
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /**
+     * States whether dangling tags should be removed
+     */
+    private boolean repair;
+    /**
+     * {@link TagIndex} to be updated for each repaired file or <code>null</code> if no index should be updated
+     */
+    private TagIndex tagIndex;
+    
+    /**
+     * Creates a new {@link WorkspaceTagValidator} for the {@link LanguageProfileRegistry#getDefault() default language profiles}
+     */
+    public WorkspaceTagValidator() {
+        this(LanguageProfileRegistry.getDefault());
+    }
+    
+    /**
+     * Creates a new {@link WorkspaceTagValidator}, which only checks files with one of the given extensions
+     * @param commentSigns multi-line comment start and end sign by file extension (without leading dot)
+     */
+    public WorkspaceTagValidator(Map<String, String[]> commentSigns) {
+        this(LanguageProfileRegistry.fromCommentSigns(commentSigns));
+    }
+    
+    /**
+     * Creates a new {@link WorkspaceTagValidator}, which only checks files with an extension of one of the profiles of the given registry
+     * @param profiles {@link LanguageProfileRegistry} of all files to be checked
+     */
+    public WorkspaceTagValidator(LanguageProfileRegistry profiles) {
+        this.profiles = profiles;
+    }
+    
+    /**
+     * Sets the number of files checked in parallel. Defaults to the number of available processors.
+     * @param parallelism number of worker threads
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Sets whether {@link TagInconsistency#isDangling() dangling} tags should be removed as described in {@link FileParser#repairTags()}. Defaults
+     * to <code>false</code>, such that no file is modified.
+     * @param repair <code>true</code> if dangling tags should be removed,<br> <code>false</code> otherwise
+     */
+    public void setRepair(boolean repair) {
+        this.repair = repair;
+    }
+    
+    /**
+     * Sets the {@link TagIndex} whose entries are updated for each repaired file
+     * @param tagIndex {@link TagIndex} to be updated or <code>null</code> if no index should be updated
+     */
+    public void setTagIndex(TagIndex tagIndex) {
+        this.tagIndex = tagIndex;
+    }
+    
+    /**
+     * Checks all files with a known extension within the given directory tree and repairs them if enabled. The method returns after all files have
+     * been processed.
+     * @param root directory to be checked
+     * @param listener {@link TagInconsistencyListener} to be notified for each inconsistent file or file failing to be checked
+     * @return the {@link ValidationStatistics} of the validation
+     * @throws IOException if the directory tree could not be walked
+     * @throws InterruptedException if the calling thread has been interrupted while waiting for the workers
+     */
+    public ValidationStatistics validate(Path root, final TagInconsistencyListener listener) throws IOException, InterruptedException {
+        final AtomicLong filesChecked = new AtomicLong();
+        final AtomicLong filesInconsistent = new AtomicLong();
+        final AtomicLong filesRepaired = new AtomicLong();
+        final AtomicLong filesFailed = new AtomicLong();
+        final AtomicLong inconsistencyCount = new AtomicLong();
+        final AtomicReference<RuntimeException> listenerFailure = new AtomicReference<RuntimeException>();
+        final boolean repair = this.repair;
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long startTime = System.nanoTime();
+        
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                
+                @Override
+                public FileVisitResult visitFile(final Path file, BasicFileAttributes attrs) {
+                    final LanguageProfile profile = profiles.getProfile(file);
+                    if (profile == null || !attrs.isRegularFile()) return FileVisitResult.CONTINUE;
+                    if (listenerFailure.get() != null) return FileVisitResult.TERMINATE;
+                    pool.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                filesChecked.incrementAndGet();
+                                if (!profile.getPrefilter().mightContainTag(file)) return;
+                                FileParser parser = new FileParser(file.toFile(), profile);
+                                List<TagInconsistency> inconsistencies;
+                                if (repair) {
+                                    parser.setTagIndex(tagIndex);
+                                    inconsistencies = parser.repairTags();
+                                } else {
+                                    inconsistencies = parser.checkTags();
+                                }
+                                if (inconsistencies.isEmpty()) return;
+                                boolean repaired = repair && containsDanglingTag(inconsistencies);
+                                filesInconsistent.incrementAndGet();
+                                inconsistencyCount.addAndGet(inconsistencies.size());
+                                if (repaired) {
+                                    filesRepaired.incrementAndGet();
+                                }
+                                listener.inconsistenciesFound(file, inconsistencies, repaired);
+                            } catch (IOException e) {
+                                filesFailed.incrementAndGet();
+                                LOG.debug("Could not check {}: {}", file, e.getMessage());
+                                listener.validationFailed(file, e);
+                            } catch (RuntimeException e) {
+                                listenerFailure.compareAndSet(null, e);
+                            }
+                        }
+                    });
+                    return FileVisitResult.CONTINUE;
+                }
+                
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    if (profiles.getProfile(file) != null) {
+                        filesFailed.incrementAndGet();
+                        listener.validationFailed(file, e);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            pool.shutdownNow();
+            throw e;
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            throw e;
+        }
+        if (listenerFailure.get() != null) throw listenerFailure.get();
+        
+        ValidationStatistics statistics = new ValidationStatistics(filesChecked.get(), filesInconsistent.get(), filesRepaired.get(),
+                filesFailed.get(), inconsistencyCount.get(), System.nanoTime() - startTime);
+        LOG.debug("Validated {}: {}", root, statistics);
+        return statistics;
+    }
+    
+    /**
+     * Checks whether at least one of the given inconsistencies is caused by a dangling tag
+     * @param inconsistencies {@link TagInconsistency}s of a file
+     * @return <code>true</code> if a dangling tag has been found,<br> <code>false</code> otherwise
+     */
+    private static boolean containsDanglingTag(List<TagInconsistency> inconsistencies) {
+        for (TagInconsistency inconsistency : inconsistencies) {
+            if (inconsistency.isDangling()) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link AsyncFileParser}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class AsyncFileParserTest {
+    
+    /**
+     * Tests that a burst of additions to one file is processed by a single task, leading to the same result as applying the additions one after
+     * another, although earlier additions insert lines in front of later selections
+     * @throws Exception
+     */
+    @Test
+    public void testAddTags_coalesced() throws Exception {
+        File asyncFile = copyResource("/resources/TestClass.java");
+        File sequentialFile = copyResource("/resources/TestClass.java");
+        File batchFile = copyResource("/resources/TestClass.java");
+        ManualExecutor executor = new ManualExecutor();
+        AsyncFileParser parser = new AsyncFileParser(LanguageProfileRegistry.getDefault(), executor);
+        
+        //execution
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        List<TagSelection> selections = new ArrayList<TagSelection>();
+        for (int i = 0; i < 50; i++) {
+            TagSelection selection = new TagSelection("ID" + i, 1 + i % 40, 1 + i % 40);
+            selections.add(selection);
+            futures.add(parser.addTags(asyncFile, selection.getTagId(), selection.getStartLine(), selection.getEndLine()));
+        }
+        Assert.assertEquals(1, executor.tasks.size());
+        Assert.assertFalse(futures.get(0).isDone());
+        executor.runAll();
+        FileParser sequentialParser = new FileParser(sequentialFile, new String[] { "/*", "*/" });
+        for (TagSelection selection : selections) {
+            sequentialParser.addTags(selection.getTagId(), selection.getStartLine(), selection.getEndLine());
+        }
+        new FileParser(batchFile, new String[] { "/*", "*/" }).addTags(selections);
+        
+        //assertions
+        for (Future<Void> future : futures) {
+            Assert.assertTrue(future.isDone());
+            Assert.assertNull(future.get());
+        }
+        Assert.assertEquals(FileUtils.readFileToString(sequentialFile), FileUtils.readFileToString(asyncFile));
+        Assert.assertNotEquals(FileUtils.readFileToString(batchFile), FileUtils.readFileToString(asyncFile));
+        FileUtils.deleteQuietly(asyncFile);
+        FileUtils.deleteQuietly(sequentialFile);
+        FileUtils.deleteQuietly(batchFile);
+    }
+    
+    /**
+     * Tests that operations of different kinds are applied in the order of their submission and that removals are merged with a clear
+     * @throws Exception
+     */
+    @Test
+    public void testOperations_ordered() throws Exception {
+        File file = copyResource("/resources/CommentedClass.java");
+        ManualExecutor executor = new ManualExecutor();
+        AsyncFileParser parser = new AsyncFileParser(LanguageProfileRegistry.getDefault(), executor);
+        
+        //execution
+        Future<Void> removal = parser.removeTags(file, "111");
+        Future<Void> clear = parser.clearAllTags(file);
+        Future<Void> addition = parser.addTags(file, "NEW", 5, 5);
+        executor.runAll();
+        
+        //assertions
+        removal.get();
+        clear.get();
+        addition.get();
+        Set<String> tagIds = new LinkedHashSet<String>();
+        for (TagOccurrence occurrence : new FileParser(file, new String[] { "/*", "*/" }).listTags()) {
+            tagIds.add(occurrence.getTagId());
+        }
+        Assert.assertEquals(new LinkedHashSet<String>(Arrays.asList("NEW")), tagIds);
+        FileUtils.deleteQuietly(file);
+    }
+    
+    /**
+     * Tests that a failing operation does not affect the operations it has been merged with
+     * @throws Exception
+     */
+    @Test
+    public void testAddTags_failureIsolated() throws Exception {
+        File file = copyResource("/resources/TestClass.java");
+        ManualExecutor executor = new ManualExecutor();
+        AsyncFileParser parser = new AsyncFileParser(LanguageProfileRegistry.getDefault(), executor);
+        
+        //execution
+        Future<Void> valid = parser.addTags(file, "VALID", 5, 5);
+        Future<Void> invalid = parser.addTags(file, "INVALID", 5000, 5000);
+        Future<Void> cancelled = parser.addTags(file, "CANCELLED", 6, 6);
+        Assert.assertTrue(cancelled.cancel(false));
+        executor.runAll();
+        
+        //assertions
+        valid.get();
+        try {
+            invalid.get();
+            Assert.fail("The invalid selection has been applied");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IndexOutOfBoundsException);
+        }
+        List<TagOccurrence> tags = new FileParser(file, new String[] { "/*", "*/" }).listTags();
+        Assert.assertEquals(1, tags.size());
+        Assert.assertEquals("VALID", tags.get(0).getTagId());
+        FileUtils.deleteQuietly(file);
+    }
+    
+    /**
+     * Tests that an error thrown while processing a queue fails the pending operations and does not block later operations on the same file
+     * @throws Exception
+     */
+    @Test
+    public void testAddTags_error() throws Exception {
+        File file = copyResource("/resources/TestClass.java");
+        ManualExecutor executor = new ManualExecutor();
+        AsyncFileParser parser = new AsyncFileParser(LanguageProfileRegistry.getDefault(), executor);
+        parser.setTagIndex(new TagIndex() {
+            @Override
+            List<TagOccurrence> refresh(Path file, LanguageProfile profile, boolean force) {
+                throw new Error("broken index");
+            }
+        });
+        
+        //execution
+        Future<Void> failed = parser.addTags(file, "FAILED", 5, 5);
+        try {
+            executor.runAll();
+            Assert.fail("The error has not been propagated to the executor");
+        } catch (Error e) {
+            Assert.assertEquals("broken index", e.getMessage());
+        }
+        parser.setTagIndex(null);
+        Future<Void> later = parser.addTags(file, "LATER", 6, 6);
+        executor.runAll();
+        
+        //assertions
+        try {
+            failed.get(1, TimeUnit.SECONDS);
+            Assert.fail("The aborted operation has been completed");
+        } catch (ExecutionException e) {
+            Assert.assertEquals("broken index", e.getCause().getMessage());
+        }
+        Assert.assertNull(later.get(1, TimeUnit.SECONDS));
+        FileUtils.deleteQuietly(file);
+    }
+    
+    /**
+     * Tests that an operation cannot be cancelled anymore as soon as its read/write cycle is running
+     * @throws Exception
+     */
+    @Test
+    public void testCancel_whileApplying() throws Exception {
+        File file = copyResource("/resources/TestClass.java");
+        final CountDownLatch applying = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AsyncFileParser parser = new AsyncFileParser(LanguageProfileRegistry.getDefault(), executor);
+        parser.setTagIndex(new TagIndex() {
+            @Override
+            List<TagOccurrence> refresh(Path file, LanguageProfile profile, boolean force) throws IOException {
+                applying.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.refresh(file, profile, force);
+            }
+        });
+        
+        //execution
+        Future<Void> addition = parser.addTags(file, "APPLIED", 5, 5);
+        Assert.assertTrue(applying.await(10, TimeUnit.SECONDS));
+        boolean cancelled = addition.cancel(false);
+        release.countDown();
+        
+        //assertions
+        Assert.assertFalse(cancelled);
+        Assert.assertFalse(addition.isCancelled());
+        Assert.assertNull(addition.get(10, TimeUnit.SECONDS));
+        List<TagOccurrence> tags = new FileParser(file, new String[] { "/*", "*/" }).listTags();
+        Assert.assertEquals(1, tags.size());
+        Assert.assertEquals("APPLIED", tags.get(0).getTagId());
+        executor.shutdown();
+        FileUtils.deleteQuietly(file);
+    }
+    
+    /**
+     * Tests that files without a registered language profile are rejected on submission
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddTags_unknownExtension() {
+        new AsyncFileParser(LanguageProfileRegistry.getDefault(), new ManualExecutor()).addTags(new File("Unknown.xyz"), "ID", 1, 1);
+    }
+    
+    /**
+     * Copies the given test resource to a temporary file keeping its extension
+     * @param resource path of the test resource
+     * @return the temporary file
+     * @throws URISyntaxException
+     * @throws IOException
+     */
+    private File copyResource(String resource) throws URISyntaxException, IOException {
+        File tmpFile = File.createTempFile("AsyncFileParser", ".java");
+        FileUtils.copyFile(new File(getClass().getResource(resource).toURI()), tmpFile);
+        return tmpFile;
+    }
+    
+    /**
+     * Executor collecting all tasks until they are run explicitly
+     */
+    private static class ManualExecutor implements Executor {
+        
+        /**
+         * Tasks in order of their submission
+         */
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+        
+        /**
+         * Runs all collected tasks including those submitted while running
+         */
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link AtomicFileWriter}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class AtomicFileWriterTest {
+    
+    /**
+     * Charset used by all tests
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    /**
+     * Directory containing the test file
+     */
+    private Path dir;
+    /**
+     * File to be rewritten
+     */
+    private Path file;
+    
+    /**
+     * Creates the test file
+     * @throws IOException if the file could not be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("AtomicFileWriterTest");
+        file = dir.resolve("Test.java");
+        Files.write(file, "old contents".getBytes(UTF8));
+    }
+    
+    /**
+     * Deletes the test directory
+     * @throws IOException if the directory could not be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+    
+    /**
+     * Tests that a committed rewrite replaces the file contents, preserves the permissions and leaves no temporary file
+     * @throws IOException if the file could not be rewritten
+     */
+    @Test
+    public void testCommit() throws IOException {
+        Assume.assumeNotNull(Files.getFileAttributeView(file, PosixFileAttributeView.class));
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+        Files.setPosixFilePermissions(file, permissions);
+        
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            contents.append("line ä€ ").append(i).append('\n');
+        }
+        try (AtomicFileWriter fileWriter = new AtomicFileWriter(file)) {
+            Writer writer = fileWriter.getWriter(UTF8);
+            writer.write(contents.toString());
+            fileWriter.commit();
+        }
+        
+        Assert.assertEquals(contents.toString(), new String(Files.readAllBytes(file), UTF8));
+        Assert.assertEquals(permissions, Files.getPosixFilePermissions(file));
+        Assert.assertEquals(1, dir.toFile().list().length);
+    }
+    
+    /**
+     * Tests that a rewrite, which is closed without being committed, leaves the file untouched and deletes the temporary file
+     * @throws IOException if the file could not be accessed
+     */
+    @Test
+    public void testCloseWithoutCommit() throws IOException {
+        try (AtomicFileWriter fileWriter = new AtomicFileWriter(file)) {
+            fileWriter.getWriter(UTF8).write("new contents");
+        }
+        
+        Assert.assertEquals("old contents", new String(Files.readAllBytes(file), UTF8));
+        Assert.assertEquals(1, dir.toFile().list().length);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.nio.charset.Charset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link CharsetDetector}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class CharsetDetectorTest {
+    
+    /**
+     * Tests detection of byte order marks
+     */
+    @Test
+    public void testDetect_byteOrderMark() {
+        Assert.assertEquals(Charset.forName("UTF-16BE"), detect((byte) 0xFE, (byte) 0xFF, 0, 'a'));
+        Assert.assertEquals(Charset.forName("UTF-16LE"), detect((byte) 0xFF, (byte) 0xFE, 'a', 0));
+        Assert.assertEquals(Charset.forName("UTF-8"), detect((byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a'));
+    }
+    
+    /**
+     * Tests that UTF-16 and UTF-32 contents without byte order mark are recognized by their zero bytes
+     */
+    @Test
+    public void testDetect_wideWithoutByteOrderMark() {
+        for (String name : new String[] { "UTF-16BE", "UTF-16LE", "UTF-32BE", "UTF-32LE" }) {
+            byte[] bytes = "class A {\n    String s = \"\u00e4\u30bd\";\n}\n".getBytes(Charset.forName(name));
+            Assert.assertEquals(Charset.forName(name), CharsetDetector.detect(bytes, bytes.length));
+            Assert.assertEquals(Charset.forName(name), CharsetDetector.detect(bytes, bytes.length - 1));
+        }
+        Assert.assertFalse(CharsetDetector.isAsciiCompatible(detect('a', 0, 'b', 0)));
+        Assert.assertTrue(CharsetDetector.isAsciiCompatible(detect('a', 0, 'b', 'c', 'd', 'e')));
+    }
+    
+    /**
+     * Tests the distinction between valid and invalid UTF-8 contents
+     */
+    @Test
+    public void testDetect_utf8() {
+        Assert.assertEquals(Charset.forName("UTF-8"), detect('a', (byte) 0xC3, (byte) 0xA4, 'b'));
+        Charset invalid = detect('a', (byte) 0xE4, 'b');
+        Assert.assertNotEquals(Charset.forName("UTF-8"), invalid);
+        Assert.assertTrue(CharsetDetector.isAsciiCompatible(invalid));
+        Assert.assertTrue(CharsetDetector.isAsciiCompatible(detect('a', 'b')));
+    }
+    
+    /**
+     * Tests that only charsets encoding non-ASCII characters with bytes of at least 0x80 are processed byte-wise
+     */
+    @Test
+    public void testIsByteTransparent() {
+        Assert.assertTrue(CharsetDetector.isByteTransparent(Charset.forName("UTF-8")));
+        Assert.assertTrue(CharsetDetector.isByteTransparent(Charset.forName("ISO-8859-15")));
+        Assert.assertTrue(CharsetDetector.isByteTransparent(Charset.forName("windows-1252")));
+        Assert.assertTrue(CharsetDetector.isByteTransparent(Charset.forName("EUC-JP")));
+        Assert.assertTrue(CharsetDetector.isAsciiCompatible(Charset.forName("Shift_JIS")));
+        Assert.assertFalse(CharsetDetector.isByteTransparent(Charset.forName("Shift_JIS")));
+        Assert.assertFalse(CharsetDetector.isByteTransparent(Charset.forName("windows-31j")));
+        Assert.assertFalse(CharsetDetector.isByteTransparent(Charset.forName("GBK")));
+        Assert.assertFalse(CharsetDetector.isByteTransparent(Charset.forName("Big5")));
+        Assert.assertFalse(CharsetDetector.isByteTransparent(Charset.forName("UTF-16LE")));
+    }
+    
+    /**
+     * Detects the charset of the given bytes
+     * @param values byte values
+     * @return the detected {@link Charset}
+     */
+    private static Charset detect(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return CharsetDetector.detect(bytes, bytes.length);
+    }
+}
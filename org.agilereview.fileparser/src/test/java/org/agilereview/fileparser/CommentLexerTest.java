@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link CommentLexer}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class CommentLexerTest {
+    
+    /**
+     * Tests the detection of comments spanning one or multiple lines
+     */
+    @Test
+    public void testLex_blockComments() {
+        CommentLexer lexer = new CommentLexer(CommentSyntax.C_STYLE);
+        assertLexed(lexer, "int a; /* comment */ int b;", true, true, false);
+        assertLexed(lexer, "int a; /** doc", true, false, true);
+        assertLexed(lexer, " * \"quoted\" don't /* nested", false, false, true);
+        assertLexed(lexer, " */ int b; /* next", true, true, true);
+        assertLexed(lexer, " */", false, true, false);
+    }
+    
+    /**
+     * Tests that comment signs within string and character literals are ignored
+     */
+    @Test
+    public void testLex_stringLiterals() {
+        CommentLexer lexer = new CommentLexer(CommentSyntax.C_STYLE);
+        assertLexed(lexer, "String s = \"/*\";", false, false, false);
+        assertLexed(lexer, "String s = \"\\\"/*\" + '\"' + \"*/\";", false, false, false);
+        assertLexed(lexer, "char c = '\\''; /* comment */", true, true, false);
+        assertLexed(lexer, "String s = \"unterminated /*", false, false, false);
+        assertLexed(lexer, "int a; /* comment */", true, true, false);
+    }
+    
+    /**
+     * Tests that comment signs within line comments are ignored
+     */
+    @Test
+    public void testLex_lineComments() {
+        CommentLexer lexer = new CommentLexer(CommentSyntax.C_STYLE);
+        assertLexed(lexer, "int a; // */ /*", false, false, false);
+        assertLexed(lexer, "int a; /* // */", true, true, false);
+        assertLexed(lexer, "String url = \"http://host\"; /*", true, false, true);
+    }
+    
+    /**
+     * Tests that comment signs within text blocks are ignored across lines
+     */
+    @Test
+    public void testLex_textBlocks() {
+        CommentLexer lexer = new CommentLexer(CommentSyntax.C_STYLE);
+        assertLexed(lexer, "String s = \"\"\"", false, false, false);
+        assertLexed(lexer, "    /* \" // ", false, false, false);
+        assertLexed(lexer, "    \"\"\"; /*", true, false, true);
+    }
+    
+    /**
+     * Tests that quotes and slashes do not influence the detection of XML comments
+     */
+    @Test
+    public void testLex_xml() {
+        CommentLexer lexer = new CommentLexer(CommentSyntax.XML);
+        assertLexed(lexer, "<a href=\"http://host\">don't <!-- comment", true, false, true);
+        assertLexed(lexer, "\" --> <b/>", false, true, false);
+    }
+    
+    /**
+     * Lexes the given line and checks the detected comment boundaries
+     * @param lexer {@link CommentLexer} to be used
+     * @param line to be lexed
+     * @param startsComment expected start of a comment within the line
+     * @param endsComment expected end of a comment within the line
+     * @param endsInComment expected state at the end of the line
+     */
+    private void assertLexed(CommentLexer lexer, String line, boolean startsComment, boolean endsComment, boolean endsInComment) {
+        lexer.lex(line);
+        Assert.assertEquals(line, startsComment, lexer.startsComment());
+        Assert.assertEquals(line, endsComment, lexer.endsComment());
+        Assert.assertEquals(line, endsInComment, lexer.endsInComment());
+    }
+}
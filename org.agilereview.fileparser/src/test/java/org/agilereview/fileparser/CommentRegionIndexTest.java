@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link CommentRegionIndex}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class CommentRegionIndexTest {
+    
+    /**
+     * Tests the lookup of comment regions without any line insertions
+     */
+    @Test
+    public void testFindRegion() {
+        CommentRegionIndex index = createIndex();
+        
+        Assert.assertArrayEquals(new int[] { -1, -1 }, index.findRegion(0));
+        Assert.assertArrayEquals(new int[] { 1, 3 }, index.findRegion(1));
+        Assert.assertArrayEquals(new int[] { 1, 3 }, index.findRegion(4));
+        Assert.assertArrayEquals(new int[] { 5, 7 }, index.findRegion(5));
+        Assert.assertArrayEquals(new int[] { 6, 7 }, index.findRegion(6));
+        Assert.assertArrayEquals(new int[] { 6, 7 }, index.findRegion(7));
+        Assert.assertArrayEquals(new int[] { 8, 8 }, index.findRegion(9));
+        Assert.assertArrayEquals(new int[] { 10, -1 }, index.findRegion(11));
+    }
+    
+    /**
+     * Tests that lookups refer to the current line numbers after empty lines have been inserted
+     */
+    @Test
+    public void testFindRegion_afterLineInsertions() {
+        CommentRegionIndex index = createIndex();
+        index.lineInserted(5);
+        index.lineInserted(5);
+        index.lineInserted(10);
+        
+        Assert.assertArrayEquals(new int[] { 1, 3 }, index.findRegion(4));
+        // the inserted lines are located behind the first comment
+        Assert.assertArrayEquals(new int[] { 1, 3 }, index.findRegion(5));
+        Assert.assertArrayEquals(new int[] { 1, 3 }, index.findRegion(6));
+        Assert.assertArrayEquals(new int[] { 7, 9 }, index.findRegion(7));
+        Assert.assertArrayEquals(new int[] { 8, 9 }, index.findRegion(8));
+        // the inserted line is located behind the end of the second comment
+        Assert.assertArrayEquals(new int[] { 8, 9 }, index.findRegion(10));
+        Assert.assertArrayEquals(new int[] { 11, 11 }, index.findRegion(11));
+        Assert.assertArrayEquals(new int[] { 13, -1 }, index.findRegion(13));
+    }
+    
+    /**
+     * Tests that insertions after a rebase refer to the line numbers including all previously inserted lines
+     */
+    @Test
+    public void testRebase() {
+        CommentRegionIndex index = createIndex();
+        index.lineInserted(5);
+        index.lineInserted(5);
+        index.lineInserted(10);
+        
+        index.rebase();
+        index.lineInserted(2);
+        
+        Assert.assertEquals(3, index.toCurrentLine(2));
+        Assert.assertArrayEquals(new int[] { 1, 4 }, index.findRegion(1));
+        Assert.assertArrayEquals(new int[] { 1, 4 }, index.findRegion(7));
+        Assert.assertArrayEquals(new int[] { 8, 10 }, index.findRegion(8));
+        Assert.assertArrayEquals(new int[] { 14, -1 }, index.findRegion(14));
+    }
+    
+    /**
+     * Tests the tracking of comment regions which have not been closed yet
+     */
+    @Test
+    public void testHasOpenRegion() {
+        CommentRegionIndex index = new CommentRegionIndex();
+        Assert.assertFalse(index.hasOpenRegion());
+        Assert.assertEquals(-1, index.getLastStartLine());
+        
+        index.addLine(true, false);
+        index.addLine(true, false);
+        Assert.assertTrue(index.hasOpenRegion());
+        Assert.assertEquals(1, index.getLastStartLine());
+        
+        index.addLine(false, true);
+        Assert.assertFalse(index.hasOpenRegion());
+        Assert.assertArrayEquals(new int[] { 0, 2 }, index.findRegion(0));
+    }
+    
+    /**
+     * Tests that lines reported by their contents only take real comment boundaries into account and that a comment opened behind the end of
+     * another comment stays open
+     */
+    @Test
+    public void testAddLine_lexed() {
+        CommentRegionIndex index = new CommentRegionIndex(new CommentLexer(CommentSyntax.C_STYLE));
+        index.addLine("String s = \"/*\";");
+        index.addLine("int a; // /*");
+        index.addLine("/*");
+        index.addLine("*/ int b; /*");
+        index.addLine("*/");
+        
+        Assert.assertArrayEquals(new int[] { -1, -1 }, index.findRegion(1));
+        Assert.assertArrayEquals(new int[] { 2, 3 }, index.findRegion(2));
+        Assert.assertArrayEquals(new int[] { 3, 4 }, index.findRegion(4));
+        Assert.assertFalse(index.hasOpenRegion());
+    }
+    
+    /**
+     * Creates a new index for the following document:<br>
+     * (0) code<br>(1) /*<br>(2) comment<br>(3) *{@literal /}<br>(4) code<br>(5) /*<br>(6) /*<br>(7) *{@literal /}<br>(8) /* *{@literal /}<br>
+     * (9) code<br>(10) /*<br>(11) comment
+     * @return the created {@link CommentRegionIndex}
+     */
+    private CommentRegionIndex createIndex() {
+        CommentRegionIndex index = new CommentRegionIndex();
+        index.addLine(false, false);
+        index.addLine(true, false);
+        index.addLine(false, false);
+        index.addLine(false, true);
+        index.addLine(false, false);
+        index.addLine(true, false);
+        index.addLine(true, false);
+        index.addLine(false, true);
+        index.addLine(true, true);
+        index.addLine(false, false);
+        index.addLine(true, false);
+        index.addLine(false, false);
+        return index;
+    }
+}
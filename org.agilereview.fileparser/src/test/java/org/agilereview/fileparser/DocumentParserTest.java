@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.agilereview.common.parser.CommentTagBuilder;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link DocumentParser}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class DocumentParserTest {
+    
+    /**
+     * Tests that a single line comment results in a single insertion
+     */
+    @Test
+    public void testAddTags_singleLine() {
+        String document = "class A {\r\n    int a;\r\n}";
+        
+        //execution
+        List<TextEdit> edits = new DocumentParser(new String[] { "/*", "*/" }).addTags(document, "TAGID", 2, 2);
+        
+        //assertions
+        String tag = new CommentTagBuilder("/*", "*/").isSingleLine().buildTag("TAGID");
+        Assert.assertEquals(1, edits.size());
+        Assert.assertEquals(21, edits.get(0).getOffset());
+        Assert.assertEquals(0, edits.get(0).getLength());
+        Assert.assertEquals(tag, edits.get(0).getReplacement());
+        Assert.assertEquals("class A {\r\n    int a;" + tag + "\r\n}", TextEdit.apply(document, edits));
+    }
+    
+    /**
+     * Tests that comment signs within string literals and line comments do not cause any selection adaptation
+     */
+    @Test
+    public void testAddTags_commentSignsInStringAndLineComment() {
+        String document = "class A {\n    String s = \"/*\";\n    int a;\n    int b; // */\n}";
+        
+        //execution
+        List<TextEdit> edits = new DocumentParser(new String[] { "/*", "*/" }).addTags(document, "TAGID", 3, 3);
+        
+        //assertions
+        String tag = new CommentTagBuilder("/*", "*/").isSingleLine().buildTag("TAGID");
+        Assert.assertEquals(1, edits.size());
+        Assert.assertEquals("class A {\n    String s = \"/*\";\n    int a;" + tag + "\n    int b; // */\n}", TextEdit.apply(document, edits));
+    }
+    
+    /**
+     * Tests that applying the edits for all possible selections leads to the same lines as the {@link FileParser}
+     * @throws URISyntaxException
+     * @throws IOException
+     */
+    @Test
+    public void testAddTags_sameResultAsFileParser() throws URISyntaxException, IOException {
+        DocumentParser parser = new DocumentParser(new String[] { "/*", "*/" });
+        for (String resource : new String[] { "/resources/TestClass.java", "/resources/CommentedClass.java" }) {
+            File testResource = new File(getClass().getResource(resource).toURI());
+            String document = FileUtils.readFileToString(testResource);
+            int lineCount = FileUtils.readLines(testResource).size();
+            for (int startLine = 1; startLine < lineCount; startLine += 3) {
+                for (int endLine = startLine; endLine < lineCount; endLine += 2) {
+                    File tmpFile = File.createTempFile("TestClass", "java");
+                    FileUtils.copyFile(testResource, tmpFile);
+                    String expected;
+                    try {
+                        new FileParser(tmpFile, new String[] { "/*", "*/" }).addTags("TAGID", startLine, endLine);
+                        expected = FileUtils.readLines(tmpFile).toString();
+                    } catch (IndexOutOfBoundsException e) {
+                        expected = e.getClass().getName();
+                    } finally {
+                        FileUtils.deleteQuietly(tmpFile);
+                    }
+                    String actual;
+                    try {
+                        actual = IOUtils.readLines(new StringReader(TextEdit.apply(document, parser.addTags(document, "TAGID", startLine, endLine))))
+                                .toString();
+                    } catch (IndexOutOfBoundsException e) {
+                        actual = e.getClass().getName();
+                    }
+                    Assert.assertEquals(resource + " [" + startLine + ", " + endLine + "]", expected, actual);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Tests that the edits removing tags lead to the same lines as the {@link FileParser} and that only the tags are touched
+     * @throws URISyntaxException
+     * @throws IOException
+     */
+    @Test
+    public void testRemoveTags_sameResultAsFileParser() throws URISyntaxException, IOException {
+        File testResource = new File(getClass().getResource("/resources/CommentedClass.java").toURI());
+        String document = FileUtils.readFileToString(testResource);
+        DocumentParser parser = new DocumentParser(new String[] { "/*", "*/" });
+        
+        //execution
+        List<TextEdit> clearEdits = parser.clearAllTags(document);
+        List<TextEdit> removeEdits = parser.removeTags(document, Arrays.asList("111", "444"));
+        
+        //assertions
+        File targetFile = new File(getClass().getResource("/resources/CommentedClass_allRemoved.java").toURI());
+        Assert.assertEquals(FileUtils.readLines(targetFile), IOUtils.readLines(new StringReader(TextEdit.apply(document, clearEdits))));
+        File tmpFile = File.createTempFile("CommentedClass", "java");
+        FileUtils.copyFile(testResource, tmpFile);
+        new FileParser(tmpFile, new String[] { "/*", "*/" }).removeTags(Arrays.asList("111", "444"));
+        Assert.assertEquals(FileUtils.readLines(tmpFile), IOUtils.readLines(new StringReader(TextEdit.apply(document, removeEdits))));
+        Assert.assertEquals(3, removeEdits.size());
+        for (TextEdit edit : removeEdits) {
+            Assert.assertTrue(document.substring(edit.getOffset(), edit.getOffset() + edit.getLength()).matches("/\\*-\\??\\|\\d+\\|\\??\\*/"));
+        }
+        Assert.assertTrue(parser.clearAllTags(TextEdit.apply(document, clearEdits)).isEmpty());
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link FileLocks}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class FileLocksTest {
+    
+    /**
+     * Tests that a second lease of the same file, addressed by a different path, has to wait until the first lease has been released
+     * @throws Exception
+     */
+    @Test
+    public void testAcquire_sameFileSerialized() throws Exception {
+        final FileLocks locks = new FileLocks(16);
+        final Path file = Files.createTempFile("Locked", ".java");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> second;
+            try (FileLocks.Lease lease = locks.acquire(file)) {
+                lease.assertHeld();
+                second = executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws IOException {
+                        try (FileLocks.Lease lease = locks.acquire(file.getParent().resolve(".").resolve(file.getFileName()))) {
+                            lease.assertHeld();
+                            return true;
+                        }
+                    }
+                });
+                try {
+                    second.get(200, TimeUnit.MILLISECONDS);
+                    Assert.fail("The second lease has been acquired while the first one was held");
+                } catch (TimeoutException e) {
+                    // expected
+                }
+            }
+            Assert.assertTrue(second.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+            Files.delete(file);
+        }
+    }
+    
+    /**
+     * Tests that the OS level lock is held as long as the lease and that the file contents stay readable
+     * @throws IOException
+     */
+    @Test
+    public void testAcquire_fileLock() throws IOException {
+        Path file = Files.createTempFile("Locked", ".java");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            try (FileLocks.Lease lease = new FileLocks(16).acquire(file)) {
+                lease.assertHeld();
+                Assert.assertEquals(0, Files.readAllBytes(file).length);
+                try {
+                    channel.tryLock(Long.MAX_VALUE - 1, 1, false);
+                    Assert.fail("The file has not been locked");
+                } catch (OverlappingFileLockException e) {
+                    // expected
+                }
+            }
+            Assert.assertNotNull(channel.tryLock(Long.MAX_VALUE - 1, 1, false));
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    /**
+     * Tests that leases of missing files only hold the in-process lock
+     * @throws IOException
+     */
+    @Test
+    public void testAcquire_missingFile() throws IOException {
+        FileLocks locks = new FileLocks(16);
+        Path file = Files.createTempDirectory("Locks").resolve("Missing.java");
+        try (FileLocks.Lease lease = locks.acquire(file)) {
+            lease.assertHeld();
+            Assert.assertTrue(locks.getStripe(file.toAbsolutePath().normalize()).isHeldByCurrentThread());
+        }
+        Assert.assertFalse(locks.getStripe(file.toAbsolutePath().normalize()).isHeldByCurrentThread());
+        Files.delete(file.getParent());
+    }
+    
+    /**
+     * Tests that a lease cannot be used after it has been released or by another thread
+     * @throws Exception
+     */
+    @Test
+    public void testAssertHeld() throws Exception {
+        FileLocks locks = new FileLocks(16);
+        Path file = Files.createTempDirectory("Locks").resolve("Missing.java");
+        final FileLocks.Lease lease = locks.acquire(file);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> other = executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    try {
+                        lease.assertHeld();
+                        return false;
+                    } catch (IllegalStateException e) {
+                        return true;
+                    }
+                }
+            });
+            Assert.assertTrue(other.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+            lease.close();
+        }
+        
+        FileLocks.Lease reacquired = locks.acquire(file);
+        try {
+            lease.assertHeld();
+            Assert.fail("The released lease is still usable");
+        } catch (IllegalStateException e) {
+            // expected
+        } finally {
+            reacquired.close();
+        }
+        Files.delete(file.getParent());
+    }
+    
+    /**
+     * Tests that a replaced file is detected by its attributes if the file system does not provide file keys
+     * @throws IOException
+     */
+    @Test
+    public void testIdentify_withoutFileKey() throws IOException {
+        Path dir = Files.createTempDirectory("Locks");
+        Path file = Files.write(dir.resolve("Locked.java"), "class A {}".getBytes("US-ASCII"));
+        Object identity = FileLocks.identify(new WithoutFileKey(Files.readAttributes(file, BasicFileAttributes.class)));
+        Assert.assertEquals(identity, FileLocks.identify(new WithoutFileKey(Files.readAttributes(file, BasicFileAttributes.class))));
+        
+        Path replacement = Files.write(dir.resolve("Locked.java.tmp"), "class A { int a; }".getBytes("US-ASCII"));
+        Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING);
+        
+        Assert.assertNotEquals(identity, FileLocks.identify(new WithoutFileKey(Files.readAttributes(file, BasicFileAttributes.class))));
+        Files.delete(file);
+        Files.delete(dir);
+    }
+    
+    /**
+     * Attributes of a file system without file keys
+     */
+    private static class WithoutFileKey implements BasicFileAttributes {
+        
+        /**
+         * Attributes to be delegated to
+         */
+        private final BasicFileAttributes attributes;
+        
+        /**
+         * Creates new attributes without file key
+         * @param attributes to be delegated to
+         */
+        WithoutFileKey(BasicFileAttributes attributes) {
+            this.attributes = attributes;
+        }
+        
+        @Override
+        public FileTime lastModifiedTime() {
+            return attributes.lastModifiedTime();
+        }
+        
+        @Override
+        public FileTime lastAccessTime() {
+            return attributes.lastAccessTime();
+        }
+        
+        @Override
+        public FileTime creationTime() {
+            return attributes.creationTime();
+        }
+        
+        @Override
+        public boolean isRegularFile() {
+            return attributes.isRegularFile();
+        }
+        
+        @Override
+        public boolean isDirectory() {
+            return attributes.isDirectory();
+        }
+        
+        @Override
+        public boolean isSymbolicLink() {
+            return attributes.isSymbolicLink();
+        }
+        
+        @Override
+        public boolean isOther() {
+            return attributes.isOther();
+        }
+        
+        @Override
+        public long size() {
+            return attributes.size();
+        }
+        
+        @Override
+        public Object fileKey() {
+            return null;
+        }
+    }
+}
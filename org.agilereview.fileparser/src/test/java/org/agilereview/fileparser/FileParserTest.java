@@ -8,10 +8,21 @@
 package org.agilereview.fileparser;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.agilereview.common.parser.CommentTagBuilder;
 import org.apache.commons.io.FileUtils;
@@ -233,6 +244,105 @@ public class FileParserTest {
         Assert.assertEquals("     */\n" + startTag + "\n    /**\n     * JavaDoc\n     */" + endTag, getLines(tmpFile, 37, 41));
     }
     
+    /**
+     * Tests that the streaming mode produces exactly the same file contents as the in-memory mode for every possible selection
+     * @throws URISyntaxException
+     * @throws IOException
+     */
+    @Test
+    public void testAddTagsStreaming_sameResultAsInMemory() throws URISyntaxException, IOException {
+        for (String resource : new String[] { "/resources/TestClass.java", "/resources/CommentedClass.java" }) {
+            File testResource = new File(getClass().getResource(resource).toURI());
+            int lineCount = FileUtils.readLines(testResource).size();
+            for (int startLine = 1; startLine < lineCount; startLine++) {
+                for (int endLine = startLine; endLine < lineCount; endLine++) {
+                    Assert.assertEquals(resource + " [" + startLine + ", " + endLine + "]", addTags(testResource, startLine, endLine, false),
+                            addTags(testResource, startLine, endLine, true));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Tests that adding several comments in one batch leads to the same result as adding them one after another, whereby the line numbers of all
+     * selections refer to the original file
+     * @throws URISyntaxException
+     * @throws IOException
+     */
+    @Test
+    public void testAddTagsBatch() throws URISyntaxException, IOException {
+        File testResource = new File(getClass().getResource("/resources/TestClass.java").toURI());
+        File batchFile = File.createTempFile("TestClass", "java");
+        FileUtils.copyFile(testResource, batchFile);
+        File sequentialFile = File.createTempFile("TestClass", "java");
+        FileUtils.copyFile(testResource, sequentialFile);
+        
+        //execution
+        FileParser parser = new FileParser(batchFile, new String[] { "/*", "*/" });
+        parser.addTags(Arrays.asList(new TagSelection("AAA", 30, 32), new TagSelection("BBB", 24, 24), new TagSelection("CCC", 38, 40)));
+        
+        // the first selection inserts a line in front of line 31, the third selection another one in front of line 39
+        parser = new FileParser(sequentialFile, new String[] { "/*", "*/" });
+        parser.addTags("AAA", 30, 32);
+        parser.addTags("BBB", 24, 24);
+        parser.addTags("CCC", 39, 41);
+        
+        //assertions
+        Assert.assertEquals(FileUtils.readLines(testResource).size() + 2, FileUtils.readLines(batchFile).size());
+        Assert.assertEquals(FileUtils.readFileToString(sequentialFile), FileUtils.readFileToString(batchFile));
+    }
+    
+    /**
+     * Tests that the streaming mode produces exactly the same file contents as the in-memory mode for batches
+     * @throws URISyntaxException
+     * @throws IOException
+     */
+    @Test
+    public void testAddTagsBatchStreaming_sameResultAsInMemory() throws URISyntaxException, IOException {
+        File testResource = new File(getClass().getResource("/resources/TestClass.java").toURI());
+        List<TagSelection> selections = Arrays.asList(new TagSelection("AAA", 30, 32), new TagSelection("BBB", 24, 24), new TagSelection("CCC",
+                38, 40), new TagSelection("DDD", 17, 18));
+        File inMemoryFile = File.createTempFile("TestClass", "java");
+        FileUtils.copyFile(testResource, inMemoryFile);
+        File streamingFile = File.createTempFile("TestClass", "java");
+        FileUtils.copyFile(testResource, streamingFile);
+        
+        //execution
+        new FileParser(inMemoryFile, new String[] { "/*", "*/" }).addTags(selections);
+        FileParser parser = new FileParser(streamingFile, new String[] { "/*", "*/" });
+        parser.setStreaming(true);
+        parser.addTags(selections);
+        
+        //assertions
+        Assert.assertArrayEquals(FileUtils.readFileToByteArray(inMemoryFile), FileUtils.readFileToByteArray(streamingFile));
+    }
+    
+    /**
+     * Adds tags to a copy of the given file and returns the resulting file contents
+     * @param testResource file to be copied
+     * @param startLine start line of the comment
+     * @param endLine end line of the comment
+     * @param streaming states whether the streaming mode should be used
+     * @return the resulting file contents or the name of the exception thrown
+     * @throws IOException
+     */
+    private String addTags(File testResource, int startLine, int endLine, boolean streaming) throws IOException {
+        File tmpFile = File.createTempFile("TestClass", "java");
+        try {
+            FileUtils.copyFile(testResource, tmpFile);
+            FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+            parser.setStreaming(streaming);
+            try {
+                parser.addTags("TAGID", startLine, endLine);
+            } catch (IndexOutOfBoundsException e) {
+                return e.getClass().getName();
+            }
+            return new String(FileUtils.readFileToByteArray(tmpFile), "ISO-8859-1");
+        } finally {
+            FileUtils.deleteQuietly(tmpFile);
+        }
+    }
+    
     /**
      * Tests removal of a single line comment
      * @throws IOException
@@ -299,6 +409,32 @@ public class FileParserTest {
         Assert.assertArrayEquals(FileUtils.readLines(targetFile).toArray(), FileUtils.readLines(tmpFile).toArray());
     }
     
+    /**
+     * Tests removal of several comments at once
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    @Test
+    public void testRemoveTags_multipleIds() throws IOException, URISyntaxException {
+        File testResource = new File(getClass().getResource("/resources/CommentedClass.java").toURI());
+        File tmpFile = File.createTempFile("CommentedClass", "java");
+        FileUtils.copyFile(testResource, tmpFile);
+        File sequentialFile = File.createTempFile("CommentedClass", "java");
+        FileUtils.copyFile(testResource, sequentialFile);
+        
+        //execution
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.removeTags(Arrays.asList("111", "333", "444"));
+        parser = new FileParser(sequentialFile, new String[] { "/*", "*/" });
+        parser.removeTags("111");
+        parser.removeTags("333");
+        parser.removeTags("444");
+        
+        //assertions
+        Assert.assertArrayEquals(FileUtils.readLines(sequentialFile).toArray(), FileUtils.readLines(tmpFile).toArray());
+        Assert.assertTrue(FileUtils.readFileToString(tmpFile).contains("|222|"));
+    }
+    
     /**
      * Tests comment tag cleanup
      * @throws IOException
@@ -320,6 +456,386 @@ public class FileParserTest {
         Assert.assertArrayEquals(FileUtils.readLines(targetFile).toArray(), FileUtils.readLines(tmpFile).toArray());
     }
     
+    /**
+     * Tests listing of all tags of a file without modifying it
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    @Test
+    public void testListTags() throws IOException, URISyntaxException {
+        File testResource = new File(getClass().getResource("/resources/CommentedClass.java").toURI());
+        File tmpFile = File.createTempFile("CommentedClass", "java");
+        FileUtils.copyFile(testResource, tmpFile);
+        long lastModified = tmpFile.lastModified();
+        
+        //execution
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        List<TagOccurrence> occurrences = parser.listTags();
+        
+        //assertions
+        Assert.assertEquals("[111 SINGLE_LINE [14:24], 222 SINGLE_LINE [24:33], 333 START (cleanup) [30:4], 333 END [33:7], 444 START [42:26], "
+                + "444 END [44:5]]", occurrences.toString());
+        Assert.assertArrayEquals(FileUtils.readLines(testResource).toArray(), FileUtils.readLines(tmpFile).toArray());
+        Assert.assertEquals(lastModified, tmpFile.lastModified());
+    }
+    
+    /**
+     * Tests that adding and removing a tag restores the exact bytes of a file with mixed line terminators, no trailing line terminator and bytes
+     * not being valid in the file charset
+     * @throws IOException
+     */
+    @Test
+    public void testAddAndRemoveTags_byteExact() throws IOException {
+        byte[] contents = concat("class A {\r\n    int a;\r\n    String s = \"".getBytes("US-ASCII"), new byte[] { (byte) 0xC3, (byte) 0xFF },
+                "\";\r    void b() {}\n}".getBytes("US-ASCII"));
+        File tmpFile = File.createTempFile("ByteExact", "java");
+        FileUtils.writeByteArrayToFile(tmpFile, contents);
+        
+        //execution
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.setCharset(Charset.forName("UTF-8"));
+        parser.addTags("\u00e4", 2, 3);
+        byte[] tagged = FileUtils.readFileToByteArray(tmpFile);
+        List<TagOccurrence> occurrences = parser.listTags();
+        parser.removeTags("\u00e4");
+        
+        //assertions
+        CommentTagBuilder tagBuilder = new CommentTagBuilder("/*", "*/");
+        byte[] startTag = tagBuilder.isMultilineStartTag().buildTag("\u00e4").getBytes("UTF-8");
+        byte[] endTag = tagBuilder.isMultilineEndTag().buildTag("\u00e4").getBytes("UTF-8");
+        Assert.assertArrayEquals(concat("class A {\r\n    int a;".getBytes("US-ASCII"), startTag, "\r\n    String s = \"".getBytes("US-ASCII"),
+                new byte[] { (byte) 0xC3, (byte) 0xFF }, "\";".getBytes("US-ASCII"), endTag, "\r    void b() {}\n}".getBytes("US-ASCII")), tagged);
+        Assert.assertEquals("[\u00e4 START [2:10], \u00e4 END [3:20]]", occurrences.toString());
+        Assert.assertArrayEquals(contents, FileUtils.readFileToByteArray(tmpFile));
+    }
+    
+    /**
+     * Tests that files with a UTF-16 byte order mark are processed in UTF-16
+     * @throws IOException
+     */
+    @Test
+    public void testAddTags_utf16() throws IOException {
+        File tmpFile = File.createTempFile("Utf16", "java");
+        FileUtils.writeStringToFile(tmpFile, "class A {\n    int a;\n}\n", "UTF-16");
+        
+        //execution
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.addTags("ID", 2, 2);
+        
+        //assertions
+        String tag = new CommentTagBuilder("/*", "*/").isSingleLine().buildTag("ID");
+        Assert.assertArrayEquals(("class A {\n    int a;" + tag + "\n}\n").getBytes("UTF-16"), FileUtils.readFileToByteArray(tmpFile));
+        Assert.assertEquals("[ID SINGLE_LINE [2:10]]", parser.listTags().toString());
+    }
+    
+    /**
+     * Tests that UTF-16 files without byte order mark are processed in UTF-16 instead of being modified byte-wise
+     * @throws IOException
+     */
+    @Test
+    public void testAddTags_utf16WithoutByteOrderMark() throws IOException {
+        File tmpFile = File.createTempFile("Utf16", "java");
+        FileUtils.writeStringToFile(tmpFile, "class A {\n    int a;\n}\n", "UTF-16LE");
+        
+        //execution
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.addTags("ID", 2, 2);
+        
+        //assertions
+        String tag = new CommentTagBuilder("/*", "*/").isSingleLine().buildTag("ID");
+        Assert.assertArrayEquals(("class A {\n    int a;" + tag + "\n}\n").getBytes("UTF-16LE"), FileUtils.readFileToByteArray(tmpFile));
+        Assert.assertEquals("[ID SINGLE_LINE [2:10]]", parser.listTags().toString());
+        FileUtils.deleteQuietly(tmpFile);
+    }
+    
+    /**
+     * Tests that Shift_JIS files are decoded, such that trail bytes like 0x5C within a string literal do not hide the start of a following comment
+     * @throws IOException
+     */
+    @Test
+    public void testAddTags_shiftJis() throws IOException {
+        String contents = "class A {\n    String s = \"\u30bd\"; /*\n     * comment\n     */\n    int a;\n}\n";
+        Charset shiftJis = Charset.forName("Shift_JIS");
+        Assert.assertEquals(0x5C, contents.substring(contents.indexOf('\u30bd')).getBytes(shiftJis)[1]);
+        File tmpFile = File.createTempFile("ShiftJis", "java");
+        File utf8File = File.createTempFile("Utf8", "java");
+        FileUtils.writeStringToFile(tmpFile, contents, shiftJis);
+        FileUtils.writeStringToFile(utf8File, contents, "UTF-8");
+        
+        //execution
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.setCharset(shiftJis);
+        parser.addTags("ID", 3, 3);
+        new FileParser(utf8File, new String[] { "/*", "*/" }).addTags("ID", 3, 3);
+        
+        //assertions
+        String expected = FileUtils.readFileToString(utf8File, "UTF-8");
+        Assert.assertEquals(expected, FileUtils.readFileToString(tmpFile, shiftJis));
+        Assert.assertTrue(expected.endsWith("     */" + new CommentTagBuilder("/*", "*/").isMultilineEndTag().buildTag("ID") + "\n    int a;\n}\n"));
+        Assert.assertEquals("[ID START (cleanup) [2:0], ID END [5:7]]", parser.listTags().toString());
+        FileUtils.deleteQuietly(tmpFile);
+        FileUtils.deleteQuietly(utf8File);
+    }
+    
+    /**
+     * Tests that concurrent modifications of the same file by different parsers do not lose any update
+     * @throws Exception
+     */
+    @Test
+    public void testAddTags_concurrent() throws Exception {
+        File testResource = new File(getClass().getResource("/resources/TestClass.java").toURI());
+        final File tmpFile = File.createTempFile("TestClass", "java");
+        FileUtils.copyFile(testResource, tmpFile);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        
+        //execution
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (int i = 0; i < 8; i++) {
+            final String tagId = "ID" + i;
+            final int line = 24 + i;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    new FileParser(tmpFile, new String[] { "/*", "*/" }).addTags(tagId, line, line);
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        
+        //assertions
+        Set<String> tagIds = new HashSet<String>();
+        for (TagOccurrence occurrence : new FileParser(tmpFile, new String[] { "/*", "*/" }).listTags()) {
+            tagIds.add(occurrence.getTagId());
+        }
+        Assert.assertEquals(8, tagIds.size());
+        FileUtils.deleteQuietly(tmpFile);
+    }
+    
+    /**
+     * Tests that adding tags reports the bytes read and written, the scanned lines and the adapted selection to the metrics
+     * @throws Exception
+     */
+    @Test
+    public void testAddTags_metrics() throws Exception {
+        File testResource = new File(getClass().getResource("/resources/TestClass.java").toURI());
+        File tmpFile = File.createTempFile("TestClass", "java");
+        FileUtils.copyFile(testResource, tmpFile);
+        AggregatingParserMetrics metrics = new AggregatingParserMetrics();
+        
+        //execution
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.setMetrics(metrics);
+        parser.addTags("TAGID", 15, 17);
+        
+        //assertions
+        OperationMetrics addTags = metrics.getMetrics(ParserOperation.ADD_TAGS);
+        Assert.assertEquals(1, addTags.getCount());
+        Assert.assertEquals(0, addTags.getFailures());
+        Assert.assertEquals(testResource.length(), addTags.getBytesRead());
+        Assert.assertEquals(tmpFile.length(), addTags.getBytesWritten());
+        Assert.assertEquals(FileUtils.readLines(testResource).size(), addTags.getLinesScanned());
+        Assert.assertEquals(1, addTags.getSelectionAdaptations());
+        Assert.assertEquals(0, addTags.getSkippedRewrites());
+        Assert.assertEquals(1, addTags.getLatencies().getCount());
+        Assert.assertEquals(0, metrics.getMetrics(ParserOperation.REMOVE_TAGS).getCount());
+        FileUtils.deleteQuietly(tmpFile);
+    }
+    
+    /**
+     * Tests that removals are reported per operation and that removals without any matching tag are reported as skipped rewrites
+     * @throws Exception
+     */
+    @Test
+    public void testRemoveTags_metrics() throws Exception {
+        File testResource = new File(getClass().getResource("/resources/CommentedClass.java").toURI());
+        File tmpFile = File.createTempFile("CommentedClass", "java");
+        FileUtils.copyFile(testResource, tmpFile);
+        AggregatingParserMetrics metrics = new AggregatingParserMetrics();
+        
+        //execution
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.setMetrics(metrics);
+        parser.removeTags("111");
+        parser.removeTags("unknown");
+        parser.clearAllTags();
+        
+        //assertions
+        OperationMetrics removeTags = metrics.getMetrics(ParserOperation.REMOVE_TAGS);
+        Assert.assertEquals(2, removeTags.getCount());
+        Assert.assertEquals(1, removeTags.getSkippedRewrites());
+        Assert.assertEquals(2 * FileUtils.readLines(testResource).size(), removeTags.getLinesScanned());
+        Assert.assertTrue(removeTags.getRegexEvaluations() > 0);
+        OperationMetrics clearAllTags = metrics.getMetrics(ParserOperation.CLEAR_ALL_TAGS);
+        Assert.assertEquals(1, clearAllTags.getCount());
+        Assert.assertEquals(0, clearAllTags.getSkippedRewrites());
+        Assert.assertEquals(tmpFile.length(), clearAllTags.getBytesWritten());
+        FileUtils.deleteQuietly(tmpFile);
+    }
+    
+    /**
+     * Tests that failing operations are reported as failures
+     * @throws Exception
+     */
+    @Test
+    public void testAddTags_metricsOnFailure() throws Exception {
+        File tmpFile = File.createTempFile("Missing", "java");
+        FileUtils.deleteQuietly(tmpFile);
+        AggregatingParserMetrics metrics = new AggregatingParserMetrics();
+        
+        //execution
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.setMetrics(metrics);
+        parser.setCharset(Charset.forName("UTF-8"));
+        try {
+            parser.addTags("TAGID", 1, 1);
+            Assert.fail("Tags have been added to a missing file");
+        } catch (IOException e) {
+            // expected
+        }
+        
+        //assertions
+        Assert.assertEquals(1, metrics.getMetrics(ParserOperation.ADD_TAGS).getCount());
+        Assert.assertEquals(1, metrics.getMetrics(ParserOperation.ADD_TAGS).getFailures());
+    }
+    
+    /**
+     * Tests that each operation of a parser shared between threads is reported with its own statistics
+     * @throws Exception
+     */
+    @Test
+    public void testAddTags_metricsSharedParser() throws Exception {
+        File testResource = new File(getClass().getResource("/resources/TestClass.java").toURI());
+        final File tmpFile = File.createTempFile("TestClass", "java");
+        FileUtils.copyFile(testResource, tmpFile);
+        AggregatingParserMetrics metrics = new AggregatingParserMetrics();
+        final FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.setMetrics(metrics);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        
+        //execution
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (int i = 0; i < 40; i++) {
+            final String tagId = "TAGID" + i;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    parser.addTags(tagId, 5, 5);
+                    parser.removeTags(tagId);
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        
+        //assertions
+        int lineCount = FileUtils.readLines(testResource).size();
+        OperationMetrics addTags = metrics.getMetrics(ParserOperation.ADD_TAGS);
+        Assert.assertEquals(40, addTags.getCount());
+        Assert.assertEquals(0, addTags.getFailures());
+        Assert.assertEquals(40 * lineCount, addTags.getLinesScanned());
+        OperationMetrics removeTags = metrics.getMetrics(ParserOperation.REMOVE_TAGS);
+        Assert.assertEquals(40, removeTags.getCount());
+        Assert.assertEquals(40 * lineCount, removeTags.getLinesScanned());
+        // each operation reads the file written by the previous one and the file finally has its original size
+        Assert.assertEquals(addTags.getBytesWritten() + removeTags.getBytesWritten(), addTags.getBytesRead() + removeTags.getBytesRead());
+        Assert.assertEquals(FileUtils.readFileToString(testResource), FileUtils.readFileToString(tmpFile));
+        FileUtils.deleteQuietly(tmpFile);
+    }
+    
+    /**
+     * Tests that moving tags leads to the same result as removing and adding them, whereby the new lines are corrected by the removed lines
+     * @throws Exception
+     */
+    @Test
+    public void testMoveTags_withLineRemoval() throws Exception {
+        AggregatingParserMetrics metrics = new AggregatingParserMetrics();
+        
+        //execution
+        String moved = moveTags("333", 34, 34, metrics);
+        
+        //assertions
+        Assert.assertEquals(removeAndAddTags("333", 33, 33), moved);
+        Assert.assertEquals(1, metrics.getMetrics(ParserOperation.MOVE_TAGS).getCount());
+        Assert.assertEquals(0, metrics.getMetrics(ParserOperation.ADD_TAGS).getCount());
+    }
+    
+    /**
+     * Tests that a removed start line of the new selection is replaced by its following line
+     * @throws Exception
+     */
+    @Test
+    public void testMoveTags_removedStartLine() throws Exception {
+        Assert.assertEquals(removeAndAddTags("333", 30, 32), moveTags("333", 30, 33, new AggregatingParserMetrics()));
+    }
+    
+    /**
+     * Tests moving a single-line tag to a multi-line selection
+     * @throws Exception
+     */
+    @Test
+    public void testMoveTags_multiLine() throws Exception {
+        Assert.assertEquals(removeAndAddTags("111", 23, 26), moveTags("111", 23, 26, new AggregatingParserMetrics()));
+    }
+    
+    /**
+     * Moves the tags with the given id within a copy of the CommentedClass resource
+     * @param tagId tag id of the tags to be moved
+     * @param startLine new start line
+     * @param endLine new end line
+     * @param metrics {@link ParserMetrics} the operation is reported to
+     * @return the resulting file contents
+     * @throws Exception
+     */
+    private String moveTags(String tagId, int startLine, int endLine, ParserMetrics metrics) throws Exception {
+        File tmpFile = File.createTempFile("CommentedClass", "java");
+        FileUtils.copyFile(new File(getClass().getResource("/resources/CommentedClass.java").toURI()), tmpFile);
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.setMetrics(metrics);
+        parser.moveTags(tagId, startLine, endLine);
+        String result = FileUtils.readFileToString(tmpFile);
+        FileUtils.deleteQuietly(tmpFile);
+        return result;
+    }
+    
+    /**
+     * Removes the tags with the given id and adds them again within a copy of the CommentedClass resource
+     * @param tagId tag id of the tags to be moved
+     * @param startLine new start line after the removal
+     * @param endLine new end line after the removal
+     * @return the resulting file contents
+     * @throws Exception
+     */
+    private String removeAndAddTags(String tagId, int startLine, int endLine) throws Exception {
+        File tmpFile = File.createTempFile("CommentedClass", "java");
+        FileUtils.copyFile(new File(getClass().getResource("/resources/CommentedClass.java").toURI()), tmpFile);
+        FileParser parser = new FileParser(tmpFile, new String[] { "/*", "*/" });
+        parser.removeTags(tagId);
+        parser.addTags(tagId, startLine, endLine);
+        String result = FileUtils.readFileToString(tmpFile);
+        FileUtils.deleteQuietly(tmpFile);
+        return result;
+    }
+    
+    /**
+     * Concatenates the given byte arrays
+     * @param arrays to be concatenated
+     * @return the concatenation of all arrays
+     */
+    private static byte[] concat(byte[]... arrays) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] array : arrays) {
+            out.write(array, 0, array.length);
+        }
+        return out.toByteArray();
+    }
+    
     /**
      * Returns the requested line interval by connecting the lines with \n line breaks
      * @param file File to get the lines from
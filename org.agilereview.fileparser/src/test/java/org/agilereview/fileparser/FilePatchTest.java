@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link FilePatch}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class FilePatchTest {
+    
+    /**
+     * Tests that a patch only modifies the replaced ranges and keeps all other bytes, even if they are not valid in the file charset
+     * @throws IOException
+     */
+    @Test
+    public void testApply_byteWise() throws IOException {
+        Path file = Files.createTempFile("FilePatch", "java");
+        Files.write(file, new byte[] { 'a', '\r', '\n', (byte) 0xFF, 'b', 'c', '\r', 'd' });
+        
+        FilePatch patch = new FilePatch();
+        patch.replaceLine(0, "a", "a/*x*/");
+        patch.replace(3, 0, "\u00e4");
+        patch.replaceLine(4, "bc", "b");
+        patch.replace(7, 1, "");
+        patch.apply(file, new ByteTransparentCharset(Charset.forName("UTF-8")));
+        
+        Assert.assertArrayEquals(new byte[] { 'a', '/', '*', 'x', '*', '/', '\r', '\n', (byte) 0xC3, (byte) 0xA4, (byte) 0xFF, 'b', '\r' },
+                Files.readAllBytes(file));
+    }
+    
+    /**
+     * Tests that a patch is applied on the decoded characters for charsets which are not ASCII-compatible
+     * @throws IOException
+     */
+    @Test
+    public void testApply_charWise() throws IOException {
+        Charset utf16 = Charset.forName("UTF-16LE");
+        Path file = Files.createTempFile("FilePatch", "java");
+        Files.write(file, "\uFEFFab\r\ncd".getBytes(utf16));
+        
+        FilePatch patch = new FilePatch();
+        patch.replace(3, 0, "/*x*/");
+        patch.replace(3, 2, "\n");
+        patch.replaceLine(5, "cd", "d");
+        patch.apply(file, utf16);
+        
+        Assert.assertArrayEquals("\uFEFFab/*x*/\nd".getBytes(utf16), Files.readAllBytes(file));
+    }
+    
+    /**
+     * Tests that overlapping ranges are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplace_overlapping() {
+        FilePatch patch = new FilePatch();
+        patch.replace(4, 2, "");
+        patch.replace(5, 0, "x");
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link LanguageProfileRegistry}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class LanguageProfileRegistryTest {
+    
+    /**
+     * Tests resolving the default profiles by file extension
+     */
+    @Test
+    public void testGetProfile_default() {
+        LanguageProfileRegistry registry = LanguageProfileRegistry.getDefault();
+        LanguageProfile java = registry.getProfile(Paths.get("src", "Foo.JAVA"));
+        Assert.assertEquals("Java", java.getName());
+        Assert.assertSame(java, registry.getProfile("java"));
+        Assert.assertEquals("<!--", registry.getProfile(Paths.get("index.html")).getMultilineCommentStartSign());
+        Assert.assertEquals("CSS", registry.getProfile("css").getName());
+        Assert.assertNull(registry.getProfile(Paths.get("README")));
+        Assert.assertNull(registry.getProfile("go"));
+        Assert.assertNull(registry.getProfile("php"));
+        Assert.assertTrue(java.newTagScanner().reset("code();" + java.newTagBuilder().isSingleLine().buildTag("ID")).find());
+    }
+    
+    /**
+     * Tests that a registry created from comment signs shares one profile per distinct pair of comment signs
+     */
+    @Test
+    public void testFromCommentSigns() {
+        Map<String, String[]> commentSigns = new HashMap<String, String[]>();
+        commentSigns.put("java", new String[] { "/*", "*/" });
+        commentSigns.put("c", new String[] { "/*", "*/" });
+        commentSigns.put("xml", new String[] { "<!--", "-->" });
+        LanguageProfileRegistry registry = LanguageProfileRegistry.fromCommentSigns(commentSigns);
+        
+        Assert.assertSame(registry.getProfile("java"), registry.getProfile("c"));
+        Assert.assertNotSame(registry.getProfile("java"), registry.getProfile("xml"));
+        Assert.assertEquals(2, registry.getProfiles().size());
+        
+        registry.register(new LanguageProfile("Custom", "{-", "-}", "hs"));
+        Assert.assertEquals("Custom", registry.getProfile("HS").getName());
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link LatencyHistogram}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class LatencyHistogramTest {
+    
+    /**
+     * Tests that latencies are counted in buckets of exponentially growing width
+     */
+    @Test
+    public void testGetBucket() {
+        Assert.assertEquals(0, LatencyHistogram.getBucket(999));
+        Assert.assertEquals(1, LatencyHistogram.getBucket(1000));
+        Assert.assertEquals(2, LatencyHistogram.getBucket(2000));
+        Assert.assertEquals(2, LatencyHistogram.getBucket(3999));
+        Assert.assertEquals(10, LatencyHistogram.getBucket(TimeUnit.MILLISECONDS.toNanos(1)));
+        Assert.assertEquals(11, LatencyHistogram.getBucket(TimeUnit.MICROSECONDS.toNanos(1024)));
+        Assert.assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.getBucket(Long.MAX_VALUE));
+    }
+    
+    /**
+     * Tests that percentiles are reported as the upper bound of their bucket
+     */
+    @Test
+    public void testGetPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        
+        //execution
+        for (int i = 0; i < 98; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(50));
+        
+        //assertions
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(128, histogram.getPercentile(50, TimeUnit.MICROSECONDS));
+        Assert.assertEquals(16384, histogram.getPercentile(99, TimeUnit.MICROSECONDS));
+        Assert.assertEquals(65536, histogram.getPercentile(100, TimeUnit.MICROSECONDS));
+        Assert.assertEquals(50, histogram.getMax(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(698, histogram.getMean(TimeUnit.MICROSECONDS), 0.001);
+    }
+    
+    /**
+     * Tests that an empty or reset histogram reports zero for all values
+     */
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getPercentile(50, TimeUnit.MICROSECONDS));
+        
+        //execution
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.reset();
+        
+        //assertions
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getBucketCount(10));
+        Assert.assertEquals(0, histogram.getMax(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(0, histogram.getMean(TimeUnit.NANOSECONDS), 0);
+    }
+}
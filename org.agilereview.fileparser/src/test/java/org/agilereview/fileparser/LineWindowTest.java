@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link LineWindow}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class LineWindowTest {
+    
+    /**
+     * Charset used for all patches
+     */
+    private static final Charset CHARSET = new ByteTransparentCharset(Charset.forName("UTF-8"));
+    
+    /**
+     * Tests that modified, inserted and appended lines are recorded in the patch keeping all original line terminators
+     * @throws IOException
+     */
+    @Test
+    public void testFlush() throws IOException {
+        LineWindow window = new LineWindow();
+        window.addLine("a", "\r\n");
+        window.addLine("b", "\n");
+        window.addLine("c", "");
+        
+        //execution
+        window.set(1, window.get(1) + "/*x*/");
+        window.add(3, "d");
+        window.add(0, "start");
+        FilePatch patch = new FilePatch();
+        window.flush(window.size(), patch);
+        
+        //assertions
+        Assert.assertEquals(5, window.size());
+        Assert.assertEquals("start\r\na\r\nb/*x*/\nc\r\nd", applyPatch("a\r\nb\nc", patch));
+    }
+    
+    /**
+     * Tests that skipped lines are removed including their line terminators, even behind the last line of the window
+     * @throws IOException
+     */
+    @Test
+    public void testFlush_skippedLines() throws IOException {
+        LineWindow window = new LineWindow();
+        FilePatch patch = new FilePatch();
+        
+        //execution
+        window.skipLine("a", "\n");
+        window.addLine("b", "\n");
+        window.skipLine("c", "\r\n");
+        window.addLine("d", "\n");
+        window.add(1, "inserted");
+        window.flush(1, patch);
+        window.skipLine("e", "");
+        window.flush(window.size(), patch);
+        
+        //assertions
+        Assert.assertEquals(3, window.size());
+        Assert.assertEquals("b\ninserted\nd\n", applyPatch("a\nb\nc\r\nd\ne", patch));
+    }
+    
+    /**
+     * Tests that the text buffer switches to chars as soon as a character is not representable as a single byte
+     */
+    @Test
+    public void testSet_nonByteCharacter() {
+        LineWindow window = new LineWindow();
+        window.addLine("a\uDCFFb", "\n");
+        window.addLine("c", "\n");
+        
+        //execution
+        window.set(1, "c\u00e4");
+        
+        //assertions
+        Assert.assertEquals("a\uDCFFb", window.get(0));
+        Assert.assertEquals("c\u00e4", window.get(1));
+    }
+    
+    /**
+     * Tests that random insertions and modifications lead to the same lines as an {@link ArrayList}, such that the gap is moved correctly
+     */
+    @Test
+    public void testAdd_random() {
+        LineWindow window = new LineWindow();
+        List<String> expected = new ArrayList<String>();
+        Random random = new Random(42);
+        
+        //execution
+        for (int i = 0; i < 5000; i++) {
+            String line = "line" + i;
+            int operation = random.nextInt(3);
+            if (operation == 0 || expected.isEmpty()) {
+                window.addLine(line, "\n");
+                expected.add(line);
+            } else if (operation == 1) {
+                int index = random.nextInt(expected.size() + 1);
+                window.add(index, line);
+                expected.add(index, line);
+            } else {
+                int index = random.nextInt(expected.size());
+                window.set(index, window.get(index) + "x");
+                expected.set(index, expected.get(index) + "x");
+            }
+        }
+        
+        //assertions
+        Assert.assertEquals(expected, window);
+    }
+    
+    /**
+     * Tests that flushing while reading keeps the retained lines intact when the text buffer is compacted
+     * @throws IOException
+     */
+    @Test
+    public void testFlush_streaming() throws IOException {
+        LineWindow window = new LineWindow();
+        FilePatch patch = new FilePatch();
+        StringBuilder original = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        
+        //execution
+        for (int i = 0; i < 10000; i++) {
+            String line = "line " + i;
+            original.append(line).append('\n');
+            expected.append(line).append(i % 3 == 0 ? "/*x*/" : "").append('\n');
+            window.addLine(line, "\n");
+            if (i % 3 == 0) {
+                window.set(i, window.get(i) + "/*x*/");
+            }
+            if (i % 100 == 99) {
+                window.flush(i - 10, patch);
+                Assert.assertEquals("line " + (i - 10), window.get(i - 10).substring(0, ("line " + (i - 10)).length()));
+            }
+        }
+        window.flush(window.size(), patch);
+        
+        //assertions
+        Assert.assertEquals(expected.toString(), applyPatch(original.toString(), patch));
+    }
+    
+    /**
+     * Tests that flushed lines cannot be accessed anymore
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGet_flushed() {
+        LineWindow window = new LineWindow();
+        window.addLine("a", "\n");
+        window.addLine("b", "\n");
+        window.flush(1, new FilePatch());
+        window.get(0);
+    }
+    
+    /**
+     * Applies the given patch to a temporary file with the given contents
+     * @param contents original contents
+     * @param patch {@link FilePatch} to be applied
+     * @return the patched contents
+     * @throws IOException
+     */
+    private static String applyPatch(String contents, FilePatch patch) throws IOException {
+        Path file = Files.createTempFile("LineWindow", "java");
+        try {
+            Files.write(file, contents.getBytes("UTF-8"));
+            patch.apply(file, CHARSET);
+            return new String(Files.readAllBytes(file), "UTF-8");
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link ParserMetricsExporter}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class ParserMetricsExporterTest {
+    
+    /**
+     * Tests that the metrics of each operation can be read via JMX and that all MXBeans are unregistered again
+     * @throws Exception
+     */
+    @Test
+    public void testExport() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        AggregatingParserMetrics metrics = new AggregatingParserMetrics();
+        ParserMetricsExporter exporter = new ParserMetricsExporter(metrics, "test", server);
+        
+        //execution
+        exporter.export();
+        metrics.operationCompleted(new OperationStatistics(ParserOperation.REMOVE_TAGS, false, 100, 0, 10, 2, 0, true, 5000));
+        
+        //assertions
+        ObjectName removeTags = exporter.getObjectName(ParserOperation.REMOVE_TAGS);
+        Assert.assertEquals("org.agilereview.fileparser:type=ParserMetrics,name=\"test\",operation=removeTags", removeTags.toString());
+        Assert.assertEquals(1L, server.getAttribute(removeTags, "Count"));
+        Assert.assertEquals(100L, server.getAttribute(removeTags, "BytesRead"));
+        Assert.assertEquals(1L, server.getAttribute(removeTags, "SkippedRewrites"));
+        Assert.assertEquals(8L, server.getAttribute(removeTags, "MedianLatencyMicros"));
+        Assert.assertEquals(0L, server.getAttribute(exporter.getObjectName(ParserOperation.ADD_TAGS), "Count"));
+        server.invoke(removeTags, "reset", new Object[0], new String[0]);
+        Assert.assertEquals(0, metrics.getMetrics(ParserOperation.REMOVE_TAGS).getCount());
+        
+        exporter.unexport();
+        for (ParserOperation operation : ParserOperation.values()) {
+            Assert.assertFalse(server.isRegistered(exporter.getObjectName(operation)));
+        }
+    }
+    
+    /**
+     * Tests that a failed export does not leave any MXBean registered
+     * @throws Exception
+     */
+    @Test
+    public void testExport_nameInUse() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ParserMetricsExporter first = new ParserMetricsExporter(new AggregatingParserMetrics(), "test", server);
+        ParserMetricsExporter second = new ParserMetricsExporter(new AggregatingParserMetrics(), "test", server);
+        first.export();
+        server.unregisterMBean(first.getObjectName(ParserOperation.REMOVE_TAGS));
+        server.unregisterMBean(first.getObjectName(ParserOperation.ADD_TAGS));
+        
+        //execution
+        try {
+            second.export();
+            Assert.fail("The metrics have been exported twice under the same name");
+        } catch (InstanceAlreadyExistsException e) {
+            // expected
+        }
+        
+        //assertions
+        first.unexport();
+        Assert.assertTrue(server.queryNames(new ObjectName(ParserMetricsExporter.DOMAIN + ":*"), null).isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.agilereview.fileparser.TagOccurrence.Kind;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link TagConsistencyChecker}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class TagConsistencyCheckerTest {
+    
+    /**
+     * Tests that correctly paired, nested and single line tags are consistent
+     */
+    @Test
+    public void testCheck_consistent() {
+        List<TagOccurrence> tags = Arrays.asList(tag("a", 1, Kind.START), tag("b", 2, Kind.START), tag("c", 3, Kind.SINGLE_LINE),
+                tag("b", 4, Kind.END), tag("a", 5, Kind.END));
+        
+        //execution
+        List<TagInconsistency> inconsistencies = TagConsistencyChecker.check(tags);
+        
+        //assertions
+        Assert.assertTrue(inconsistencies.isEmpty());
+    }
+    
+    /**
+     * Tests that start and end tags without counterpart, end tags in front of their start tag and unmarked tags are reported as dangling in the
+     * order of their occurrence
+     */
+    @Test
+    public void testCheck_danglingTags() {
+        List<TagOccurrence> tags = Arrays.asList(tag("a", 1, Kind.END), tag("b", 2, Kind.START), tag("a", 3, Kind.START), tag("c", 4, Kind.UNMARKED),
+                tag("d", 5, Kind.START), tag("d", 6, Kind.START), tag("d", 7, Kind.END));
+        
+        //execution
+        List<TagInconsistency> inconsistencies = TagConsistencyChecker.check(tags);
+        
+        //assertions
+        Assert.assertEquals("[ORPHAN_END 1, ORPHAN_START 2, ORPHAN_START 3, UNMARKED 4, ORPHAN_START 5]", format(inconsistencies));
+        for (TagInconsistency inconsistency : inconsistencies) {
+            Assert.assertTrue(inconsistency.isDangling());
+        }
+    }
+    
+    /**
+     * Tests that all tags of a comment reusing the tag id of a previous comment are reported as duplicates
+     */
+    @Test
+    public void testCheck_duplicates() {
+        List<TagOccurrence> tags = Arrays.asList(tag("a", 1, Kind.START), tag("a", 2, Kind.END), tag("a", 3, Kind.START), tag("a", 4, Kind.END),
+                tag("b", 5, Kind.SINGLE_LINE), tag("b", 6, Kind.SINGLE_LINE));
+        
+        //execution
+        List<TagInconsistency> inconsistencies = TagConsistencyChecker.check(tags);
+        
+        //assertions
+        Assert.assertEquals("[DUPLICATE 3, DUPLICATE 4, DUPLICATE 6]", format(inconsistencies));
+        Assert.assertFalse(inconsistencies.get(0).isDangling());
+    }
+    
+    /**
+     * Creates a new {@link TagOccurrence} at the beginning of the given line
+     * @param tagId tag id of the tag
+     * @param line line of the tag
+     * @param kind kind of the tag
+     * @return the {@link TagOccurrence}
+     */
+    private static TagOccurrence tag(String tagId, int line, Kind kind) {
+        return new TagOccurrence(tagId, line, 0, kind, false);
+    }
+    
+    /**
+     * Formats the given inconsistencies by their kind and line
+     * @param inconsistencies {@link TagInconsistency}s to be formatted
+     * @return the formatted inconsistencies
+     */
+    private static String format(List<TagInconsistency> inconsistencies) {
+        List<String> formatted = new ArrayList<String>();
+        for (TagInconsistency inconsistency : inconsistencies) {
+            formatted.add(inconsistency.getKind() + " " + inconsistency.getTag().getLine());
+        }
+        return formatted.toString();
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link TagIndex}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class TagIndexTest {
+    
+    /**
+     * Comment signs of java files
+     */
+    private static final String[] JAVA_SIGNS = { "/*", "*/" };
+    /**
+     * Temporary directory of each test
+     */
+    private Path dir;
+    /**
+     * Java file containing tags
+     */
+    private Path file;
+    
+    /**
+     * Creates the test directory
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    @Before
+    public void setUp() throws IOException, URISyntaxException {
+        dir = Files.createTempDirectory("TagIndexTest");
+        file = dir.resolve("CommentedClass.java");
+        FileUtils.copyFile(new File(getClass().getResource("/resources/CommentedClass.java").toURI()), file.toFile());
+    }
+    
+    /**
+     * Deletes the test directory
+     * @throws IOException
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+    
+    /**
+     * Tests that a saved index is loaded with the same entries
+     * @throws IOException
+     */
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        TagIndex index = new TagIndex();
+        List<TagOccurrence> tags = index.refresh(file, JAVA_SIGNS);
+        Path indexFile = dir.resolve("tags.idx");
+        index.save(indexFile);
+        
+        TagIndex loaded = TagIndex.load(indexFile);
+        Assert.assertEquals(Collections.singleton(TagIndex.toKey(file)), loaded.getFiles());
+        Assert.assertEquals(tags.toString(), loaded.getTags(file).toString());
+        Assert.assertSame(loaded.getTags(file), loaded.refresh(file, JAVA_SIGNS));
+        
+        Files.write(indexFile, new byte[] { 1, 2, 3 });
+        Assert.assertTrue(TagIndex.load(indexFile).getFiles().isEmpty());
+        Assert.assertTrue(TagIndex.load(dir.resolve("missing.idx")).getFiles().isEmpty());
+    }
+    
+    /**
+     * Tests that a loaded index can be saved to the file it has been loaded from and loaded again, as it is done by each session
+     * @throws IOException
+     */
+    @Test
+    public void testLoadSaveLoad_samePath() throws IOException {
+        TagIndex index = new TagIndex();
+        List<TagOccurrence> tags = index.refresh(file, JAVA_SIGNS);
+        Path indexFile = dir.resolve("tags.idx");
+        index.save(indexFile);
+        
+        TagIndex loaded = TagIndex.load(indexFile);
+        loaded.save(indexFile);
+        TagIndex reloaded = TagIndex.load(indexFile);
+        
+        Assert.assertEquals(tags.toString(), reloaded.getTags(file).toString());
+        Assert.assertEquals(tags.toString(), loaded.getTags(file).toString());
+        Files.delete(indexFile);
+        Assert.assertEquals(tags.toString(), reloaded.getTags(file).toString());
+    }
+    
+    /**
+     * Tests that a file is only parsed again if its contents changed
+     * @throws IOException
+     */
+    @Test
+    public void testRefresh() throws IOException {
+        TagIndex index = new TagIndex();
+        List<TagOccurrence> tags = index.refresh(file, JAVA_SIGNS);
+        Assert.assertEquals(6, tags.size());
+        
+        // same contents with new modification time: checksum matches, no parsing
+        file.toFile().setLastModified(file.toFile().lastModified() - 10000);
+        Assert.assertSame(tags, index.refresh(file, JAVA_SIGNS));
+        
+        // changed contents
+        FileUtils.writeStringToFile(file.toFile(), "/*-?|1|?*/\n");
+        Assert.assertEquals("[1 SINGLE_LINE [1:0]]", index.refresh(file, JAVA_SIGNS).toString());
+        
+        // deleted file
+        Files.delete(file);
+        try {
+            index.refresh(file, JAVA_SIGNS);
+            Assert.fail();
+        } catch (IOException e) {
+        }
+        Assert.assertNull(index.getTags(file));
+    }
+    
+    /**
+     * Tests that write operations of the {@link FileParser} update the index
+     * @throws IOException
+     */
+    @Test
+    public void testFileParserUpdatesIndex() throws IOException {
+        TagIndex index = new TagIndex();
+        index.refresh(file, JAVA_SIGNS);
+        FileParser parser = new FileParser(file.toFile(), JAVA_SIGNS);
+        parser.setTagIndex(index);
+        
+        parser.clearAllTags();
+        Assert.assertTrue(index.getTags(file).isEmpty());
+        parser.addTags("new", 5, 5);
+        Assert.assertEquals(parser.listTags().toString(), index.getTags(file).toString());
+    }
+    
+    /**
+     * Tests that a scan with an index removes the entries of deleted files
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testWorkspaceScan() throws IOException, InterruptedException {
+        Path other = dir.resolve("sub").resolve("Other.java");
+        Files.createDirectories(other.getParent());
+        Files.copy(file, other);
+        TagIndex index = new TagIndex();
+        WorkspaceTagScanner scanner = new WorkspaceTagScanner();
+        scanner.setTagIndex(index);
+        TagScanListener listener = new TagScanListener() {
+            @Override
+            public void tagsFound(Path file, List<TagOccurrence> tags) {
+            }
+            
+            @Override
+            public void scanFailed(Path file, IOException e) {
+            }
+        };
+        
+        Assert.assertEquals(12, scanner.scan(dir, listener).getTagCount());
+        Assert.assertEquals(2, index.getFiles().size());
+        Files.delete(other);
+        Assert.assertEquals(6, scanner.scan(dir, listener).getTagCount());
+        Assert.assertEquals(Collections.singleton(TagIndex.toKey(file)), index.getFiles());
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import org.agilereview.common.parser.CommentTagBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link TagMatcher}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class TagMatcherTest {
+    
+    /**
+     * Tests that the literal pre-filter accepts all lines containing tags and rejects lines without tags
+     */
+    @Test
+    public void testMightContainTag() {
+        TagMatcher matcher = new TagMatcher("/*", "*/");
+        CommentTagBuilder tagBuilder = new CommentTagBuilder("/*", "*/");
+        
+        Assert.assertTrue(matcher.mightContainTag("code();" + tagBuilder.isSingleLine().buildTag("ID")));
+        Assert.assertTrue(matcher.mightContainTag("code();" + tagBuilder.isMultilineEndTag().cleanupLineWithCommentRemoval(true).buildTag("ID")));
+        Assert.assertTrue(matcher.mightContainTag("code();/*|ID|*/"));
+        Assert.assertTrue(matcher.mightContainTag("code();/*?|ID|*/"));
+        Assert.assertFalse(matcher.mightContainTag("code(); /* comment */"));
+        Assert.assertFalse(matcher.mightContainTag("    /**"));
+    }
+    
+    /**
+     * Tests removal of all tags from a line
+     */
+    @Test
+    public void testRemoveTags() {
+        TagMatcher matcher = new TagMatcher("/*", "*/");
+        
+        Assert.assertEquals("    /**", matcher.removeTags("    /**/*-?|333|-*/"));
+        Assert.assertEquals("code(); /* comment */", matcher.removeTags("code();/*-?|1|*/ /* comment *//*-|2|?*/"));
+        String line = "code();";
+        Assert.assertSame(line, matcher.removeTags(line));
+    }
+}
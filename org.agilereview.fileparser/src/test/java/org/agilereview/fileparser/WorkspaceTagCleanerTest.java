@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link WorkspaceTagCleaner}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class WorkspaceTagCleanerTest {
+    
+    /**
+     * Root directory of the workspace to be cleaned
+     */
+    private Path root;
+    /**
+     * Test resource containing tags
+     */
+    private File commentedClass;
+    
+    /**
+     * Creates the workspace directory
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    @Before
+    public void setUp() throws IOException, URISyntaxException {
+        root = Files.createTempDirectory("WorkspaceTagCleanerTest");
+        commentedClass = new File(getClass().getResource("/resources/CommentedClass.java").toURI());
+    }
+    
+    /**
+     * Deletes the workspace
+     * @throws IOException
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+    
+    /**
+     * Tests that all tags are removed and files without tags are not rewritten
+     * @throws IOException
+     * @throws InterruptedException
+     * @throws URISyntaxException
+     */
+    @Test
+    public void testClearAllTags() throws IOException, InterruptedException, URISyntaxException {
+        File cleanFile = root.resolve("Clean.java").toFile();
+        FileUtils.writeStringToFile(cleanFile, "/*---------*/\nclass Clean {\r\n}");
+        cleanFile.setLastModified(cleanFile.lastModified() - 60000);
+        long lastModified = cleanFile.lastModified();
+        for (int i = 0; i < 10; i++) {
+            FileUtils.copyFile(commentedClass, root.resolve("pkg" + i).resolve("CommentedClass.java").toFile());
+        }
+        WorkspaceTagCleaner cleaner = new WorkspaceTagCleaner();
+        cleaner.setParallelism(2);
+        
+        //execution
+        CleanupStatistics statistics = cleaner.clearAllTags(root);
+        
+        //assertions
+        File targetFile = new File(getClass().getResource("/resources/CommentedClass_allRemoved.java").toURI());
+        Assert.assertEquals(11, statistics.getFilesScanned());
+        Assert.assertEquals(10, statistics.getFilesModified());
+        Assert.assertEquals(10 * Files.size(root.resolve("pkg3").resolve("CommentedClass.java")), statistics.getBytesRewritten());
+        Assert.assertArrayEquals(FileUtils.readLines(targetFile).toArray(), FileUtils.readLines(root.resolve("pkg3").resolve("CommentedClass.java")
+                .toFile()).toArray());
+        Assert.assertEquals(lastModified, cleanFile.lastModified());
+        Assert.assertEquals("/*---------*/\nclass Clean {\r\n}", FileUtils.readFileToString(cleanFile));
+        
+        Assert.assertEquals(0, cleaner.clearAllTags(root).getFilesModified());
+    }
+    
+    /**
+     * Tests that runtime exceptions thrown while processing a file are counted as failed files
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testClearAllTags_runtimeException() throws IOException, InterruptedException {
+        FileUtils.copyFile(commentedClass, root.resolve("CommentedClass.java").toFile());
+        WorkspaceTagCleaner cleaner = new WorkspaceTagCleaner();
+        cleaner.setTagIndex(new TagIndex() {
+            @Override
+            List<TagOccurrence> refresh(Path file, LanguageProfile profile, boolean force) {
+                throw new IllegalStateException("broken index");
+            }
+        });
+        
+        //execution
+        CleanupStatistics statistics = cleaner.clearAllTags(root);
+        
+        //assertions
+        Assert.assertEquals(1, statistics.getFilesScanned());
+        Assert.assertEquals(1, statistics.getFilesFailed());
+        Assert.assertEquals(0, statistics.getFilesModified());
+    }
+    
+    /**
+     * Tests that tag prefixes are found across the boundaries of the read buffer
+     * @throws IOException
+     */
+    @Test
+    public void testPrefilter_bufferBoundary() throws IOException {
+        ByteTagPrefilter prefilter = new ByteTagPrefilter("/*", "*/");
+        Path file = root.resolve("Large.java");
+        for (int offset = 64 * 1024 - 3; offset <= 64 * 1024 + 1; offset++) {
+            StringBuilder contents = new StringBuilder();
+            for (int i = 0; i < offset; i++) {
+                contents.append(i % 2 == 0 ? '/' : 'x');
+            }
+            Files.write(file, contents.toString().getBytes("UTF-8"));
+            Assert.assertFalse(prefilter.mightContainTag(file));
+            Files.write(file, contents.append("/*?|1|?*/").toString().getBytes("UTF-8"));
+            Assert.assertTrue(prefilter.mightContainTag(file));
+        }
+        Files.write(file, "class A {}".getBytes(Charset.forName("UTF-16")));
+        Assert.assertTrue(prefilter.mightContainTag(file));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link WorkspaceTagScanner}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class WorkspaceTagScannerTest {
+    
+    /**
+     * Root directory of the workspace to be scanned
+     */
+    private Path root;
+    
+    /**
+     * Creates a workspace consisting of several copies of the test resources
+     * @throws IOException if the workspace could not be created
+     * @throws URISyntaxException if the test resources could not be found
+     */
+    @Before
+    public void setUp() throws IOException, URISyntaxException {
+        root = Files.createTempDirectory("WorkspaceTagScannerTest");
+        File commentedClass = new File(getClass().getResource("/resources/CommentedClass.java").toURI());
+        File testClass = new File(getClass().getResource("/resources/TestClass.java").toURI());
+        for (int i = 0; i < 20; i++) {
+            File dir = root.resolve("pkg" + i).toFile();
+            FileUtils.copyFile(commentedClass, new File(dir, "CommentedClass.java"));
+            FileUtils.copyFile(testClass, new File(dir, "TestClass.JAVA"));
+            FileUtils.copyFile(commentedClass, new File(dir, "CommentedClass.txt"));
+        }
+        FileUtils.writeStringToFile(root.resolve("web.xml").toFile(), "<web><!---?|1|?--></web>\n");
+    }
+    
+    /**
+     * Deletes the workspace
+     * @throws IOException if the workspace could not be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+    
+    /**
+     * Tests that all tags of all files with known extensions are reported
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testScan() throws IOException, InterruptedException {
+        final Map<Path, List<TagOccurrence>> result = new ConcurrentHashMap<Path, List<TagOccurrence>>();
+        WorkspaceTagScanner scanner = new WorkspaceTagScanner();
+        scanner.setParallelism(4);
+        
+        //execution
+        ScanStatistics statistics = scanner.scan(root, new TagScanListener() {
+            @Override
+            public void tagsFound(Path file, List<TagOccurrence> tags) {
+                result.put(file, tags);
+            }
+            
+            @Override
+            public void scanFailed(Path file, IOException e) {
+                Assert.fail(file + ": " + e);
+            }
+        });
+        
+        //assertions
+        Assert.assertEquals(41, statistics.getFilesScanned());
+        Assert.assertEquals(21, statistics.getFilesWithTags());
+        Assert.assertEquals(20 * 6 + 1, statistics.getTagCount());
+        Assert.assertEquals(0, statistics.getFilesFailed());
+        Assert.assertEquals(21, result.size());
+        Assert.assertEquals("[1 SINGLE_LINE [1:5]]", result.get(root.resolve("web.xml")).toString());
+        Assert.assertEquals(6, result.get(root.resolve("pkg7").resolve("CommentedClass.java")).size());
+    }
+    
+    /**
+     * Tests that an exception thrown by the listener while reporting a failed file is propagated to the caller of the scan
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testScan_listenerFailsOnFailedFile() throws IOException, InterruptedException {
+        WorkspaceTagScanner scanner = new WorkspaceTagScanner();
+        scanner.setTagIndex(new TagIndex() {
+            @Override
+            public List<TagOccurrence> refresh(Path file, LanguageProfile profile) throws IOException {
+                throw new IOException("unreadable");
+            }
+        });
+        
+        //execution
+        try {
+            scanner.scan(root, new TagScanListener() {
+                @Override
+                public void tagsFound(Path file, List<TagOccurrence> tags) {
+                }
+                
+                @Override
+                public void scanFailed(Path file, IOException e) {
+                    throw new IllegalStateException("listener failed on " + e.getMessage());
+                }
+            });
+            Assert.fail("The failure of the listener has not been propagated");
+        } catch (IllegalStateException e) {
+            //assertions
+            Assert.assertEquals("listener failed on unreadable", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2011, 2012 AgileReview Development Team and others.
+ * All rights reserved. This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License - v 1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ * Contributors: Malte Brunnlieb, Philipp Diebold, Peter Reuter, Thilo Rauch
+ */
+package org.agilereview.fileparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test-Class for the {@link WorkspaceTagValidator}
+ * @author AgileReview Development Team (18.10.2026)
+ */
+public class WorkspaceTagValidatorTest {
+    
+    /**
+     * Contents of a file with broken tags as they might be left over by a merge
+     */
+    private static final String BROKEN_FILE = "class Broken {\n" + "    int a;/*-?|1|*/\n" + "    int b;/*-|1|?*/\n" + "    /*-?|2|-*/\n"
+            + "    String c = \"ä\";/*-|3|?*/ int d;\n" + "    int e;/*-?|4|?*/\n" + "    int f;/*-?|4|?*/\n" + "}";
+    /**
+     * Expected contents of the broken file after the repair
+     */
+    private static final String REPAIRED_FILE = "class Broken {\n" + "    int a;/*-?|1|*/\n" + "    int b;/*-|1|?*/\n"
+            + "    String c = \"ä\"; int d;\n" + "    int e;/*-?|4|?*/\n" + "    int f;/*-?|4|?*/\n" + "}";
+    /**
+     * Root directory of the workspace to be validated
+     */
+    private Path root;
+    /**
+     * Test resource containing consistent tags
+     */
+    private File commentedClass;
+    
+    /**
+     * Creates the workspace directory
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    @Before
+    public void setUp() throws IOException, URISyntaxException {
+        root = Files.createTempDirectory("WorkspaceTagValidatorTest");
+        commentedClass = new File(getClass().getResource("/resources/CommentedClass.java").toURI());
+    }
+    
+    /**
+     * Deletes the workspace
+     * @throws IOException
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+    
+    /**
+     * Tests that orphaned, unmarked and duplicated tags are reported without modifying any file
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testValidate() throws IOException, InterruptedException {
+        File brokenFile = createWorkspace();
+        WorkspaceTagValidator validator = new WorkspaceTagValidator();
+        validator.setParallelism(2);
+        CollectingListener listener = new CollectingListener();
+        
+        //execution
+        ValidationStatistics statistics = validator.validate(root, listener);
+        
+        //assertions
+        Assert.assertEquals(4, statistics.getFilesChecked());
+        Assert.assertEquals(1, statistics.getFilesInconsistent());
+        Assert.assertEquals(0, statistics.getFilesRepaired());
+        Assert.assertEquals(3, statistics.getInconsistencyCount());
+        Assert.assertEquals("[ORPHAN_START 2 (cleanup) [4:4], ORPHAN_END 3 [5:19], DUPLICATE 4 SINGLE_LINE [7:10]]", listener.found.get(brokenFile
+                .toPath()).toString().replaceAll(" (START|END)", ""));
+        Assert.assertEquals(BROKEN_FILE, FileUtils.readFileToString(brokenFile, "UTF-8"));
+    }
+    
+    /**
+     * Tests that dangling tags are removed from inconsistent files only, whereas duplicates are kept
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testValidate_repair() throws IOException, InterruptedException {
+        File brokenFile = createWorkspace();
+        File consistentFile = root.resolve("pkg0").resolve("CommentedClass.java").toFile();
+        consistentFile.setLastModified(consistentFile.lastModified() - 60000);
+        long lastModified = consistentFile.lastModified();
+        WorkspaceTagValidator validator = new WorkspaceTagValidator();
+        validator.setRepair(true);
+        CollectingListener listener = new CollectingListener();
+        
+        //execution
+        ValidationStatistics statistics = validator.validate(root, listener);
+        
+        //assertions
+        Assert.assertEquals(1, statistics.getFilesRepaired());
+        Assert.assertEquals(3, statistics.getInconsistencyCount());
+        Assert.assertEquals(REPAIRED_FILE, FileUtils.readFileToString(brokenFile, "UTF-8"));
+        Assert.assertEquals(lastModified, consistentFile.lastModified());
+        
+        List<TagInconsistency> remaining = new FileParser(brokenFile, new String[] { "/*", "*/" }).checkTags();
+        Assert.assertEquals(1, remaining.size());
+        Assert.assertEquals(TagInconsistency.Kind.DUPLICATE, remaining.get(0).getKind());
+        Assert.assertEquals(0, validator.validate(root, listener).getFilesRepaired());
+    }
+    
+    /**
+     * Creates a workspace with consistent files, a file without tags and a file with broken tags
+     * @return the file with broken tags
+     * @throws IOException
+     */
+    private File createWorkspace() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            FileUtils.copyFile(commentedClass, root.resolve("pkg" + i).resolve("CommentedClass.java").toFile());
+        }
+        FileUtils.writeStringToFile(root.resolve("Clean.java").toFile(), "class Clean {\n}");
+        File brokenFile = root.resolve("pkg1").resolve("Broken.java").toFile();
+        FileUtils.writeStringToFile(brokenFile, BROKEN_FILE, "UTF-8");
+        return brokenFile;
+    }
+    
+    /**
+     * {@link TagInconsistencyListener} collecting all inconsistencies by file
+     */
+    private static class CollectingListener implements TagInconsistencyListener {
+        
+        /**
+         * Inconsistencies found by file
+         */
+        private final Map<Path, List<TagInconsistency>> found = new ConcurrentHashMap<Path, List<TagInconsistency>>();
+        
+        @Override
+        public void inconsistenciesFound(Path file, List<TagInconsistency> inconsistencies, boolean repaired) {
+            found.put(file, inconsistencies);
+        }
+        
+        @Override
+        public void validationFailed(Path file, IOException e) {
+            Assert.fail("Could not check " + file + ": " + e.getMessage());
+        }
+    }
+}